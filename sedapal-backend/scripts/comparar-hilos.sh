@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Comparación de carga: hilos de plataforma vs. hilos virtuales.
+# Requiere Java 21 y `hey` (https://github.com/rakyll/hey).
+#
+# Uso: ./scripts/comparar-hilos.sh [concurrencia] [peticiones]
+# Las rutas a probar se pueden cambiar con la variable RUTAS.
+set -euo pipefail
+
+CONCURRENCIA=${1:-200}
+PETICIONES=${2:-5000}
+PUERTO=${PUERTO:-8080}
+RUTAS=${RUTAS:-"/api/health /api/usuarios/admin/all"}
+JAR=$(ls target/sedapal-backend-*.jar 2>/dev/null | head -1)
+
+if [ -z "$JAR" ]; then
+  mvn -B -q -Pjava21 package -DskipTests
+  JAR=$(ls target/sedapal-backend-*.jar | head -1)
+fi
+
+esperar_inicio() {
+  for _ in $(seq 1 120); do
+    curl -sf "http://localhost:$PUERTO/api/health" >/dev/null && return 0
+    sleep 0.5
+  done
+  echo "El backend no inició" >&2
+  return 1
+}
+
+probar_modo() {
+  local modo=$1 perfiles=$2
+  echo "=============================="
+  echo "Modo: $modo"
+  echo "=============================="
+  java -jar "$JAR" --server.port="$PUERTO" ${perfiles:+--spring.profiles.active=$perfiles} >"target/carga-$modo.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" RETURN
+  esperar_inicio
+  for ruta in $RUTAS; do
+    echo "--- $ruta"
+    hey -c "$CONCURRENCIA" -n "$PETICIONES" "http://localhost:$PUERTO$ruta" \
+      | grep -E "Requests/sec|Average|Slowest|10%|50%|95%|99%|\[[0-9]{3}\]"
+  done
+  if [ "$modo" = "virtual" ]; then
+    echo "--- pinning"
+    curl -s "http://localhost:$PUERTO/api/diagnostico/pinning"; echo
+  fi
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+}
+
+probar_modo plataforma ""
+probar_modo virtual virtual
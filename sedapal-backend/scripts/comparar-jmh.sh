@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Comparación de dos corridas JMH (salida JSON de `mvn -Pbenchmarks verify`).
+# Marca como cambio sólo lo que supera el margen de error de ambas corridas.
+#
+# Uso: ./scripts/comparar-jmh.sh base.json nuevo.json
+# Para guardar una base: cp target/jmh-resultados.json jmh-$(git rev-parse --short HEAD).json
+set -euo pipefail
+
+if [ $# -ne 2 ]; then
+  echo "Uso: $0 base.json nuevo.json" >&2
+  exit 1
+fi
+
+python3 - "$1" "$2" <<'PY'
+import json, sys
+
+def cargar(ruta):
+    with open(ruta) as f:
+        datos = json.load(f)
+    resultado = {}
+    for r in datos:
+        params = ",".join(f"{k}={v}" for k, v in sorted((r.get("params") or {}).items()))
+        nombre = r["benchmark"].replace("com.sedapal.", "") + (f" [{params}]" if params else "")
+        m = r["primaryMetric"]
+        resultado[nombre] = (m["score"], m.get("scoreError") or 0.0, m["scoreUnit"])
+    return resultado
+
+base, nuevo = cargar(sys.argv[1]), cargar(sys.argv[2])
+print(f"{'benchmark':70} {'base':>12} {'nuevo':>12} {'cambio':>9}")
+for nombre in sorted(base.keys() | nuevo.keys()):
+    if nombre not in base or nombre not in nuevo:
+        print(f"{nombre:70} {'solo en ' + ('base' if nombre in base else 'nuevo'):>35}")
+        continue
+    (b, be, unidad), (n, ne, _) = base[nombre], nuevo[nombre]
+    cambio = (n - b) / b * 100 if b else 0.0
+    marca = "  *" if abs(n - b) > be + ne else ""
+    print(f"{nombre:70} {b:>12.2f} {n:>12.2f} {cambio:>+8.1f}%{marca}  {unidad}")
+PY
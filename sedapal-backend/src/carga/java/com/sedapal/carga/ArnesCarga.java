@@ -0,0 +1,165 @@
+package com.sedapal.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.sedapal.SedapalApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Arnés de carga de punta a punta, sin Supabase ni Gmail:
+ * Postgres embebido (o local) con el esquema del proyecto, GreenMail como SMTP
+ * y el backend completo en un puerto libre.
+ *
+ * Uso (desde sedapal-backend/): mvn -Pcarga -DskipTests verify
+ *   -Dcarga.escenarios=login,altas,dashboard   escenarios a correr
+ *   -Dcarga.duracion=20                        segundos por escenario
+ *   -Dcarga.db.url=jdbc:postgresql://...       Postgres local vacío en lugar del embebido
+ *   -Dcarga.perfiles=virtual                   perfiles adicionales del backend
+ *   -Dcarga.replicas=2                         Postgres embebidos extra como réplicas de lectura
+ *                                              (copias con el mismo esquema y datos, sin replicación)
+ */
+@Slf4j
+public class ArnesCarga {
+
+    private static final String CONTRASENA = "Carga123";
+    private static final int USUARIOS = 1000;
+    private static final int ADMINS = 20;
+    private static final int ACTIVIDADES = 500;
+
+    public static void main(String[] args) throws Exception {
+        List<String> nombres = List.of(System.getProperty("carga.escenarios", "login,altas,dashboard").split(","));
+        Duration duracion = Duration.ofSeconds(Long.getLong("carga.duracion", 20));
+        File salida = new File(System.getProperty("carga.resultado", "target/carga-resultados.json"));
+        int cantidadReplicas = Integer.getInteger("carga.replicas", 0);
+
+        GreenMail smtp = new GreenMail(ServerSetup.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        List<BaseDatosCarga> replicas = new ArrayList<>();
+        try (BaseDatosCarga bd = BaseDatosCarga.iniciar()) {
+            bd.aplicarEsquema();
+            for (int i = 0; i < cantidadReplicas; i++) {
+                BaseDatosCarga replica = BaseDatosCarga.embebido();
+                replicas.add(replica);
+                replica.aplicarEsquema();
+            }
+            smtp.start();
+
+            // Como argumentos (y no .properties) para que tengan prioridad sobre application.properties
+            List<String> argumentos = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.datasource.url=" + bd.getUrl(),
+                    "--spring.datasource.username=" + bd.getUsuario(),
+                    "--spring.datasource.password=" + bd.getContrasena(),
+                    "--spring.mail.port=" + smtp.getSmtp().getPort()));
+            if (!replicas.isEmpty()) {
+                argumentos.add("--app.datasource.replicas=" + String.join(",", replicas.stream().map(BaseDatosCarga::getUrl).toList()));
+            }
+            ConfigurableApplicationContext ctx = new SpringApplicationBuilder(SedapalApplication.class)
+                    .profiles("carga")
+                    .run(argumentos.toArray(String[]::new));
+            try {
+                int puerto = ctx.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                URI base = URI.create("http://localhost:" + puerto);
+                HttpClient http = HttpClient.newBuilder()
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                Map<String, Escenario> disponibles = escenarios(duracion);
+                List<Escenario.Resultado> resultados = new ArrayList<>();
+                for (String nombre : nombres) {
+                    Escenario escenario = disponibles.get(nombre.trim());
+                    if (escenario == null) {
+                        throw new IllegalArgumentException("Escenario desconocido: " + nombre + " (disponibles: " + disponibles.keySet() + ")");
+                    }
+                    log.info("🚀 Escenario {}: {} clientes, {} s", escenario.nombre(), escenario.concurrencia(), duracion.toSeconds());
+                    int correosAntes = smtp.getReceivedMessages().length;
+                    Escenario.Resultado resultado = escenario.ejecutar(http, base);
+                    resultados.add(resultado);
+                    imprimir(resultado, smtp.getReceivedMessages().length - correosAntes);
+                }
+
+                salida.getParentFile().mkdirs();
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida, resultados);
+                log.info("📊 Resultados guardados en {}", salida.getAbsolutePath());
+
+                // Métricas del backend al terminar (Hikari, Hibernate, SMTP, endpoints)
+                Path metricas = salida.toPath().resolveSibling("carga-metricas.txt");
+                http.send(HttpRequest.newBuilder(base.resolve("/actuator/prometheus")).build(),
+                        HttpResponse.BodyHandlers.ofFile(metricas));
+                log.info("📊 Métricas guardadas en {}", metricas.toAbsolutePath());
+            } finally {
+                ctx.close();
+            }
+        } finally {
+            smtp.stop();
+            for (BaseDatosCarga replica : replicas) {
+                replica.close();
+            }
+        }
+    }
+
+    /**
+     * Escenarios sobre los datos de carga/datos.sql
+     */
+    private static Map<String, Escenario> escenarios(Duration duracion) {
+        Map<String, Escenario> escenarios = new LinkedHashMap<>();
+        Set<Integer> ok = Set.of(200);
+        String corrida = Long.toString(System.currentTimeMillis(), 36);
+
+        // Tormenta de logins: 1 de cada 10 con contraseña incorrecta
+        escenarios.put("login", new Escenario("login", 50, duracion, 0, i -> {
+            String email = "usuario" + (1 + i % USUARIOS) + "@carga.local";
+            String contrasena = i % 10 == 0 ? "incorrecta" : CONTRASENA;
+            return new Escenario.Peticion("POST /api/usuarios/validar", "/api/usuarios/validar",
+                    "{\"email\":\"" + email + "\",\"contrasena\":\"" + contrasena + "\"}",
+                    i % 10 == 0 ? Set.of(401) : ok);
+        }));
+
+        // Altas masivas de usuarios (cada alta envía un correo por SMTP)
+        escenarios.put("altas", new Escenario("altas", 10, duracion, 2000, i ->
+                new Escenario.Peticion("POST /api/usuarios/usuario", "/api/usuarios/usuario",
+                        "{\"nombre\":\"carga\",\"apellido\":\"alta " + i + "\",\"email\":\"alta-" + corrida + "-" + i + "@carga.local\"}",
+                        Set.of(201))));
+
+        // Refresco de dashboard: las lecturas que dispara cada pantalla de administración
+        String ids = String.join(",", IntStream.rangeClosed(1, 50).mapToObj(Integer::toString).toList());
+        escenarios.put("dashboard", new Escenario("dashboard", 30, duracion, 0, i -> switch (i % 5) {
+            case 0 -> new Escenario.Peticion("GET /api/usuarios/admin/all", "/api/usuarios/admin/all", null, ok);
+            case 1 -> new Escenario.Peticion("GET /api/admin-sistemas/admin/{id}",
+                    "/api/admin-sistemas/admin/" + (1 + i % ADMINS), null, ok);
+            case 2 -> new Escenario.Peticion("GET /api/actividades/cambios-fecha/cantidades",
+                    "/api/actividades/cambios-fecha/cantidades?ids=" + ids, null, ok);
+            case 3 -> new Escenario.Peticion("GET /api/buscar", "/api/buscar?q=gestion+" + (1 + i % ACTIVIDADES), null, ok);
+            default -> new Escenario.Peticion("GET /api/usuarios/{email}",
+                    "/api/usuarios/usuario" + (1 + i % USUARIOS) + "@carga.local", null, ok);
+        }));
+        return escenarios;
+    }
+
+    private static void imprimir(Escenario.Resultado resultado, int correos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n=== %s (%.1f s, %d correos recibidos) ===%n", resultado.escenario(), resultado.segundos(), correos));
+        sb.append(String.format("%-48s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "n", "errores", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Medicion.Resumen r : resultado.endpoints()) {
+            sb.append(String.format("%-48s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.peticiones(), r.errores(), r.porSegundo(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.maxMs()));
+        }
+        log.info(sb.toString());
+    }
+}
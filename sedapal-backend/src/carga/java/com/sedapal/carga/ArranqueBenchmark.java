@@ -0,0 +1,209 @@
+package com.sedapal.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tiempo de arranque: lanza el backend empaquetado en una JVM nueva por corrida y mide
+ * desde el inicio del proceso hasta el primer GET /api/health con 200.
+ *
+ * Modos (-Darranque.modos):
+ *   base     configuración por defecto, con el handshake SMTP en el arranque de antes
+ *   prod     perfil prod (repositorios perezosos, sin metadatos JDBC, sin test-connection)
+ *   aot      prod + clases generadas por process-aot (-Dspring.aot.enabled=true)
+ *   aot-cds  aot + archivo AppCDS generado con una corrida de entrenamiento
+ *
+ * Uso (desde sedapal-backend/): mvn -Parranque -DskipTests verify
+ */
+@Slf4j
+public class ArranqueBenchmark {
+
+    private static final Duration MAX_ESPERA = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int repeticiones = Integer.getInteger("arranque.repeticiones", 3);
+        List<String> modos = List.of(System.getProperty("arranque.modos", "base,prod,aot,aot-cds").split(","));
+        Path dir = Path.of(System.getProperty("arranque.dir", "target/arranque"));
+        Path jarOriginal = Path.of(System.getProperty("arranque.jar"));
+        File salida = new File(System.getProperty("arranque.resultado", "target/arranque-resultados.json"));
+
+        // Jar de la aplicación (sin repackage) + dependencias sueltas, en orden fijo: CDS exige el mismo classpath
+        Path jar = dir.resolve("sedapal-backend.jar");
+        Files.copy(jarOriginal, jar, StandardCopyOption.REPLACE_EXISTING);
+        List<String> classpath = new ArrayList<>();
+        classpath.add(jar.toAbsolutePath().toString());
+        try (Stream<Path> libs = Files.list(dir.resolve("lib"))) {
+            libs.map(p -> p.toAbsolutePath().toString()).sorted().forEach(classpath::add);
+        }
+        String cp = String.join(File.pathSeparator, classpath);
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        GreenMail smtp = new GreenMail(ServerSetup.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        List<Map<String, Object>> resultados = new ArrayList<>();
+        try (BaseDatosCarga bd = BaseDatosCarga.iniciar()) {
+            bd.aplicarEsquema();
+            smtp.start();
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+            for (String modo : modos) {
+                modo = modo.trim();
+                if (modo.equals("aot-cds")) {
+                    entrenarCds(java, cp, dir, bd, smtp);
+                }
+                List<Long> tiempos = new ArrayList<>();
+                for (int i = 1; i <= repeticiones; i++) {
+                    int puerto = puertoLibre();
+                    List<String> comando = comando(java, cp, modo, dir, bd, smtp, puerto);
+                    Path logHijo = dir.resolve(modo + "-" + i + ".log");
+                    long inicio = System.nanoTime();
+                    Process proceso = new ProcessBuilder(comando).redirectErrorStream(true)
+                            .redirectOutput(logHijo.toFile()).start();
+                    try {
+                        tiempos.add(esperarSalud(http, puerto, proceso, inicio));
+                    } finally {
+                        detener(proceso);
+                    }
+                    log.info("⏱️ {} #{}: {} ms", modo, i, tiempos.get(tiempos.size() - 1));
+                }
+                List<Long> ordenados = tiempos.stream().sorted().toList();
+                Map<String, Object> resultado = new LinkedHashMap<>();
+                resultado.put("modo", modo);
+                resultado.put("tiemposMs", tiempos);
+                resultado.put("minMs", ordenados.get(0));
+                resultado.put("medianaMs", ordenados.get(ordenados.size() / 2));
+                resultado.put("maxMs", ordenados.get(ordenados.size() - 1));
+                resultados.add(resultado);
+            }
+        } finally {
+            smtp.stop();
+        }
+
+        StringBuilder tabla = new StringBuilder("\n=== arranque hasta GET /api/health (ms) ===\n");
+        tabla.append(String.format("%-10s %8s %8s %8s%n", "modo", "min", "mediana", "max"));
+        for (Map<String, Object> r : resultados) {
+            tabla.append(String.format("%-10s %8d %8d %8d%n", r.get("modo"), r.get("minMs"), r.get("medianaMs"), r.get("maxMs")));
+        }
+        log.info(tabla.toString());
+        salida.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(salida, resultados);
+        log.info("📊 Resultados guardados en {}", salida.getAbsolutePath());
+    }
+
+    /**
+     * Corrida de entrenamiento: arranca hasta refrescar el contexto, sale y deja el archivo CDS
+     */
+    private static void entrenarCds(String java, String cp, Path dir, BaseDatosCarga bd, GreenMail smtp)
+            throws IOException, InterruptedException {
+        Path archivo = dir.resolve("sedapal.jsa");
+        Files.deleteIfExists(archivo);
+        List<String> comando = new ArrayList<>(List.of(java,
+                "-XX:ArchiveClassesAtExit=" + archivo,
+                "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=true",
+                "-cp", cp, "com.sedapal.SedapalApplication"));
+        comando.addAll(argumentos("aot", bd, smtp, puertoLibre()));
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true)
+                .redirectOutput(dir.resolve("cds-entrenamiento.log").toFile()).start();
+        if (!proceso.waitFor(MAX_ESPERA.toSeconds(), TimeUnit.SECONDS)) {
+            proceso.destroyForcibly();
+            throw new IllegalStateException("La corrida de entrenamiento CDS no terminó");
+        }
+        if (!Files.exists(archivo)) {
+            throw new IllegalStateException("No se generó " + archivo + " (ver cds-entrenamiento.log)");
+        }
+        log.info("📦 Archivo CDS generado: {} ({} MB)", archivo, Files.size(archivo) / (1024 * 1024));
+    }
+
+    private static List<String> comando(String java, String cp, String modo, Path dir, BaseDatosCarga bd,
+                                        GreenMail smtp, int puerto) {
+        List<String> comando = new ArrayList<>(List.of(java));
+        if (modo.startsWith("aot")) {
+            comando.add("-Dspring.aot.enabled=true");
+        }
+        if (modo.equals("aot-cds")) {
+            comando.add("-XX:SharedArchiveFile=" + dir.resolve("sedapal.jsa"));
+        }
+        comando.addAll(List.of("-cp", cp, "com.sedapal.SedapalApplication"));
+        comando.addAll(argumentos(modo, bd, smtp, puerto));
+        return comando;
+    }
+
+    private static List<String> argumentos(String modo, BaseDatosCarga bd, GreenMail smtp, int puerto) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=" + puerto,
+                "--spring.datasource.url=" + bd.getUrl(),
+                "--spring.datasource.username=" + bd.getUsuario(),
+                "--spring.datasource.password=" + bd.getContrasena(),
+                "--spring.mail.host=localhost",
+                "--spring.mail.port=" + smtp.getSmtp().getPort(),
+                "--spring.mail.username=carga@sedapal.local",
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                "--spring.mail.properties.mail.smtp.starttls.required=false",
+                "--app.storage.path=" + System.getProperty("java.io.tmpdir") + "/sedapal-carga/storage"));
+        if (modo.equals("base")) {
+            // Como antes del perfil de arranque rápido: handshake SMTP antes de levantar
+            argumentos.add("--spring.mail.test-connection=true");
+        } else {
+            argumentos.add("--spring.profiles.active=prod");
+        }
+        return argumentos;
+    }
+
+    private static long esperarSalud(HttpClient http, int puerto, Process proceso, long inicio)
+            throws InterruptedException, IOException {
+        HttpRequest salud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long limite = inicio + MAX_ESPERA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!proceso.isAlive()) {
+                throw new IllegalStateException("El backend terminó con código " + proceso.exitValue());
+            }
+            try {
+                if (http.send(salud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - inicio) / 1_000_000;
+                }
+            } catch (ConnectException | HttpTimeoutException e) {
+                // Todavía no escucha
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("/api/health no respondió en " + MAX_ESPERA.toSeconds() + " s");
+    }
+
+    private static void detener(Process proceso) throws InterruptedException {
+        proceso.destroy();
+        if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+            proceso.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.sedapal.carga;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Postgres para el arnés de carga: uno embebido (por defecto) o uno local
+ * indicado con -Dcarga.db.url, sobre el que se aplican las migraciones del proyecto.
+ */
+@Slf4j
+final class BaseDatosCarga implements AutoCloseable {
+
+    /**
+     * Datos sintéticos, aplicados después de las migraciones de Flyway
+     */
+    private static final List<String> SCRIPTS = List.of(
+            "classpath:carga/datos.sql"
+    );
+
+    private final EmbeddedPostgres embebido;
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+
+    private BaseDatosCarga(EmbeddedPostgres embebido, String url, String usuario, String contrasena) {
+        this.embebido = embebido;
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+    }
+
+    static BaseDatosCarga iniciar() throws IOException {
+        String externa = System.getProperty("carga.db.url");
+        if (externa != null && !externa.isBlank()) {
+            log.info("🐘 Usando Postgres local: {}", externa);
+            return new BaseDatosCarga(null, externa,
+                    System.getProperty("carga.db.usuario", "postgres"),
+                    System.getProperty("carga.db.contrasena", "postgres"));
+        }
+        return embebido();
+    }
+
+    static BaseDatosCarga embebido() throws IOException {
+        EmbeddedPostgres pg = EmbeddedPostgres.builder().start();
+        log.info("🐘 Postgres embebido en el puerto {}", pg.getPort());
+        return new BaseDatosCarga(pg, pg.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    String getUsuario() {
+        return usuario;
+    }
+
+    String getContrasena() {
+        return contrasena;
+    }
+
+    /**
+     * Migrar el esquema con Flyway (las mismas migraciones que aplica el backend al arrancar)
+     * y cargar los datos, una sentencia a la vez (autocommit)
+     */
+    void aplicarEsquema() throws IOException, SQLException {
+        MigrateResult migracion = Flyway.configure()
+                .dataSource(url, usuario, contrasena)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        log.info("📄 Esquema en la versión {} ({} migraciones aplicadas)", migracion.targetSchemaVersion, migracion.migrationsExecuted);
+
+        DefaultResourceLoader loader = new DefaultResourceLoader();
+        try (Connection con = DriverManager.getConnection(url, usuario, contrasena);
+             Statement st = con.createStatement()) {
+            for (String script : SCRIPTS) {
+                Resource recurso = loader.getResource(script);
+                String sql = recurso.getContentAsString(StandardCharsets.UTF_8);
+                int aplicadas = 0;
+                int omitidas = 0;
+                for (String sentencia : dividir(sql)) {
+                    try {
+                        st.execute(sentencia);
+                        aplicadas++;
+                    } catch (SQLException e) {
+                        omitidas++;
+                        log.warn("⚠️ {}: sentencia omitida ({})", recurso.getFilename(), primeraLinea(e.getMessage()));
+                    }
+                }
+                log.info("📄 {}: {} sentencias aplicadas, {} omitidas", recurso.getFilename(), aplicadas, omitidas);
+            }
+        }
+    }
+
+    /**
+     * Dividir un script en sentencias por ';', respetando comillas simples,
+     * bloques $$ ... $$ (funciones plpgsql) y comentarios de línea.
+     */
+    static List<String> dividir(String sql) {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean enComillas = false;
+        boolean enDolar = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (!enComillas && !enDolar && c == '-' && i + 1 < sql.length() && sql.charAt(i + 1) == '-') {
+                while (i < sql.length() && sql.charAt(i) != '\n') i++;
+                actual.append('\n');
+                continue;
+            }
+            if (!enComillas && c == '$' && i + 1 < sql.length() && sql.charAt(i + 1) == '$') {
+                enDolar = !enDolar;
+                actual.append("$$");
+                i++;
+                continue;
+            }
+            if (!enDolar && c == '\'') {
+                enComillas = !enComillas;
+            }
+            if (!enComillas && !enDolar && c == ';') {
+                agregar(sentencias, actual);
+                continue;
+            }
+            actual.append(c);
+        }
+        agregar(sentencias, actual);
+        return sentencias;
+    }
+
+    private static void agregar(List<String> sentencias, StringBuilder actual) {
+        String sentencia = actual.toString().trim();
+        if (!sentencia.isEmpty()) sentencias.add(sentencia);
+        actual.setLength(0);
+    }
+
+    private static String primeraLinea(String mensaje) {
+        if (mensaje == null) return "";
+        int fin = mensaje.indexOf('\n');
+        return fin < 0 ? mensaje : mensaje.substring(0, fin);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embebido != null) embebido.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.sedapal.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Un escenario de carga: N clientes concurrentes que repiten peticiones hasta
+ * cumplir la duración o la cantidad máxima de peticiones (lo que ocurra primero).
+ */
+record Escenario(String nombre, int concurrencia, Duration duracion, int maxPeticiones,
+                 IntFunction<Peticion> generador) {
+
+    /**
+     * @param endpoint etiqueta para agrupar latencias (ej. "POST /api/usuarios/validar")
+     * @param cuerpoJson cuerpo de la petición, o null para un GET
+     * @param esperados códigos HTTP que cuentan como respuesta correcta
+     */
+    record Peticion(String endpoint, String ruta, String cuerpoJson, Set<Integer> esperados) {
+
+        HttpRequest construir(URI base) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(ruta))
+                    .timeout(Duration.ofSeconds(30));
+            if (cuerpoJson == null) {
+                return builder.GET().build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpoJson))
+                    .build();
+        }
+    }
+
+    record Resultado(String escenario, double segundos, List<Medicion.Resumen> endpoints) {}
+
+    Resultado ejecutar(HttpClient http, URI base) throws InterruptedException {
+        Map<String, Medicion> mediciones = new ConcurrentHashMap<>();
+        AtomicInteger contador = new AtomicInteger();
+        long fin = System.nanoTime() + duracion.toNanos();
+        CountDownLatch terminados = new CountDownLatch(concurrencia);
+
+        long inicio = System.nanoTime();
+        for (int c = 0; c < concurrencia; c++) {
+            Thread cliente = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < fin) {
+                        int i = contador.getAndIncrement();
+                        if (maxPeticiones > 0 && i >= maxPeticiones) break;
+                        Peticion peticion = generador.apply(i);
+                        HttpRequest request = peticion.construir(base);
+                        long t0 = System.nanoTime();
+                        boolean exito;
+                        try {
+                            HttpResponse<Void> respuesta = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            exito = peticion.esperados().contains(respuesta.statusCode());
+                        } catch (Exception e) {
+                            exito = false;
+                        }
+                        mediciones.computeIfAbsent(peticion.endpoint(), k -> new Medicion())
+                                .registrar(System.nanoTime() - t0, exito);
+                    }
+                } finally {
+                    terminados.countDown();
+                }
+            }, "carga-" + nombre + "-" + c);
+            cliente.start();
+        }
+        terminados.await();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        List<Medicion.Resumen> resumenes = new ArrayList<>();
+        new TreeMap<>(mediciones).forEach((endpoint, m) -> resumenes.add(m.resumir(endpoint, segundos)));
+        return new Resultado(nombre, segundos, resumenes);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sedapal.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias de un endpoint dentro de un escenario
+ */
+final class Medicion {
+
+    private long[] latenciasNanos = new long[1024];
+    private int total;
+    private int errores;
+
+    synchronized void registrar(long nanos, boolean exito) {
+        if (total == latenciasNanos.length) {
+            latenciasNanos = Arrays.copyOf(latenciasNanos, total * 2);
+        }
+        latenciasNanos[total++] = nanos;
+        if (!exito) errores++;
+    }
+
+    synchronized Resumen resumir(String endpoint, double segundos) {
+        long[] ordenadas = Arrays.copyOf(latenciasNanos, total);
+        Arrays.sort(ordenadas);
+        return new Resumen(endpoint, total, errores, total / segundos,
+                percentil(ordenadas, 50), percentil(ordenadas, 95), percentil(ordenadas, 99),
+                total == 0 ? 0 : ordenadas[total - 1] / 1e6);
+    }
+
+    /**
+     * Percentil por rango más cercano, en milisegundos
+     */
+    private static double percentil(long[] ordenadas, int p) {
+        if (ordenadas.length == 0) return 0;
+        int indice = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    record Resumen(String endpoint, int peticiones, int errores, double porSegundo,
+                   double p50Ms, double p95Ms, double p99Ms, double maxMs) {}
+}
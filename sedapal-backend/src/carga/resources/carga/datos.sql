@@ -0,0 +1,48 @@
+-- ============================================
+-- Datos sintéticos para la prueba de carga
+-- Todas las cuentas usan la contraseña "Carga123"
+-- ============================================
+
+INSERT INTO tb_sistemas (desc_sistema, abrev, estado)
+SELECT 'Sistema de Gestión ' || g, 'SG' || g, 1
+FROM generate_series(1, 20) g;
+
+INSERT INTO tb_gerencias (desc_gerencia)
+SELECT 'Gerencia ' || g FROM generate_series(1, 5) g;
+
+INSERT INTO tb_equipos (id_gerencia, desc_equipo)
+SELECT 1 + (g % 5), 'Equipo ' || g FROM generate_series(1, 20) g;
+
+INSERT INTO tb_usuarios (nombre, apellido, email, contrasena, rol)
+SELECT 'Admin', 'Carga ' || g, 'admin' || g || '@carga.local', 'Carga123', 'admin'
+FROM generate_series(1, 20) g;
+
+INSERT INTO tb_usuarios (nombre, apellido, email, contrasena, rol)
+SELECT 'Usuario', 'Carga ' || g, 'usuario' || g || '@carga.local', 'Carga123', 'usuario'
+FROM generate_series(1, 1000) g;
+
+-- Cada admin con su sistema y dos más
+INSERT INTO tb_admin_sistemas (id_admin, id_sistema)
+SELECT u.id_usuario, 1 + ((u.n + k) % 20)
+FROM (SELECT id_usuario, ROW_NUMBER() OVER (ORDER BY id_usuario) AS n
+      FROM tb_usuarios WHERE rol = 'admin') u
+CROSS JOIN generate_series(0, 2) k;
+
+INSERT INTO tb_actividades (nombre_actividad, estado, trimestre, fecha_sustento, fecha_maxima_entrega, estado_actividad)
+SELECT 'Actividad de gestión ' || g, TRUE, 1 + (g % 4),
+       DATE '2025-03-31' + (g % 4) * 91, DATE '2025-03-31' + (g % 4) * 91, 'pendiente'
+FROM generate_series(1, 500) g;
+
+INSERT INTO tb_as_sis_act (id_actividad, id_sistema, id_equipo, id_gerencia)
+SELECT a.id_actividad, 1 + (a.id_actividad % 20), e.id_equipo, e.id_gerencia
+FROM tb_actividades a
+JOIN tb_equipos e ON e.id_equipo = 1 + (a.id_actividad % 20);
+
+INSERT INTO tb_usuario_actividades (id_usuario, id_actividad)
+SELECT u.id_usuario, 1 + (u.id_usuario % 500)
+FROM tb_usuarios u WHERE u.rol = 'usuario';
+
+-- Avance variado para el snapshot de cumplimiento
+UPDATE tb_actividades SET estado_actividad = 'completado' WHERE id_actividad % 3 = 0;
+UPDATE tb_usuario_actividades
+SET cumplimiento = CASE id % 4 WHEN 0 THEN 'cumple' WHEN 1 THEN 'no_cumple' ELSE 'pendiente' END;
@@ -0,0 +1,81 @@
+package com.sedapal.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sedapal.model.Sistema;
+import com.sedapal.model.Usuario;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado de las respuestas de listados: mapeo entidad -> DTO y serialización
+ * JSON de los listados de usuarios y sistemas. Los datos se generan con una
+ * semilla fija para que dos corridas sean comparables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RespuestasBenchmark {
+
+    private static final String[] NOMBRES = {"maría", "josé", "ana lucía", "juan", "rosa", "pedro", "ñuño"};
+    private static final String[] APELLIDOS = {"pérez", "quispe", "ñuñez", "rotten", "mamani", "garcía"};
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private ObjectMapper objectMapper;
+    private List<Usuario> usuarios;
+    private List<UsuarioDTO.UsuarioResponse> respuestas;
+    private List<Sistema> sistemas;
+
+    @Setup
+    public void setup() {
+        // Mismos valores por defecto que el ObjectMapper de Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Random random = new Random(42);
+        Usuario.Rol[] roles = Usuario.Rol.values();
+        usuarios = new ArrayList<>(tamano);
+        sistemas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)];
+            String apellido = APELLIDOS[random.nextInt(APELLIDOS.length)];
+            usuarios.add(new Usuario((long) i + 1, nombre, apellido, nombre.charAt(0) + apellido + i + "@sedapal.com.pe",
+                    "User" + random.nextInt(100), roles[random.nextInt(roles.length)],
+                    LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(i), random.nextInt(10) > 0));
+            sistemas.add(new Sistema((long) i + 1, "Sistema de Gestión " + i, "SG" + i,
+                    nombre + " " + apellido, null, 1));
+        }
+        respuestas = mapear();
+    }
+
+    @Benchmark
+    public List<UsuarioDTO.UsuarioResponse> mapearUsuarios() {
+        return mapear();
+    }
+
+    @Benchmark
+    public byte[] serializarUsuarios() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respuestas);
+    }
+
+    @Benchmark
+    public byte[] serializarSistemas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(sistemas);
+    }
+
+    private List<UsuarioDTO.UsuarioResponse> mapear() {
+        return usuarios.stream()
+                .map(UsuarioDTO.UsuarioResponse::fromEntity)
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Usuario;
+import com.sedapal.util.Circuito;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de los HTML de correo (se ejecuta en cada alta de usuario,
+ * asignación y notificación). No se envía nada: el JavaMailSender no se usa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EmailServiceBenchmark {
+
+    private EmailService emailService;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        emailService = new EmailService(new JavaMailSenderImpl(), new SimpleMeterRegistry(),
+                new Circuito("smtp", 5, 30_000, 4, 0));
+        Field frontendUrl = EmailService.class.getDeclaredField("frontendUrl");
+        frontendUrl.setAccessible(true);
+        frontendUrl.set(emailService, "http://localhost:5173");
+    }
+
+    @Benchmark
+    public String credenciales() {
+        return emailService.construirMensajeHtml("María José", "Ñuñez Pérez",
+                "maria.nunez@sedapal.com.pe", "UserMN42", Usuario.Rol.usuario);
+    }
+
+    @Benchmark
+    public String actividad() {
+        return emailService.construirMensajeActividadHtml("María José Ñuñez",
+                "Actualización del inventario de activos", "SGC", "Equipo de Calidad", 3, "2025-09-30");
+    }
+
+    @Benchmark
+    public String credencialesConActividad() {
+        return emailService.construirMensajeCredencialesConActividadHtml("María José", "Ñuñez Pérez",
+                "maria.nunez@sedapal.com.pe", "UserMN42", "Actualización del inventario de activos",
+                "SGC", "Equipo de Calidad", 3, "2025-09-30");
+    }
+
+    @Benchmark
+    public String usuarioCreado() {
+        return emailService.construirHtmlUsuarioCreado("María José Ñuñez", "maria.nunez@sedapal.com.pe",
+                "UserMN42", "Gerencia de Gestión de Calidad", "Equipo de Calidad");
+    }
+
+    @Benchmark
+    public String asignacionSistema() {
+        return emailService.construirHtmlAsignacionSistema("Robin Rotten", "SGC", "Sistema de Gestión de Calidad");
+    }
+
+    @Benchmark
+    public String notificacionUsuarioCumplio() {
+        return emailService.construirHtmlNotificacionUsuarioCumplio("María José Ñuñez", "maria.nunez@sedapal.com.pe",
+                "Actualización del inventario de activos", "inventario_T3.xlsx", "SGC", "Equipo de Calidad", "2025-09-30");
+    }
+
+    @Benchmark
+    public String notificacionConforme() {
+        return emailService.construirHtmlNotificacionConforme("Actualización del inventario de activos",
+                "inventario_T3.xlsx", "SGC", "Equipo de Calidad", "2025-09-30");
+    }
+}
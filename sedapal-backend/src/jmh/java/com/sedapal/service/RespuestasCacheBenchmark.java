@@ -0,0 +1,58 @@
+package com.sedapal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sedapal.model.Sistema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listado de sistemas servido desde RespuestasCache (acierto) frente a serializarlo
+ * con Jackson en cada request, que es lo que hacía el controlador antes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RespuestasCacheBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private ObjectMapper objectMapper;
+    private RespuestasCache respuestasCache;
+    private List<Sistema> sistemas;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        respuestasCache = new RespuestasCache(objectMapper, new SimpleMeterRegistry(), 64L * 1024 * 1024, 300);
+        sistemas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            sistemas.add(new Sistema((long) i + 1, "Sistema de Gestión " + i, "SG" + i, "Administrador " + i, null, 1));
+        }
+    }
+
+    @Benchmark
+    public byte[] sinCache() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(sistemas);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cacheJson() {
+        return respuestasCache.responder("sistemas", null, () -> sistemas, Sistema.class);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> cacheGzip() {
+        return respuestasCache.responder("sistemas", "gzip, deflate, br", () -> sistemas, Sistema.class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.sedapal.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generadores de contraseña usados al crear administradores y usuarios.
+ * Los repositorios no se tocan, así que el servicio se arma sin dependencias.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class UsuarioServiceBenchmark {
+
+    private UsuarioService usuarioService;
+
+    @Setup
+    public void setup() {
+        usuarioService = new UsuarioService(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public String contrasenaAdmin() {
+        return usuarioService.generarContrasenaAdmin("robin", "rotten");
+    }
+
+    @Benchmark
+    public String contrasenaUsuario() {
+        return usuarioService.generarContrasenaUsuario("maría josé", "ñuñez pérez");
+    }
+}
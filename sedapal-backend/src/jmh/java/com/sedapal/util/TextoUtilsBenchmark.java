@@ -0,0 +1,31 @@
+package com.sedapal.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalización de nombres (split por regex + substring por palabra) que se
+ * aplica en cada alta y edición de usuario.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TextoUtilsBenchmark {
+
+    @Param({"juan", "  MARÍA   josé  ", "ana lucía del carmen de la cruz ñuñez"})
+    public String nombre;
+
+    @Benchmark
+    public String normalizarNombre() {
+        return TextoUtils.normalizarNombre(nombre);
+    }
+
+    @Benchmark
+    public String plegar() {
+        return TextoUtils.plegar(nombre);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sedapal.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de segundo nivel de Hibernate (JCache sobre Caffeine) para catálogos que casi
+ * no cambian: entidades Sistema y AdminSistema y las consultas derivadas de sus
+ * repositorios. Las escrituras hechas por la aplicación invalidan el caché al instante;
+ * los cambios hechos por fuera (SQL directo en Supabase) se ven al vencer el TTL.
+ *
+ * Las regiones se crean aquí con tamaño y TTL explícitos; Hibernate falla al arrancar
+ * si una entidad o consulta pide una región que no existe.
+ */
+@Configuration
+@Slf4j
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_SISTEMAS = "sistemas";
+    public static final String REGION_ADMIN_SISTEMAS = "admin-sistemas";
+    public static final String REGION_CONSULTAS_SISTEMAS = "consultas-sistemas";
+    public static final String REGION_CONSULTAS_ADMIN_SISTEMAS = "consultas-admin-sistemas";
+
+    /** Regiones propias de Hibernate para el caché de consultas */
+    private static final String REGION_CONSULTAS_DEFAULT = "default-query-results-region";
+    private static final String REGION_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(
+            @Value("${app.cache.sistemas.max:1000}") long maxSistemas,
+            @Value("${app.cache.sistemas.ttl-segundos:3600}") long ttlSistemas,
+            @Value("${app.cache.admin-sistemas.max:10000}") long maxAdminSistemas,
+            @Value("${app.cache.admin-sistemas.ttl-segundos:600}") long ttlAdminSistemas) {
+        // El proveedor comparte un CacheManager por URI en toda la JVM: con uno propio, otro
+        // contexto (las pruebas levantan varios) no ve ni vacía estas regiones
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = proveedor.getCacheManager(
+                URI.create("sedapal:hibernate:" + UUID.randomUUID()), proveedor.getDefaultClassLoader());
+        crear(cacheManager, REGION_SISTEMAS, maxSistemas, ttlSistemas);
+        crear(cacheManager, REGION_CONSULTAS_SISTEMAS, maxSistemas, ttlSistemas);
+        crear(cacheManager, REGION_ADMIN_SISTEMAS, maxAdminSistemas, ttlAdminSistemas);
+        crear(cacheManager, REGION_CONSULTAS_ADMIN_SISTEMAS, maxAdminSistemas, ttlAdminSistemas);
+        crear(cacheManager, REGION_CONSULTAS_DEFAULT, 1000, 300);
+        // Marcas de última modificación por tabla: no deben vencer antes que las consultas cacheadas
+        crear(cacheManager, REGION_TIMESTAMPS, 10_000, 0);
+        log.info("🗃️ Caché de segundo nivel: sistemas {} / {} s, admin-sistemas {} / {} s",
+                 maxSistemas, ttlSistemas, maxAdminSistemas, ttlAdminSistemas);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheManager cacheManagerHibernate) {
+        return propiedades -> {
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static void crear(CacheManager cacheManager, String region, long maxEntradas, long ttlSegundos) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(maxEntradas));
+        if (ttlSegundos > 0) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        }
+        configuracion.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuracion);
+    }
+}
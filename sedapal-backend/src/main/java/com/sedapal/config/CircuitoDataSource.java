@@ -0,0 +1,92 @@
+package com.sedapal.config;
+
+import com.sedapal.util.Circuito;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Pasa cada pedido de conexión por el circuito "jdbc": sólo maxConcurrentes hilos
+ * pueden estar esperando una conexión del pool a la vez, y si la base o el pooler dejan
+ * de aceptar conexiones las siguientes peticiones fallan al instante en lugar de esperar
+ * connection-timeout cada una.
+ *
+ * Sólo abren el circuito los errores de conexión (SQLState clase 08, también como causa
+ * de un timeout de Hikari). Un timeout del pool sin error detrás o un rechazo de
+ * LimiteConexionesDataSource es saturación propia: se libera el permiso sin contarlo,
+ * si no una ráfaga de inicio de jornada dejaría a todos sin base de datos.
+ *
+ * El circuito cubre la obtención de la conexión; el tiempo de uso ya está acotado por
+ * el tamaño del pool.
+ */
+public class CircuitoDataSource extends DelegatingDataSource {
+
+    private final Circuito circuito;
+
+    public CircuitoDataSource(DataSource destino, Circuito circuito) {
+        super(destino);
+        this.circuito = circuito;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Circuito.Permiso permiso = entrar();
+        try {
+            Connection conexion = super.getConnection();
+            permiso.exito();
+            return conexion;
+        } catch (SQLException | RuntimeException e) {
+            cerrar(permiso, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Circuito.Permiso permiso = entrar();
+        try {
+            Connection conexion = super.getConnection(username, password);
+            permiso.exito();
+            return conexion;
+        } catch (SQLException | RuntimeException e) {
+            cerrar(permiso, e);
+            throw e;
+        }
+    }
+
+    public Circuito getCircuito() {
+        return circuito;
+    }
+
+    private static void cerrar(Circuito.Permiso permiso, Exception e) {
+        if (esErrorDeConexion(e)) {
+            permiso.fallo();
+        } else {
+            permiso.liberar();
+        }
+    }
+
+    /**
+     * Error de conexión con la base: SQLState clase 08 en la excepción o en alguna causa
+     * (Hikari copia el SQLState del último intento fallido en su timeout)
+     */
+    static boolean esErrorDeConexion(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Circuito.Permiso entrar() throws SQLException {
+        try {
+            return circuito.entrar();
+        } catch (Circuito.RechazoException e) {
+            throw new SQLTransientConnectionException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sedapal.config;
+
+import com.sedapal.util.Circuito;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Circuitos por dependencia: "smtp" (EmailService) y "jdbc" (DataSource primario).
+ * Cada uno tiene su propio bulkhead, así que una caída de Gmail o del pooler de
+ * Supabase sólo ocupa los hilos de esa dependencia.
+ *
+ * Métricas: sedapal.circuito.estado (0 cerrado, 1 abierto, 2 semiabierto),
+ * sedapal.circuito.en.uso, sedapal.circuito.rechazos y sedapal.circuito.aperturas,
+ * todas con la etiqueta dependencia.
+ */
+@Configuration
+@Slf4j
+public class CircuitosConfig {
+
+    @Bean
+    public Circuito circuitoSmtp(
+            @Value("${app.circuitos.smtp.fallos:3}") int fallos,
+            @Value("${app.circuitos.smtp.abierto-ms:60000}") long abiertoMs,
+            @Value("${app.circuitos.smtp.max-concurrentes:4}") int maxConcurrentes,
+            @Value("${app.circuitos.smtp.espera-ms:0}") long esperaMs) {
+        return new Circuito("smtp", fallos, abiertoMs, maxConcurrentes, esperaMs);
+    }
+
+    @Bean
+    public static BeanPostProcessor circuitoJdbcPostProcessor(
+            @Value("${app.circuitos.jdbc.fallos:3}") int fallos,
+            @Value("${app.circuitos.jdbc.abierto-ms:15000}") long abiertoMs,
+            @Value("${app.circuitos.jdbc.max-concurrentes:0}") int maxConcurrentes,
+            @Value("${app.circuitos.jdbc.espera-ms:1000}") long esperaMs) {
+        return new CircuitoPostProcessor(fallos, abiertoMs, maxConcurrentes, esperaMs);
+    }
+
+    @Bean
+    public MeterBinder metricasCircuitos(Circuito circuitoSmtp, DataSource dataSource) {
+        return registry -> {
+            registrar(registry, circuitoSmtp);
+            try {
+                if (dataSource.isWrapperFor(CircuitoDataSource.class)) {
+                    registrar(registry, dataSource.unwrap(CircuitoDataSource.class).getCircuito());
+                }
+            } catch (SQLException e) {
+                log.warn("⚠️ No se pudieron registrar las métricas del circuito JDBC: {}", e.getMessage());
+            }
+        };
+    }
+
+    private static void registrar(MeterRegistry registry, Circuito circuito) {
+        Gauge.builder("sedapal.circuito.estado", circuito, c -> c.getEstado().ordinal())
+                .description("Estado del circuito: 0 cerrado, 1 abierto, 2 semiabierto")
+                .tag("dependencia", circuito.getNombre())
+                .register(registry);
+        Gauge.builder("sedapal.circuito.en.uso", circuito, Circuito::getEnUso)
+                .description("Llamadas en curso dentro del bulkhead")
+                .tag("dependencia", circuito.getNombre())
+                .register(registry);
+        FunctionCounter.builder("sedapal.circuito.rechazos", circuito, Circuito::getRechazosAbierto)
+                .description("Llamadas rechazadas sin tocar la dependencia")
+                .tag("dependencia", circuito.getNombre())
+                .tag("motivo", "abierto")
+                .register(registry);
+        FunctionCounter.builder("sedapal.circuito.rechazos", circuito, Circuito::getRechazosSaturado)
+                .description("Llamadas rechazadas sin tocar la dependencia")
+                .tag("dependencia", circuito.getNombre())
+                .tag("motivo", "saturado")
+                .register(registry);
+        FunctionCounter.builder("sedapal.circuito.aperturas", circuito, Circuito::getAperturas)
+                .description("Veces que el circuito pasó a abierto")
+                .tag("dependencia", circuito.getNombre())
+                .register(registry);
+    }
+
+    /**
+     * Justo después del límite de HilosVirtualesConfig (si está activo): con el circuito
+     * abierto se falla antes de hacer cola en ese límite. Las réplicas de ReplicasConfig
+     * quedan fuera, tienen su propio chequeo de salud.
+     */
+    private record CircuitoPostProcessor(int fallos, long abiertoMs, int maxConcurrentes, long esperaMs)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            if (maxConcurrentes > 0) {
+                log.info("🔌 Circuito JDBC: abre tras {} fallos, bulkhead de {} hilos esperando conexión", fallos, maxConcurrentes);
+            } else {
+                log.info("🔌 Circuito JDBC: abre tras {} fallos, sin bulkhead", fallos);
+            }
+            return new CircuitoDataSource(dataSource, new Circuito("jdbc", fallos, abiertoMs, maxConcurrentes, esperaMs));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins(allowedOrigins)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(CorrelacionFilter.HEADER, IdempotenciaFilter.HEADER_REPETIDA)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -0,0 +1,61 @@
+package com.sedapal.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo de ejecución con hilos virtuales (opt-in, requiere Java 21).
+ * Spring Boot ya atiende Tomcat y el executor de tareas con hilos virtuales cuando
+ * spring.threads.virtual.enabled=true; aquí se agrega el límite explícito de
+ * concurrencia hacia el pool de Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class HilosVirtualesConfig {
+
+    public HilosVirtualesConfig() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("⚠️ spring.threads.virtual.enabled=true pero la JVM es Java {}: se usarán hilos de plataforma",
+                     Runtime.version().feature());
+        }
+    }
+
+    @Bean
+    public static BeanPostProcessor limiteConexionesPostProcessor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxConexiones,
+            @Value("${app.jdbc.max-en-espera:100}") int maxEnEspera,
+            @Value("${app.jdbc.espera-ms:10000}") long esperaMs) {
+        return new LimitePostProcessor(maxConexiones, maxEnEspera, esperaMs);
+    }
+
+    /**
+     * Primero en la cadena: el límite envuelve al pool de Hikari del primario y no al
+     * ruteo de réplicas (ReplicasConfig), que tienen sus propios pools.
+     */
+    private record LimitePostProcessor(int maxConexiones, int maxEnEspera, long esperaMs)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConexionesDataSource)) {
+                log.info("🔒 Concurrencia JDBC limitada a {} conexiones y {} en espera", maxConexiones, maxEnEspera);
+                return new LimiteConexionesDataSource(dataSource, maxConexiones, maxEnEspera, esperaMs);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.sedapal.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * POST idempotentes con el header Idempotency-Key (rutas en app.idempotencia.rutas).
+ * La primera solicitud con una clave se ejecuta y su respuesta queda guardada; las
+ * repeticiones devuelven esa respuesta sin volver a tocar la BD ni el SMTP. Una
+ * repetición que llega mientras la primera sigue en curso espera su resultado.
+ *
+ * Las respuestas 5xx no se guardan, para que el reintento vuelva a ejecutarse. Reusar
+ * una clave con otro cuerpo devuelve 422.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@Slf4j
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotency-Replayed";
+
+    private static final int MAX_CLAVE = 255;
+    private static final int MAX_CUERPO = 1024 * 1024;
+
+    record RespuestaGuardada(int status, String contentType, byte[] cuerpo, String huella) {}
+
+    private final List<String> rutas;
+    private final long esperaMs;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, CompletableFuture<RespuestaGuardada>> respuestas;
+
+    public IdempotenciaFilter(
+            @Value("${app.idempotencia.rutas:/api/usuarios/,/api/notificaciones/}") List<String> rutas,
+            @Value("${app.idempotencia.max:10000}") long max,
+            @Value("${app.idempotencia.ttl-minutos:60}") long ttlMinutos,
+            @Value("${app.idempotencia.espera-ms:30000}") long esperaMs,
+            MeterRegistry meterRegistry) {
+        this.rutas = rutas;
+        this.esperaMs = esperaMs;
+        this.meterRegistry = meterRegistry;
+        this.respuestas = Caffeine.newBuilder()
+                .maximumSize(max)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        return rutas.stream().noneMatch(uri::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String clave = request.getHeader(HEADER).trim();
+        if (clave.isEmpty() || clave.length() > MAX_CLAVE) {
+            error(response, HttpStatus.BAD_REQUEST, HEADER + " debe tener entre 1 y " + MAX_CLAVE + " caracteres");
+            return;
+        }
+        byte[] cuerpo = request.getInputStream().readNBytes(MAX_CUERPO + 1);
+        if (cuerpo.length > MAX_CUERPO) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE, "Cuerpo demasiado grande para " + HEADER);
+            return;
+        }
+        String huella = huella(cuerpo);
+        String id = clave + " " + request.getRequestURI();
+
+        CompletableFuture<RespuestaGuardada> propia = new CompletableFuture<>();
+        CompletableFuture<RespuestaGuardada> existente = respuestas.asMap().putIfAbsent(id, propia);
+        if (existente != null) {
+            repetir(existente, huella, response);
+            return;
+        }
+
+        contar("nueva");
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CuerpoLeido(request, cuerpo), respuesta);
+        } catch (IOException | ServletException | RuntimeException e) {
+            respuestas.asMap().remove(id, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+        RespuestaGuardada guardada = new RespuestaGuardada(respuesta.getStatus(), respuesta.getContentType(),
+                respuesta.getContentAsByteArray(), huella);
+        if (guardada.status() >= 500) {
+            respuestas.asMap().remove(id, propia);
+        }
+        propia.complete(guardada);
+        respuesta.copyBodyToResponse();
+    }
+
+    private void repetir(CompletableFuture<RespuestaGuardada> existente, String huella, HttpServletResponse response)
+            throws IOException {
+        RespuestaGuardada guardada;
+        try {
+            guardada = existente.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            contar("en_curso");
+            error(response, HttpStatus.CONFLICT, "La solicitud original con esta " + HEADER + " no terminó; reintente");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "Solicitud interrumpida");
+            return;
+        }
+        if (!guardada.huella().equals(huella)) {
+            contar("conflicto");
+            error(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " ya usada con otro cuerpo");
+            return;
+        }
+        contar("repetida");
+        log.debug("🔁 Respuesta repetida por {} (HTTP {})", HEADER, guardada.status());
+        response.setStatus(guardada.status());
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        response.setHeader(HEADER_REPETIDA, "true");
+        response.setContentLength(guardada.cuerpo().length);
+        response.getOutputStream().write(guardada.cuerpo());
+    }
+
+    private void contar(String resultado) {
+        meterRegistry.counter("sedapal.idempotencia", "resultado", resultado).increment();
+    }
+
+    private static void error(HttpServletResponse response, HttpStatus status, String mensaje) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + mensaje + "\"}");
+    }
+
+    private static String huella(byte[] cuerpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request con el cuerpo ya leído (para calcular la huella antes de ejecutar)
+     */
+    private static final class CuerpoLeido extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoLeido(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya está en memoria: todo está disponible desde el principio
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
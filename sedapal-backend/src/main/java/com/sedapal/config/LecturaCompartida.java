@@ -0,0 +1,27 @@
+package com.sedapal.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lectura de servicio que se comparte entre llamadas concurrentes (single-flight):
+ * mientras una llamada con la misma clave está en curso, las demás esperan su
+ * resultado en vez de lanzar otra consulta. Al terminar no se guarda nada, así que
+ * el dato no queda más viejo que el de una consulta propia.
+ *
+ * El resultado se entrega a todas las llamadas: no debe modificarse.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LecturaCompartida {
+
+    /**
+     * Expresión SpEL sobre los parámetros (#idAdmin, #email.toLowerCase()...) que forma
+     * la clave. Vacía: todos los argumentos.
+     */
+    String clave() default "";
+}
@@ -0,0 +1,110 @@
+package com.sedapal.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight de los métodos con @LecturaCompartida. Va antes que @Transactional
+ * (orden LOWEST_PRECEDENCE): las llamadas que esperan no abren transacción ni toman
+ * conexión del pool. No puede ir en HIGHEST_PRECEDENCE, que queda antes del
+ * ExposeInvocationInterceptor que necesita el binding de la anotación.
+ *
+ * No se comparte si quien llama ya está en una transacción de escritura (la consulta
+ * compartida no vería sus cambios sin confirmar).
+ */
+@Aspect
+@Component
+@Order(0)
+@Slf4j
+public class LecturaCompartidaAspect {
+
+    private record Clave(Method metodo, Object valor) {}
+
+    private final ConcurrentHashMap<Clave, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Expression> expresiones = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Method, Counter> compartidas = new ConcurrentHashMap<>();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer nombres = new DefaultParameterNameDiscoverer();
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+
+    public LecturaCompartidaAspect(MeterRegistry meterRegistry,
+                                   @Value("${app.lecturas-compartidas.habilitado:true}") boolean habilitado) {
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+    }
+
+    @Around("@annotation(lecturaCompartida)")
+    public Object compartir(ProceedingJoinPoint pjp, LecturaCompartida lecturaCompartida) throws Throwable {
+        if (!habilitado || enTransaccionDeEscritura()) {
+            return pjp.proceed();
+        }
+        Method metodo = ((MethodSignature) pjp.getSignature()).getMethod();
+        Clave clave = new Clave(metodo, valorClave(lecturaCompartida, metodo, pjp));
+
+        CompletableFuture<Object> propio = new CompletableFuture<>();
+        CompletableFuture<Object> existente = enCurso.putIfAbsent(clave, propio);
+        if (existente != null) {
+            contador(metodo).increment();
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        try {
+            Object resultado = pjp.proceed();
+            enCurso.remove(clave, propio);
+            propio.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            enCurso.remove(clave, propio);
+            propio.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static boolean enTransaccionDeEscritura() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Object valorClave(LecturaCompartida anotacion, Method metodo, ProceedingJoinPoint pjp) {
+        if (anotacion.clave().isEmpty()) {
+            return Arrays.asList(pjp.getArgs());
+        }
+        Expression expresion = expresiones.computeIfAbsent(metodo, m -> parser.parseExpression(anotacion.clave()));
+        Object valor = expresion.getValue(new MethodBasedEvaluationContext(pjp.getTarget(), metodo, pjp.getArgs(), nombres));
+        // Los arreglos no comparan por contenido
+        return valor instanceof Object[] arreglo ? List.of(arreglo) : valor;
+    }
+
+    private Counter contador(Method metodo) {
+        return compartidas.computeIfAbsent(metodo, m -> Counter.builder("sedapal.lecturas.compartidas")
+                .description("Consultas evitadas: llamadas que usaron el resultado de una idéntica en curso")
+                .tag("metodo", m.getDeclaringClass().getSimpleName() + "." + m.getName())
+                .register(meterRegistry));
+    }
+}
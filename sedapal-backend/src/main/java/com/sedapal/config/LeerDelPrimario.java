@@ -0,0 +1,21 @@
+package com.sedapal.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lectura que llena un caché (RespuestasCache, caché de segundo nivel o de consultas de
+ * Hibernate): se hace en el primario aunque la transacción sea readOnly. Leída de una
+ * réplica atrasada, el caché guardaría un dato anterior a la última escritura y lo
+ * serviría hasta que venza el TTL, porque la invalidación ya pasó.
+ *
+ * Sin réplicas configuradas no tiene efecto.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LeerDelPrimario {
+}
@@ -0,0 +1,29 @@
+package com.sedapal.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marca el hilo mientras corre un método con @LeerDelPrimario; RuteoLecturaDataSource
+ * entrega entonces conexiones del primario. La conexión se pide en la primera sentencia
+ * (LazyConnectionDataSourceProxy), así que basta con que el método la ejecute adentro.
+ * Si una transacción de afuera ya tomó una conexión de réplica, se sigue usando esa.
+ */
+@Aspect
+@Component
+@Order(1)
+public class LeerDelPrimarioAspect {
+
+    @Around("@annotation(com.sedapal.config.LeerDelPrimario)")
+    public Object enPrimario(ProceedingJoinPoint pjp) throws Throwable {
+        boolean anterior = RuteoLecturaDataSource.leerDelPrimario(true);
+        try {
+            return pjp.proceed();
+        } finally {
+            RuteoLecturaDataSource.leerDelPrimario(anterior);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sedapal.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que limita explícitamente cuántos hilos pueden usar o esperar una conexión.
+ * Con hilos virtuales no hay un pool de Tomcat que frene la concurrencia, así que sin
+ * este límite miles de peticiones quedarían en la cola de Hikari hasta su timeout.
+ */
+public class LimiteConexionesDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+    private final int maxConexiones;
+    private final int maxEnEspera;
+    private final long esperaMs;
+    private final AtomicInteger enEspera = new AtomicInteger();
+
+    public LimiteConexionesDataSource(DataSource destino, int maxConexiones, int maxEnEspera, long esperaMs) {
+        super(destino);
+        this.permisos = new Semaphore(maxConexiones, true);
+        this.maxConexiones = maxConexiones;
+        this.maxEnEspera = maxEnEspera;
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public int getConexionesEnUso() {
+        return maxConexiones - permisos.availablePermits();
+    }
+
+    public int getEnEspera() {
+        return enEspera.get();
+    }
+
+    private void adquirir() throws SQLException {
+        if (enEspera.incrementAndGet() > maxEnEspera) {
+            enEspera.decrementAndGet();
+            throw new SQLTransientConnectionException("Demasiadas solicitudes esperando una conexión a la base de datos");
+        }
+        try {
+            if (!permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Tiempo de espera agotado para obtener una conexión (" + esperaMs + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        } finally {
+            enEspera.decrementAndGet();
+        }
+    }
+
+    /**
+     * Devuelve el permiso una sola vez, al cerrar la conexión
+     */
+    private Connection envolver(Connection conexion) {
+        AtomicBoolean liberada = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && liberada.compareAndSet(false, true)) {
+                    try {
+                        return method.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        permisos.release();
+                    }
+                }
+                try {
+                    return method.invoke(conexion, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+}
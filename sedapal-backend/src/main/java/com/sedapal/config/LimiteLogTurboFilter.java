@@ -0,0 +1,77 @@
+package com.sedapal.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita los logs de los caminos calientes: cada plantilla de mensaje (el formato con {})
+ * de los loggers bajo "prefijo" pasa como máximo maxPorSegundo veces por segundo y el
+ * resto se descarta. ERROR nunca se limita. Corre en el hilo del request, así que es
+ * sin locks: un contador atómico por plantilla y ventana de un segundo.
+ *
+ * Se configura en logback-spring.xml; los descartes se publican como la métrica
+ * sedapal.log.suprimidos (MetricasConfig).
+ */
+public class LimiteLogTurboFilter extends TurboFilter {
+
+    /** Tope de plantillas distintas con contador propio; las demás no se limitan */
+    private static final int MAX_PLANTILLAS = 10_000;
+
+    private static final LongAdder SUPRIMIDOS = new LongAdder();
+
+    private final ConcurrentHashMap<String, Ventana> ventanas = new ConcurrentHashMap<>();
+    private String prefijo = "com.sedapal";
+    private int maxPorSegundo = 20;
+
+    private static final class Ventana {
+        final AtomicLong segundo = new AtomicLong();
+        final AtomicInteger cuenta = new AtomicInteger();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || level == null || level.isGreaterOrEqual(Level.ERROR)
+                || !logger.getName().startsWith(prefijo)
+                // Los turbo filters corren antes del chequeo de nivel: no contar lo que no se va a escribir
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Ventana ventana = ventanas.get(format);
+        if (ventana == null) {
+            if (ventanas.size() >= MAX_PLANTILLAS) {
+                return FilterReply.NEUTRAL;
+            }
+            ventana = ventanas.computeIfAbsent(format, f -> new Ventana());
+        }
+        long ahora = System.currentTimeMillis() / 1000;
+        long actual = ventana.segundo.get();
+        if (actual != ahora && ventana.segundo.compareAndSet(actual, ahora)) {
+            ventana.cuenta.set(0);
+        }
+        if (ventana.cuenta.incrementAndGet() <= maxPorSegundo) {
+            return FilterReply.NEUTRAL;
+        }
+        SUPRIMIDOS.increment();
+        return FilterReply.DENY;
+    }
+
+    public static long getSuprimidos() {
+        return SUPRIMIDOS.sum();
+    }
+
+    public void setPrefijo(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public void setMaxPorSegundo(int maxPorSegundo) {
+        this.maxPorSegundo = maxPorSegundo;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sedapal.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Métricas propias de la capa JDBC, además de las de Hikari que publica Spring Boot:
+ * límite de concurrencia en modo hilos virtuales y estado de las réplicas de lectura.
+ * También los logs descartados por LimiteLogTurboFilter.
+ */
+@Configuration
+@Slf4j
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasDataSource(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (dataSource.isWrapperFor(LimiteConexionesDataSource.class)) {
+                    LimiteConexionesDataSource limite = dataSource.unwrap(LimiteConexionesDataSource.class);
+                    Gauge.builder("sedapal.jdbc.limite.en.uso", limite, LimiteConexionesDataSource::getConexionesEnUso)
+                            .description("Conexiones tomadas a través del límite de concurrencia")
+                            .register(registry);
+                    Gauge.builder("sedapal.jdbc.limite.en.espera", limite, LimiteConexionesDataSource::getEnEspera)
+                            .description("Hilos esperando un permiso del límite de concurrencia")
+                            .register(registry);
+                }
+                if (dataSource.isWrapperFor(RuteoLecturaDataSource.class)) {
+                    RuteoLecturaDataSource ruteo = dataSource.unwrap(RuteoLecturaDataSource.class);
+                    for (int i = 0; i < ruteo.getEstado().size(); i++) {
+                        int indice = i;
+                        String nombre = ruteo.getEstado().get(i).nombre();
+                        Gauge.builder("sedapal.jdbc.replica.disponible", ruteo, r -> r.getEstado().get(indice).disponible() ? 1 : 0)
+                                .description("1 si la réplica está en rotación")
+                                .tag("replica", nombre)
+                                .register(registry);
+                        Gauge.builder("sedapal.jdbc.replica.retraso", ruteo, r -> r.getEstado().get(indice).retrasoMs())
+                                .description("Retraso de replicación medido en el último chequeo")
+                                .baseUnit("milliseconds")
+                                .tag("replica", nombre)
+                                .register(registry);
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("⚠️ No se pudieron registrar las métricas del DataSource: {}", e.getMessage());
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder metricasLogs() {
+        return registry -> FunctionCounter.builder("sedapal.log.suprimidos", LimiteLogTurboFilter.class,
+                        c -> LimiteLogTurboFilter.getSuprimidos())
+                .description("Logs descartados por el límite de mensajes por segundo")
+                .register(registry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.sedapal.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diagnóstico de "pinning": un hilo virtual que bloquea dentro de un bloque synchronized
+ * (JavaMail, driver JDBC) retiene su hilo portador. Se escucha el evento JFR
+ * jdk.VirtualThreadPinned y se agrupa por el primer frame de código no-JDK.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class MonitorPinning implements SmartLifecycle {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+
+    public record Origen(String origen, long cantidad, long totalMs, long maxMs) {}
+
+    private record Acumulado(LongAdder cantidad, LongAdder totalMs, AtomicLong maxMs) {}
+
+    private final Duration umbral;
+    private final Map<String, Acumulado> porOrigen = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public MonitorPinning(@Value("${app.diagnostico.pinning-umbral-ms:20}") long umbralMs) {
+        this.umbral = Duration.ofMillis(umbralMs);
+    }
+
+    @Override
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("⚠️ Diagnóstico de pinning no disponible en Java {}", Runtime.version().feature());
+            return;
+        }
+        RecordingStream rs = new RecordingStream();
+        rs.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        rs.onEvent(EVENTO, this::registrar);
+        rs.startAsync();
+        stream = rs;
+        log.info("🧵 Diagnóstico de pinning activo (umbral {} ms)", umbral.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        if (rs != null) {
+            rs.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public boolean isActivo() {
+        return stream != null;
+    }
+
+    /**
+     * Orígenes de pinning ordenados por tiempo total bloqueado
+     */
+    public List<Origen> obtenerResumen() {
+        return porOrigen.entrySet().stream()
+                .map(e -> new Origen(e.getKey(), e.getValue().cantidad().sum(),
+                        e.getValue().totalMs().sum(), e.getValue().maxMs().get()))
+                .sorted(Comparator.comparingLong(Origen::totalMs).reversed())
+                .toList();
+    }
+
+    private void registrar(RecordedEvent evento) {
+        long ms = evento.getDuration().toMillis();
+        String origen = origen(evento);
+        Acumulado acc = porOrigen.computeIfAbsent(origen,
+                o -> new Acumulado(new LongAdder(), new LongAdder(), new AtomicLong()));
+        acc.cantidad().increment();
+        acc.totalMs().add(ms);
+        acc.maxMs().accumulateAndGet(ms, Math::max);
+        log.debug("🧵 Hilo virtual fijado {} ms en {}", ms, origen);
+    }
+
+    private String origen(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) return "desconocido";
+        for (RecordedFrame frame : evento.getStackTrace().getFrames()) {
+            String clase = frame.getMethod().getType().getName();
+            if (!clase.startsWith("java.") && !clase.startsWith("jdk.") && !clase.startsWith("sun.")) {
+                return clase + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return "jdk";
+    }
+}
@@ -0,0 +1,27 @@
+package com.sedapal.config;
+
+import com.sedapal.util.Circuito;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Una petición rechazada por un circuito (abierto o bulkhead lleno) responde 503: la
+ * dependencia no está disponible por ahora, no es un error de la petición ni del servidor.
+ * También la encuentra como causa, envuelta en las excepciones de Spring o Hibernate.
+ */
+@RestControllerAdvice
+@Slf4j
+public class RechazoCircuitoHandler {
+
+    @ExceptionHandler(Circuito.RechazoException.class)
+    public ResponseEntity<?> rechazo(Circuito.RechazoException e) {
+        log.warn("⚠️ {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage()));
+    }
+}
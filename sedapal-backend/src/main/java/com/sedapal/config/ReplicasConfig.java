@@ -0,0 +1,74 @@
+package com.sedapal.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de lectura (opt-in): se activa al definir app.datasource.replicas con una
+ * o más URLs JDBC separadas por comas. El DataSource de Spring Boot queda como primario.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas")
+@Slf4j
+public class ReplicasConfig {
+
+    @Bean
+    public static BeanPostProcessor ruteoLecturaPostProcessor(
+            @Value("${app.datasource.replicas}") List<String> urls,
+            @Value("${app.datasource.replicas-usuario:${spring.datasource.username:}}") String usuario,
+            @Value("${app.datasource.replicas-contrasena:${spring.datasource.password:}}") String contrasena,
+            @Value("${app.datasource.replicas-pool:5}") int pool,
+            @Value("${app.datasource.replicas-retraso-max-ms:5000}") long retrasoMaxMs,
+            @Value("${app.datasource.replicas-chequeo-ms:5000}") long chequeoMs) {
+        return new RuteoPostProcessor(urls, usuario, contrasena, pool, retrasoMaxMs, chequeoMs);
+    }
+
+    /**
+     * Se aplica después del límite de conexiones de HilosVirtualesConfig, para que ese
+     * límite cuente sólo las conexiones del primario (cada réplica tiene su propio pool).
+     */
+    private record RuteoPostProcessor(List<String> urls, String usuario, String contrasena, int pool,
+                                      long retrasoMaxMs, long chequeoMs) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primario)) {
+                return bean;
+            }
+            List<RuteoLecturaDataSource.Replica> replicas = new ArrayList<>();
+            for (int i = 0; i < urls.size(); i++) {
+                HikariDataSource ds = new HikariDataSource();
+                ds.setPoolName("replica-" + (i + 1));
+                ds.setJdbcUrl(urls.get(i).trim());
+                ds.setUsername(usuario);
+                ds.setPassword(contrasena);
+                ds.setMaximumPoolSize(pool);
+                ds.setReadOnly(true);
+                ds.setConnectionTimeout(3000);
+                // No fallar el arranque si una réplica está caída: el chequeo la deja fuera de rotación
+                ds.setInitializationFailTimeout(-1);
+                replicas.add(new RuteoLecturaDataSource.Replica(ds.getPoolName(), ds));
+            }
+            log.info("📚 Lecturas readOnly enrutadas a {} réplica(s), retraso máximo {} ms", replicas.size(), retrasoMaxMs);
+            return new LazyConnectionDataSourceProxy(
+                    new RuteoLecturaDataSource(primario, replicas, retrasoMaxMs, chequeoMs));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
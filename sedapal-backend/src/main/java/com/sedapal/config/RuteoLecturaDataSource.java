@@ -0,0 +1,174 @@
+package com.sedapal.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * DataSource que envía las transacciones @Transactional(readOnly = true) a réplicas
+ * de lectura (round-robin entre las sanas) y todo lo demás al primario.
+ * Una réplica deja de recibir tráfico si no responde al chequeo o si su retraso de
+ * replicación supera el máximo; sin réplicas disponibles se lee del primario.
+ * Los métodos con @LeerDelPrimario (los que llenan cachés) leen siempre del primario.
+ *
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión se pide
+ * cuando el gestor de transacciones ya marcó la transacción como de solo lectura.
+ */
+@Slf4j
+public class RuteoLecturaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Retraso de replicación en ms. Si la réplica ya aplicó todo lo recibido el retraso
+     * es 0 (aunque el primario esté inactivo); un servidor que no es réplica también da 0.
+     */
+    private static final String CONSULTA_RETRASO =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    /** Hilo dentro de un método con @LeerDelPrimario */
+    private static final ThreadLocal<Boolean> PRIMARIO = ThreadLocal.withInitial(() -> false);
+
+    public record Replica(String nombre, DataSource dataSource) {}
+
+    public record EstadoReplica(String nombre, boolean disponible, long retrasoMs, String error) {}
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final long retrasoMaxMs;
+    private final AtomicReferenceArray<EstadoReplica> estados;
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final ScheduledExecutorService chequeo;
+
+    public RuteoLecturaDataSource(DataSource primario, List<Replica> replicas, long retrasoMaxMs, long chequeoMs) {
+        this.primario = primario;
+        this.replicas = List.copyOf(replicas);
+        this.retrasoMaxMs = retrasoMaxMs;
+        this.estados = new AtomicReferenceArray<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            estados.set(i, new EstadoReplica(replicas.get(i).nombre(), false, -1, "sin verificar"));
+        }
+        verificar();
+        this.chequeo = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chequeo-replicas");
+            t.setDaemon(true);
+            return t;
+        });
+        chequeo.scheduleWithFixedDelay(this::verificar, chequeoMs, chequeoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARIO.get()) {
+            return primario.getConnection();
+        }
+        int n = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), n);
+        for (int k = 0; k < n; k++) {
+            int i = (inicio + k) % n;
+            if (!estados.get(i).disponible()) continue;
+            try {
+                return replicas.get(i).dataSource().getConnection();
+            } catch (SQLException e) {
+                marcar(i, new EstadoReplica(replicas.get(i).nombre(), false, -1, e.getMessage()));
+            }
+        }
+        return primario.getConnection();
+    }
+
+    /**
+     * Forzar (o dejar de forzar) el primario en este hilo; devuelve el valor anterior
+     */
+    static boolean leerDelPrimario(boolean primario) {
+        boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(primario);
+        return anterior;
+    }
+
+    /**
+     * Con credenciales explícitas se va siempre al primario: las réplicas pueden tener
+     * otros usuarios, y quien pasa credenciales no espera una conexión de solo lectura
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primario.getConnection(username, password);
+    }
+
+    /**
+     * unwrap llega al primario, así las métricas de Hikari de Spring Boot encuentran su pool
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primario.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primario.isWrapperFor(iface);
+    }
+
+    public List<EstadoReplica> getEstado() {
+        List<EstadoReplica> estado = new ArrayList<>(estados.length());
+        for (int i = 0; i < estados.length(); i++) {
+            estado.add(estados.get(i));
+        }
+        return estado;
+    }
+
+    /**
+     * Chequeo de salud y retraso de cada réplica
+     */
+    void verificar() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            EstadoReplica estado;
+            try (Connection con = replica.dataSource().getConnection();
+                 Statement st = con.createStatement()) {
+                st.setQueryTimeout(5);
+                try (ResultSet rs = st.executeQuery(CONSULTA_RETRASO)) {
+                    rs.next();
+                    long retraso = rs.getLong(1);
+                    estado = retraso <= retrasoMaxMs
+                            ? new EstadoReplica(replica.nombre(), true, retraso, null)
+                            : new EstadoReplica(replica.nombre(), false, retraso, "retraso mayor a " + retrasoMaxMs + " ms");
+                }
+            } catch (SQLException e) {
+                estado = new EstadoReplica(replica.nombre(), false, -1, e.getMessage());
+            }
+            marcar(i, estado);
+        }
+    }
+
+    private void marcar(int i, EstadoReplica nuevo) {
+        EstadoReplica anterior = estados.getAndSet(i, nuevo);
+        if (anterior.disponible() && !nuevo.disponible()) {
+            log.warn("⚠️ Réplica {} fuera de rotación: {}", nuevo.nombre(), nuevo.error());
+        } else if (!anterior.disponible() && nuevo.disponible()) {
+            log.info("✅ Réplica {} en rotación (retraso {} ms)", nuevo.nombre(), nuevo.retrasoMs());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        chequeo.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable cerrable) {
+                cerrable.close();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sedapal.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,12 +15,11 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
+@Slf4j
 public class SecurityConfig {
 
     public SecurityConfig() {
-        System.out.println("\n\n========================================");
-        System.out.println("✅ SecurityConfig CARGADO - SEGURIDAD DESACTIVADA PARA DESARROLLO");
-        System.out.println("========================================\n\n");
+        log.warn("⚠️ SecurityConfig cargado - seguridad desactivada para desarrollo");
     }
 
     @Bean
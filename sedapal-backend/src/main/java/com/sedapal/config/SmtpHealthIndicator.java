@@ -0,0 +1,61 @@
+package com.sedapal.config;
+
+import jakarta.mail.MessagingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conectividad SMTP como indicador de salud ("smtp", incluido en el grupo readiness).
+ * Reemplaza a spring.mail.test-connection, que hacía el handshake SMTP en el arranque:
+ * aquí el chequeo corre en el hilo de tareas programadas y /actuator/health solo lee
+ * el último resultado. Hasta el primer chequeo el estado es UNKNOWN, que no baja el
+ * estado agregado.
+ */
+@Component
+@Slf4j
+public class SmtpHealthIndicator implements HealthIndicator {
+
+    private final JavaMailSender mailSender;
+    private volatile Health estado = Health.unknown().withDetail("detalle", "sin verificar").build();
+
+    public SmtpHealthIndicator(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.chequeo-inicial-ms:0}", fixedDelayString = "${app.mail.chequeo-ms:300000}")
+    public void verificar() {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        Health anterior = estado;
+        try {
+            impl.testConnection();
+            estado = Health.up()
+                    .withDetail("host", impl.getHost() + ":" + impl.getPort())
+                    .withDetail("ms", (System.nanoTime() - inicio) / 1_000_000)
+                    .build();
+            if (!anterior.getStatus().equals(estado.getStatus())) {
+                log.info("✅ SMTP {}:{} disponible", impl.getHost(), impl.getPort());
+            }
+        } catch (MessagingException e) {
+            estado = Health.down()
+                    .withDetail("host", impl.getHost() + ":" + impl.getPort())
+                    .withDetail("error", String.valueOf(e.getMessage()))
+                    .build();
+            if (!anterior.getStatus().equals(estado.getStatus())) {
+                log.warn("⚠️ SMTP {}:{} no disponible: {}", impl.getHost(), impl.getPort(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        return estado;
+    }
+}
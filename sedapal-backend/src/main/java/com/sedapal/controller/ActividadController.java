@@ -0,0 +1,131 @@
+package com.sedapal.controller;
+
+import com.sedapal.dto.ActividadDTO;
+import com.sedapal.service.ActividadService;
+import com.sedapal.service.PlanificacionService;
+import com.sedapal.util.Circuito;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/actividades")
+@RequiredArgsConstructor
+@Slf4j
+public class ActividadController {
+
+    private static final int TAMANO_PAGINA_MAXIMO = 200;
+
+    private final ActividadService actividadService;
+    private final PlanificacionService planificacionService;
+
+    /**
+     * Planificación masiva: actividades con su sistema/equipo, trimestres, admin creador
+     * y usuarios asignados, en una sola transacción. Las notificaciones salen después.
+     * POST /api/actividades/bulk
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> planificar(@Valid @RequestBody ActividadDTO.BulkRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(planificacionService.planificar(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error en la planificación masiva: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reprogramar la fecha de una actividad (máximo de cambios configurable)
+     * POST /api/actividades/{idActividad}/reprogramaciones
+     */
+    @PostMapping("/{idActividad}/reprogramaciones")
+    public ResponseEntity<?> reprogramar(@PathVariable Long idActividad,
+                                         @Valid @RequestBody ActividadDTO.ReprogramarRequest request) {
+        try {
+            ActividadDTO.ReprogramacionResponse response = actividadService.reprogramar(
+                idActividad,
+                request.getModificadoPor(),
+                request.getFechaNueva()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al reprogramar actividad {}: {}", idActividad, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cantidad de cambios de fecha de una actividad
+     * GET /api/actividades/{idActividad}/cambios-fecha/cantidad
+     */
+    @GetMapping("/{idActividad}/cambios-fecha/cantidad")
+    public ResponseEntity<?> obtenerCantidadCambios(@PathVariable Long idActividad) {
+        try {
+            return ResponseEntity.ok(Map.of("cantidad", actividadService.obtenerCantidadCambios(idActividad)));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cantidad de cambios de varias actividades
+     * GET /api/actividades/cambios-fecha/cantidades?ids=1,2,3
+     */
+    @GetMapping("/cambios-fecha/cantidades")
+    public ResponseEntity<Map<Long, Integer>> obtenerCantidadesCambios(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(actividadService.obtenerCantidadesCambios(ids));
+    }
+
+    /**
+     * Historial paginado de cambios de fecha de una o varias actividades
+     * GET /api/actividades/cambios-fecha?ids=1,2,3&page=0&size=50
+     */
+    @GetMapping("/cambios-fecha")
+    public ResponseEntity<Page<ActividadDTO.CambioFechaResponse>> obtenerHistorialCambios(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "50") int size) {
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), TAMANO_PAGINA_MAXIMO));
+        return ResponseEntity.ok(actividadService.obtenerHistorialCambios(ids, pageable));
+    }
+
+    /**
+     * Listado completo de actividades en NDJSON (una actividad por línea), leído con
+     * un cursor y enviado mientras se lee: para consumidores de todo el listado.
+     * GET /api/actividades/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamActividades(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        long inicio = System.nanoTime();
+        try {
+            long filas = actividadService.escribirListadoNdjson(response.getOutputStream());
+            log.info("📤 Listado NDJSON: {} actividades en {} ms", filas, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión: el cursor ya se cerró
+            log.warn("⚠️ Listado NDJSON interrumpido: {}", e.getMessage());
+        }
+    }
+}
@@ -1,14 +1,15 @@
 package com.sedapal.controller;
 
+import com.sedapal.model.AdminSistema;
 import com.sedapal.model.Sistema;
 import com.sedapal.service.AdminSistemaService;
+import com.sedapal.service.RespuestasCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/admin-sistemas")
 @RequiredArgsConstructor
@@ -16,15 +17,18 @@ import java.util.List;
 public class AdminSistemaController {
 
     private final AdminSistemaService adminSistemaService;
+    private final RespuestasCache respuestasCache;
 
     /**
      * Obtener sistemas asignados a un administrador
      * GET /api/admin-sistemas/admin/{idAdmin}
      */
     @GetMapping("/admin/{idAdmin}")
-    public ResponseEntity<List<Sistema>> getSistemasByAdmin(@PathVariable Long idAdmin) {
-        log.info("📋 Obteniendo sistemas del admin ID: {}", idAdmin);
-        List<Sistema> sistemas = adminSistemaService.getSistemasByAdmin(idAdmin);
-        return ResponseEntity.ok(sistemas);
+    public ResponseEntity<byte[]> getSistemasByAdmin(
+            @PathVariable Long idAdmin,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("📋 Obteniendo sistemas del admin ID: {}", idAdmin);
+        return respuestasCache.responder("sistemas-admin:" + idAdmin, acceptEncoding,
+                () -> adminSistemaService.getSistemasByAdmin(idAdmin), AdminSistema.class, Sistema.class);
     }
 }
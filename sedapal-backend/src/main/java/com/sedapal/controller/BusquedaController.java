@@ -0,0 +1,31 @@
+package com.sedapal.controller;
+
+import com.sedapal.service.BusquedaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/buscar")
+@RequiredArgsConstructor
+public class BusquedaController {
+
+    private final BusquedaService busquedaService;
+
+    /**
+     * Buscar usuarios, actividades y sistemas (sin distinguir tildes ni mayúsculas)
+     * GET /api/buscar?q=gestion&tipo=sistema&limite=20
+     */
+    @GetMapping
+    public ResponseEntity<List<BusquedaService.Resultado>> buscar(
+            @RequestParam("q") String q,
+            @RequestParam(name = "tipo", required = false) BusquedaService.Tipo tipo,
+            @RequestParam(name = "limite", defaultValue = "20") int limite) {
+        return ResponseEntity.ok(busquedaService.buscar(q, tipo, limite));
+    }
+}
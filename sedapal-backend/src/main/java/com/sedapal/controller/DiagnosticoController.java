@@ -0,0 +1,120 @@
+package com.sedapal.controller;
+
+import com.sedapal.config.MonitorPinning;
+import com.sedapal.config.RuteoLecturaDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostico")
+@RequiredArgsConstructor
+public class DiagnosticoController {
+
+    private final ObjectProvider<MonitorPinning> monitorPinning;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Hilos virtuales fijados a su portador (solo en modo hilos virtuales, Java 21+)
+     * GET /api/diagnostico/pinning
+     */
+    @GetMapping("/pinning")
+    public ResponseEntity<Map<String, Object>> pinning() {
+        MonitorPinning monitor = monitorPinning.getIfAvailable();
+        Map<String, Object> response = new HashMap<>();
+        response.put("java", Runtime.version().feature());
+        response.put("hilosVirtuales", monitor != null);
+        response.put("activo", monitor != null && monitor.isActivo());
+        response.put("origenes", monitor != null ? monitor.obtenerResumen() : List.of());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Estado de las réplicas de lectura (solo con app.datasource.replicas)
+     * GET /api/diagnostico/replicas
+     */
+    @GetMapping("/replicas")
+    public ResponseEntity<Map<String, Object>> replicas() throws SQLException {
+        Map<String, Object> response = new HashMap<>();
+        boolean activo = dataSource.isWrapperFor(RuteoLecturaDataSource.class);
+        response.put("activo", activo);
+        response.put("replicas", activo ? dataSource.unwrap(RuteoLecturaDataSource.class).getEstado() : List.of());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Consultas más lentas según las estadísticas de Hibernate
+     * (requiere hibernate.generate_statistics=true)
+     * GET /api/diagnostico/consultas?limite=10
+     */
+    @GetMapping("/consultas")
+    public ResponseEntity<Map<String, Object>> consultas(@RequestParam(defaultValue = "10") int limite) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> response = new HashMap<>();
+        response.put("activo", stats.isStatisticsEnabled());
+        response.put("consultasEjecutadas", stats.getQueryExecutionCount());
+        response.put("maxMs", stats.getQueryExecutionMaxTime());
+        response.put("masLenta", stats.getQueryExecutionMaxTimeQueryString());
+        response.put("consultas", Arrays.stream(stats.getQueries())
+                .map(q -> {
+                    QueryStatistics qs = stats.getQueryStatistics(q);
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("consulta", q);
+                    item.put("ejecuciones", qs.getExecutionCount());
+                    item.put("promedioMs", qs.getExecutionAvgTime());
+                    item.put("maxMs", qs.getExecutionMaxTime());
+                    item.put("filas", qs.getExecutionRowCount());
+                    return item;
+                })
+                .sorted(Comparator.comparing((Map<String, Object> item) -> (Long) item.get("maxMs")).reversed())
+                .limit(Math.max(1, Math.min(limite, 100)))
+                .toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Aciertos y fallos del caché de segundo nivel y de consultas por región
+     * GET /api/diagnostico/cache
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cache() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> response = new HashMap<>();
+        response.put("aciertos", stats.getSecondLevelCacheHitCount());
+        response.put("fallos", stats.getSecondLevelCacheMissCount());
+        response.put("consultasAciertos", stats.getQueryCacheHitCount());
+        response.put("consultasFallos", stats.getQueryCacheMissCount());
+        response.put("regiones", Arrays.stream(stats.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> {
+                    CacheRegionStatistics rs = stats.getCacheRegionStatistics(region);
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("region", region);
+                    item.put("aciertos", rs.getHitCount());
+                    item.put("fallos", rs.getMissCount());
+                    item.put("escrituras", rs.getPutCount());
+                    item.put("elementos", rs.getElementCountInMemory());
+                    return item;
+                })
+                .toList());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,261 @@
+package com.sedapal.controller;
+
+import com.sedapal.dto.EntregableDTO;
+import com.sedapal.model.Entregable;
+import com.sedapal.model.UploadSesion;
+import com.sedapal.repository.EntregableRepository;
+import com.sedapal.service.AlmacenamientoService;
+import com.sedapal.service.ArchivoEntregablesService;
+import com.sedapal.service.EntregableService;
+import com.sedapal.service.UploadReanudableService;
+import com.sedapal.util.Circuito;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/entregables")
+@RequiredArgsConstructor
+@Slf4j
+public class EntregableController {
+
+    private final UploadReanudableService uploadReanudableService;
+    private final AlmacenamientoService almacenamientoService;
+    private final EntregableRepository entregableRepository;
+    private final EntregableService entregableService;
+    private final ArchivoEntregablesService archivoEntregablesService;
+
+    /**
+     * Crear sesión de subida reanudable
+     * POST /api/entregables/uploads
+     */
+    @PostMapping("/uploads")
+    public ResponseEntity<?> crearSesion(@Valid @RequestBody EntregableDTO.CrearSesionRequest request) {
+        try {
+            UploadSesion sesion = uploadReanudableService.crearSesion(
+                request.getIdActividad(),
+                request.getSubidoPor(),
+                request.getNombreArchivo(),
+                request.getTamanoTotal()
+            );
+            List<Integer> faltantes = uploadReanudableService.chunksFaltantes(sesion);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(EntregableDTO.SesionResponse.fromEntity(sesion, faltantes));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al crear sesión de subida: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Subir un chunk (cuerpo binario). Los chunks pueden enviarse en paralelo.
+     * PUT /api/entregables/uploads/{idSesion}/chunks/{numero}
+     */
+    @PutMapping(value = "/uploads/{idSesion}/chunks/{numero}", consumes = MediaType.ALL_VALUE)
+    public ResponseEntity<?> subirChunk(@PathVariable String idSesion, @PathVariable int numero,
+                                        HttpServletRequest request) {
+        try {
+            uploadReanudableService.recibirChunk(idSesion, numero, request.getInputStream());
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al recibir chunk {} de {}: {}", numero, idSesion, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Estado de la sesión y chunks faltantes (para reanudar)
+     * GET /api/entregables/uploads/{idSesion}
+     */
+    @GetMapping("/uploads/{idSesion}")
+    public ResponseEntity<?> obtenerSesion(@PathVariable String idSesion) {
+        try {
+            UploadSesion sesion = uploadReanudableService.obtenerSesion(idSesion);
+            List<Integer> faltantes = sesion.getEstado() == UploadSesion.Estado.activa
+                    ? uploadReanudableService.chunksFaltantes(sesion)
+                    : List.of();
+            return ResponseEntity.ok(EntregableDTO.SesionResponse.fromEntity(sesion, faltantes));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Ensamblar chunks y registrar el entregable
+     * POST /api/entregables/uploads/{idSesion}/finalizar
+     */
+    @PostMapping("/uploads/{idSesion}/finalizar")
+    public ResponseEntity<?> finalizar(@PathVariable String idSesion) {
+        try {
+            Entregable entregable = uploadReanudableService.finalizar(idSesion);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(EntregableDTO.EntregableResponse.fromEntity(entregable));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al finalizar sesión {}: {}", idSesion, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancelar una sesión de subida
+     * DELETE /api/entregables/uploads/{idSesion}
+     */
+    @DeleteMapping("/uploads/{idSesion}")
+    public ResponseEntity<?> cancelar(@PathVariable String idSesion) {
+        try {
+            uploadReanudableService.cancelar(idSesion);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Descargar en un solo ZIP los entregables de una actividad, sistema y/o trimestre.
+     * El ZIP se genera al vuelo mientras se envía.
+     * GET /api/entregables/bundle?actividad=&sistema=&trimestre=
+     */
+    @GetMapping("/bundle")
+    public void descargarBundle(@RequestParam(name = "actividad", required = false) Long idActividad,
+                                @RequestParam(name = "sistema", required = false) Long idSistema,
+                                @RequestParam(name = "trimestre", required = false) Integer trimestre,
+                                HttpServletResponse response) throws IOException {
+        List<Entregable> entregables;
+        try {
+            entregables = entregableService.buscarParaBundle(idActividad, idSistema, trimestre);
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        StringBuilder nombre = new StringBuilder("entregables");
+        if (idActividad != null) nombre.append("_actividad-").append(idActividad);
+        if (idSistema != null) nombre.append("_sistema-").append(idSistema);
+        if (trimestre != null) nombre.append("_T").append(trimestre);
+
+        log.info("📦 Generando ZIP {} con {} entregables", nombre, entregables.size());
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(nombre + ".zip")
+                .build()
+                .toString());
+        try {
+            entregableService.escribirBundle(entregables, response.getOutputStream());
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión: no hay a quién responder
+            log.warn("⚠️ Descarga de ZIP interrumpida ({}): {}", nombre, e.getMessage());
+        }
+    }
+
+    /**
+     * Bytes por nivel de almacenamiento y códec, y la última ejecución del archivado
+     * GET /api/entregables/archivo
+     */
+    @GetMapping("/archivo")
+    public ResponseEntity<ArchivoEntregablesService.Estado> estadoArchivo() {
+        return ResponseEntity.ok(archivoEntregablesService.obtenerEstado());
+    }
+
+    /**
+     * Mover ahora al archivo frío los entregables antiguos (normalmente corre una vez al día)
+     * POST /api/entregables/archivo/ejecutar
+     */
+    @PostMapping("/archivo/ejecutar")
+    public ResponseEntity<?> archivar() {
+        try {
+            ArchivoEntregablesService.Resultado resultado = archivoEntregablesService.archivar();
+            if (resultado == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Ya hay un archivado en curso"));
+            }
+            return ResponseEntity.ok(resultado);
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al archivar entregables: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Descargar un entregable
+     * GET /api/entregables/{id}/descarga
+     */
+    @GetMapping("/{id}/descarga")
+    public ResponseEntity<?> descargar(@PathVariable Long id) {
+        Entregable entregable = entregableRepository.findById(id).orElse(null);
+        EntregableService.Ubicacion ubicacion = entregable != null ? entregableService.ubicar(entregable) : null;
+        if (ubicacion == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Entregable no encontrado"));
+        }
+
+        Long tamano;
+        InputStream contenido;
+        try {
+            // Archivado comprimido: se envía descomprimido, con el tamaño original
+            tamano = ubicacion.codec() == null
+                    ? Long.valueOf(almacenamientoService.tamano(ubicacion.ruta()))
+                    : entregable.getTamanoArchivo();
+            contenido = entregableService.abrir(ubicacion);
+        } catch (RuntimeException e) {
+            // El objeto se movió o se eliminó después de ubicarlo
+            log.warn("⚠️ Entregable {} no disponible en {}: {}", id, ubicacion.ruta(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Entregable no encontrado"));
+        }
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(entregable.getNombreArchivo(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString());
+        if (tamano != null) {
+            respuesta.contentLength(tamano);
+        }
+        return respuesta.body(new InputStreamResource(contenido));
+    }
+
+    /**
+     * Eliminar un entregable
+     * DELETE /api/entregables/{id}
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> eliminar(@PathVariable Long id) {
+        try {
+            entregableService.eliminar(id);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al eliminar entregable {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
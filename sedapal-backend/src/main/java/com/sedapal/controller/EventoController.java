@@ -0,0 +1,60 @@
+package com.sedapal.controller;
+
+import com.sedapal.service.RegistroEventos;
+import com.sedapal.util.Circuito;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/eventos")
+@RequiredArgsConstructor
+@Slf4j
+public class EventoController {
+
+    private static final int LIMITE_MAX = 5000;
+
+    private final RegistroEventos registroEventos;
+
+    /**
+     * Eventos de dominio desde un offset, para que una proyección se ponga al día
+     * GET /api/eventos?desde=0&limite=500 (la siguiente página empieza en "siguiente")
+     */
+    @GetMapping
+    public ResponseEntity<?> leer(@RequestParam(name = "desde", defaultValue = "0") long desde,
+                                  @RequestParam(name = "limite", defaultValue = "500") int limite) {
+        if (limite < 1 || limite > LIMITE_MAX) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limite debe estar entre 1 y " + LIMITE_MAX));
+        }
+        return ResponseEntity.ok(registroEventos.leer(desde, limite));
+    }
+
+    /**
+     * Segmentos, rango de offsets y eventos en cola
+     * GET /api/eventos/estado
+     */
+    @GetMapping("/estado")
+    public ResponseEntity<RegistroEventos.Estado> estado() {
+        return ResponseEntity.ok(registroEventos.obtenerEstado());
+    }
+
+    /**
+     * Compactar ahora los segmentos cerrados (normalmente corre una vez al día)
+     * POST /api/eventos/compactar
+     */
+    @PostMapping("/compactar")
+    public ResponseEntity<?> compactar() {
+        try {
+            return ResponseEntity.ok(Map.of("eliminados", registroEventos.compactar()));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al compactar el registro de eventos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
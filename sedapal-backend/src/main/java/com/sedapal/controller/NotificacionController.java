@@ -36,7 +36,7 @@ public class NotificacionController {
         try {
             log.info("📧 Enviando notificación de actividad a: {}", request.email());
             
-            emailService.enviarNotificacionActividad(
+            boolean enviado = emailService.enviarNotificacionActividad(
                 request.email(),
                 request.nombreUsuario(),
                 request.nombreActividad(),
@@ -46,6 +46,9 @@ public class NotificacionController {
                 request.fechaMaxima()
             );
             
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Notificación enviada exitosamente");
         } catch (Exception e) {
             log.error("❌ Error al enviar notificación: {}", e.getMessage());
@@ -62,12 +65,15 @@ public class NotificacionController {
         try {
             log.info("🧪 Probando envío de email a: {}", request.email());
             
-            emailService.enviarEmailSimple(
+            boolean enviado = emailService.enviarEmailSimple(
                 request.email(),
                 "Test - Sistema SEDAPAL",
                 "Este es un email de prueba del sistema SEDAPAL. Si recibes este mensaje, la configuración de correo funciona correctamente."
             );
             
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Email de prueba enviado exitosamente a " + request.email());
         } catch (Exception e) {
             log.error("❌ Error completo al enviar email de prueba:", e);
@@ -101,11 +107,14 @@ public class NotificacionController {
             if (req.adminEmail() == null || req.adminEmail().trim().isEmpty()) {
                 return ResponseEntity.badRequest().body("adminEmail requerido");
             }
-            emailService.enviarNotificacionUsuarioCumplio(
+            boolean enviado = emailService.enviarNotificacionUsuarioCumplio(
                 req.adminEmail().trim(), req.usuarioNombre(), req.usuarioEmail(),
                 req.nombreActividad(), req.entregableNombre(), req.sistemaAbrev(),
                 req.equipoNombre(), req.fechaMaxima()
             );
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Notificación enviada al admin");
         } catch (Exception e) {
             log.error("❌ Error al notificar cumplimiento", e);
@@ -128,11 +137,14 @@ public class NotificacionController {
     @PostMapping("/conforme")
     public ResponseEntity<String> notificarConforme(@RequestBody ConformeRequest req) {
         try {
-            emailService.enviarNotificacionConforme(
+            boolean enviado = emailService.enviarNotificacionConforme(
                 req.usuariosDestino(), req.superadminsDestino(),
                 req.nombreActividad(), req.entregableNombre(), req.sistemaAbrev(),
                 req.equipoNombre(), req.fechaMaxima()
             );
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Notificación de conforme enviada");
         } catch (Exception e) {
             log.error("❌ Error al notificar conforme: {}", e.getMessage());
@@ -152,10 +164,13 @@ public class NotificacionController {
     @PostMapping("/usuario-creado")
     public ResponseEntity<String> notificarUsuarioCreado(@RequestBody UsuarioCreadoRequest req) {
         try {
-            emailService.enviarUsuarioCreado(
+            boolean enviado = emailService.enviarUsuarioCreado(
                 req.email(), req.nombreUsuario(), req.contrasena(),
                 req.gerenciaNombre(), req.equipoNombre()
             );
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Notificación de usuario creado enviada");
         } catch (Exception e) {
             log.error("❌ Error al notificar usuario creado: {}", e.getMessage());
@@ -174,13 +189,24 @@ public class NotificacionController {
     @PostMapping("/asignacion-sistema")
     public ResponseEntity<String> notificarAsignacionSistema(@RequestBody AsignacionSistemaRequest req) {
         try {
-            emailService.enviarAsignacionSistema(
+            boolean enviado = emailService.enviarAsignacionSistema(
                 req.email(), req.nombreAdmin(), req.sistemaAbrev(), req.sistemaNombre()
             );
+            if (!enviado) {
+                return aceptadoParaReintento();
+            }
             return ResponseEntity.ok("Notificación de asignación de sistema enviada");
         } catch (Exception e) {
             log.error("❌ Error al notificar asignación de sistema: {}", e.getMessage());
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Respuesta degradada: el servidor de correo no está disponible y el envío se reintentará
+     */
+    private ResponseEntity<String> aceptadoParaReintento() {
+        return ResponseEntity.accepted()
+                .body("Servidor de correo no disponible: la notificación quedó en cola y se reintentará");
+    }
 }
@@ -0,0 +1,42 @@
+package com.sedapal.controller;
+
+import com.sedapal.dto.RevisionDTO;
+import com.sedapal.service.RevisionService;
+import com.sedapal.util.Circuito;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/revisiones")
+@RequiredArgsConstructor
+@Slf4j
+public class RevisionController {
+
+    private final RevisionService revisionService;
+
+    /**
+     * Aplicar muchas decisiones conforme / observado en una sola transacción; los correos
+     * de conforme salen después, uno por destinatario
+     * POST /api/revisiones/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> aplicarLote(@Valid @RequestBody RevisionDTO.BatchRequest request) {
+        try {
+            return ResponseEntity.ok(revisionService.aplicar(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error en la revisión en lote: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sedapal.controller;
+
+import com.sedapal.dto.TendenciaDTO;
+import com.sedapal.service.TendenciaService;
+import com.sedapal.util.Circuito;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/tendencias")
+@RequiredArgsConstructor
+@Slf4j
+public class TendenciaController {
+
+    private final TendenciaService tendenciaService;
+
+    /**
+     * Tendencia de cumplimiento desde los snapshots diarios
+     * GET /api/tendencias?dimension=sistema&id=3&desde=2025-01-01&hasta=2025-12-31&agrupacion=mes
+     * dimension: total | sistema | gerencia | equipo | trimestre (sin id: todos los de la dimensión)
+     */
+    @GetMapping
+    public ResponseEntity<?> obtenerTendencia(
+            @RequestParam(name = "dimension", defaultValue = "total") String dimension,
+            @RequestParam(name = "id", required = false) Long id,
+            @RequestParam(name = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(name = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(name = "agrupacion", defaultValue = "dia") String agrupacion) {
+        try {
+            return ResponseEntity.ok(tendenciaService.obtenerTendencia(dimension, id, desde, hasta, "mes".equals(agrupacion)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Generar (o regenerar) el snapshot de hoy sin esperar al job nocturno
+     * POST /api/tendencias/snapshot (fecha opcional: sólo se acepta la de hoy)
+     */
+    @PostMapping("/snapshot")
+    public ResponseEntity<?> generarSnapshot(
+            @RequestParam(name = "fecha", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        try {
+            TendenciaDTO.SnapshotResponse response = tendenciaService.generarSnapshot(fecha);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
+            log.error("❌ Error al generar el snapshot de cumplimiento: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.sedapal.controller;
 
 import com.sedapal.dto.UsuarioDTO;
+import com.sedapal.model.Usuario;
+import com.sedapal.service.RespuestasCache;
 import com.sedapal.service.UsuarioService;
+import com.sedapal.util.Circuito;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,6 +22,7 @@ import java.util.Map;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final RespuestasCache respuestasCache;
 
     /**
      * Crear administrador
@@ -27,14 +31,8 @@ public class UsuarioController {
     @PostMapping("/admin")
     public ResponseEntity<?> crearAdministrador(@Valid @RequestBody UsuarioDTO.CrearAdminRequest request) {
         try {
-            System.out.println("\n\n========================================");
-            System.out.println("📝 RECIBIENDO REQUEST CREAR ADMIN");
-            System.out.println("Nombre: " + request.getNombre());
-            System.out.println("Apellido: " + request.getApellido());
-            System.out.println("Email: " + request.getEmail());
-            System.out.println("ID Sistema: " + request.getIdSistema());
-            System.out.println("========================================\n\n");
-            
+            log.debug("📝 Request crear admin: nombre={}, apellido={}, email={}, idSistema={}",
+                      request.getNombre(), request.getApellido(), request.getEmail(), request.getIdSistema());
             log.info("📝 Creando administrador: {}", request.getEmail());
             
             UsuarioDTO.UsuarioResponse response = usuarioService.crearAdministrador(
@@ -45,15 +43,9 @@ public class UsuarioController {
                 request.getIdSistema()
             );
             
-            System.out.println("\n✅ ADMIN CREADO EXITOSAMENTE\n");
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
-            System.out.println("\n\n========================================");
-            System.out.println("❌ ERROR AL CREAR ADMINISTRADOR");
-            System.out.println("Mensaje: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("========================================\n\n");
-            
+            Circuito.relanzarRechazo(e);
             log.error("❌ Error al crear administrador: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -77,6 +69,7 @@ public class UsuarioController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
             log.error("❌ Error al crear usuario: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -106,6 +99,7 @@ public class UsuarioController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
             log.error("❌ Error al crear usuario con actividad: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
@@ -126,7 +120,8 @@ public class UsuarioController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            log.error("❌ Credenciales inválidas para: {}", request.getEmail());
+            Circuito.relanzarRechazo(e);
+            log.warn("⚠️ Credenciales inválidas para: {}", request.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Credenciales inválidas"));
         }
@@ -142,6 +137,7 @@ public class UsuarioController {
             UsuarioDTO.UsuarioResponse response = usuarioService.obtenerPorEmail(email);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            Circuito.relanzarRechazo(e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Usuario no encontrado"));
         }
@@ -152,9 +148,10 @@ public class UsuarioController {
      * GET /api/usuarios/admin/all
      */
     @GetMapping("/admin/all")
-    public ResponseEntity<List<UsuarioDTO.UsuarioResponse>> obtenerAdministradores() {
-        List<UsuarioDTO.UsuarioResponse> admins = usuarioService.obtenerAdministradores();
-        return ResponseEntity.ok(admins);
+    public ResponseEntity<byte[]> obtenerAdministradores(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return respuestasCache.responder("administradores", acceptEncoding,
+                usuarioService::obtenerAdministradores, Usuario.class);
     }
 
     /**
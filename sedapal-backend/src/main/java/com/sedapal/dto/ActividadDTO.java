@@ -0,0 +1,171 @@
+package com.sedapal.dto;
+
+import com.sedapal.model.CambioFecha;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ActividadDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReprogramarRequest {
+        @NotNull(message = "El ID del administrador es requerido")
+        private Long modificadoPor;
+
+        @NotNull(message = "La nueva fecha es requerida")
+        private LocalDate fechaNueva;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CambioFechaResponse {
+        private Long id;
+        private Long idActividad;
+        private LocalDate fechaAnterior;
+        private LocalDate fechaNueva;
+        private Long modificadoPor;
+        private LocalDateTime fechaModificacion;
+
+        public static CambioFechaResponse fromEntity(CambioFecha cambio) {
+            return new CambioFechaResponse(
+                cambio.getId(),
+                cambio.getIdActividad(),
+                cambio.getFechaAnterior(),
+                cambio.getFechaNueva(),
+                cambio.getModificadoPor(),
+                cambio.getFechaModificacion()
+            );
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReprogramacionResponse {
+        private CambioFechaResponse cambio;
+        private Integer cantidadCambios;
+        private Integer cambiosRestantes;
+    }
+
+    /**
+     * Una línea del listado NDJSON: la actividad con su sistema, equipo y asignaciones
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ListadoResponse {
+        private Long idActividad;
+        private String nombreActividad;
+        private Integer trimestre;
+        private LocalDate fechaSustento;
+        private LocalDate fechaMaximaEntrega;
+        private String estadoActividad;
+        private String evaluacion;
+        private Long idEntregable;
+        private Integer cantidadCambiosFecha;
+        private Long idSistema;
+        private String sistemaAbrev;
+        private Integer idEquipo;
+        private String equipoNombre;
+        private Long usuariosAsignados;
+        private Boolean enRevision;
+
+        /**
+         * Fila de ActividadRepository.streamListado, en el orden de sus columnas
+         */
+        public static ListadoResponse fromFila(Object[] fila) {
+            return new ListadoResponse(
+                aLong(fila[0]),
+                (String) fila[1],
+                aInteger(fila[2]),
+                aFecha(fila[3]),
+                aFecha(fila[4]),
+                (String) fila[5],
+                (String) fila[6],
+                aLong(fila[7]),
+                aInteger(fila[8]),
+                aLong(fila[9]),
+                (String) fila[10],
+                aInteger(fila[11]),
+                (String) fila[12],
+                aLong(fila[13]),
+                (Boolean) fila[14]
+            );
+        }
+
+        private static Long aLong(Object valor) {
+            return valor == null ? null : ((Number) valor).longValue();
+        }
+
+        private static Integer aInteger(Object valor) {
+            return valor == null ? null : ((Number) valor).intValue();
+        }
+
+        private static LocalDate aFecha(Object valor) {
+            return valor instanceof java.sql.Date fecha ? fecha.toLocalDate() : (LocalDate) valor;
+        }
+    }
+
+    /**
+     * Planificación masiva (POST /api/actividades/bulk): todas las actividades se crean
+     * en una sola transacción o ninguna
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkRequest {
+        @NotNull(message = "El ID del administrador es requerido")
+        private Long idAdmin;
+
+        @NotEmpty(message = "Se requiere al menos una actividad")
+        @Valid
+        private List<PlanActividadRequest> actividades;
+
+        /** Notificar a los usuarios asignados después del commit (por defecto sí) */
+        private Boolean notificar;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlanActividadRequest {
+        @NotBlank(message = "El nombre de la actividad es requerido")
+        private String nombreActividad;
+
+        @NotNull(message = "El sistema es requerido")
+        private Long idSistema;
+
+        @NotNull(message = "El equipo es requerido")
+        private Integer idEquipo;
+
+        @NotEmpty(message = "Se requiere al menos un trimestre")
+        private List<Integer> trimestres;
+
+        private LocalDate fechaSustento;
+        private LocalDate fechaMaximaEntrega;
+        private Integer codCatInt;
+        private Long idEntregable;
+        private List<Long> idsUsuarios;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkResponse {
+        private Integer actividades;
+        private List<Long> idsActividades;
+        private Integer asignaciones;
+        private Integer notificacionesEnCola;
+    }
+}
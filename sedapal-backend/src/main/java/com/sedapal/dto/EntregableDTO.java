@@ -0,0 +1,86 @@
+package com.sedapal.dto;
+
+import com.sedapal.model.Entregable;
+import com.sedapal.model.UploadSesion;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class EntregableDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CrearSesionRequest {
+        @NotNull(message = "El ID de la actividad es requerido")
+        private Long idActividad;
+
+        @NotNull(message = "El ID del usuario es requerido")
+        private Long subidoPor;
+
+        @NotBlank(message = "El nombre del archivo es requerido")
+        private String nombreArchivo;
+
+        @NotNull(message = "El tamaño del archivo es requerido")
+        @Positive(message = "El tamaño del archivo debe ser mayor a 0")
+        private Long tamanoTotal;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SesionResponse {
+        private String idSesion;
+        private Integer tamanoChunk;
+        private Integer totalChunks;
+        private List<Integer> chunksFaltantes;
+        private UploadSesion.Estado estado;
+        private Long idEntregable;
+
+        public static SesionResponse fromEntity(UploadSesion sesion, List<Integer> chunksFaltantes) {
+            return new SesionResponse(
+                sesion.getId(),
+                sesion.getTamanoChunk(),
+                sesion.getTotalChunks(),
+                chunksFaltantes,
+                sesion.getEstado(),
+                sesion.getIdEntregable()
+            );
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntregableResponse {
+        private Long id;
+        private Long idActividad;
+        private String nombreArchivo;
+        private String rutaArchivo;
+        private Long tamanoArchivo;
+        private Long subidoPor;
+        private LocalDateTime fechaSubida;
+        private Entregable.Nivel nivelAlmacenamiento;
+        private String codec;
+
+        public static EntregableResponse fromEntity(Entregable entregable) {
+            return new EntregableResponse(
+                entregable.getId(),
+                entregable.getIdActividad(),
+                entregable.getNombreArchivo(),
+                entregable.getRutaArchivo(),
+                entregable.getTamanoArchivo(),
+                entregable.getSubidoPor(),
+                entregable.getFechaSubida(),
+                entregable.getNivelAlmacenamiento(),
+                entregable.getCodec()
+            );
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.sedapal.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+public class RevisionDTO {
+
+    /**
+     * Revisión en lote (POST /api/revisiones/batch): todas las decisiones se aplican en
+     * una sola transacción o ninguna
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchRequest {
+        @NotNull(message = "El ID del revisor es requerido")
+        private Long idRevisor;
+
+        @NotEmpty(message = "Se requiere al menos una decisión")
+        @Valid
+        private List<DecisionRequest> decisiones;
+
+        /** Enviar los correos de conforme después del commit (por defecto sí) */
+        private Boolean notificar;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DecisionRequest {
+        @NotNull(message = "La actividad es requerida")
+        private Long idActividad;
+
+        /** conforme | observado */
+        @NotBlank(message = "La decisión es requerida")
+        private String decision;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchResponse {
+        private Integer conformes;
+        private Integer observadas;
+        private Integer asignacionesActualizadas;
+        private Integer correosEnCola;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sedapal.dto;
+
+import com.sedapal.model.CumplimientoSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class TendenciaDTO {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PuntoResponse {
+        private LocalDate fecha;
+        private String dimension;
+        private Long idDimension;
+        private Integer actividades;
+        private Integer completadas;
+        private Integer pendientes;
+        private Integer asignaciones;
+        private Integer cumple;
+        private Integer noCumple;
+        private BigDecimal tasaActividades;
+        private BigDecimal tasaAsignaciones;
+
+        public static PuntoResponse fromEntity(CumplimientoSnapshot snapshot) {
+            return new PuntoResponse(
+                snapshot.getFecha(),
+                snapshot.getDimension(),
+                snapshot.getIdDimension(),
+                snapshot.getActividades(),
+                snapshot.getCompletadas(),
+                snapshot.getPendientes(),
+                snapshot.getAsignaciones(),
+                snapshot.getCumple(),
+                snapshot.getNoCumple(),
+                snapshot.getTasaActividades(),
+                snapshot.getTasaAsignaciones()
+            );
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SnapshotResponse {
+        private LocalDate fecha;
+        private Integer sistemas;
+        private Integer filas;
+        private Long duracionMs;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "tb_actividades")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Actividad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_actividad")
+    private Long id;
+
+    @Column(name = "nombre_actividad")
+    private String nombreActividad;
+
+    @Column(name = "cod_cat_int")
+    private Integer codCatInt;
+
+    @Column(name = "id_empresa")
+    private Long idEmpresa;
+
+    @Column(name = "estado")
+    private Boolean estado;
+
+    @Column(name = "trimestre")
+    private Integer trimestre;
+
+    @Column(name = "fecha_sustento")
+    private LocalDate fechaSustento;
+
+    @Column(name = "fecha_maxima_entrega")
+    private LocalDate fechaMaximaEntrega;
+
+    @Column(name = "evaluacion")
+    private String evaluacion;
+
+    @Column(name = "estado_actividad")
+    private String estadoActividad;
+
+    @Column(name = "id_entregable")
+    private Long idEntregable;
+
+    @Column(name = "cantidad_cambios_fecha", nullable = false)
+    private Integer cantidadCambiosFecha = 0;
+}
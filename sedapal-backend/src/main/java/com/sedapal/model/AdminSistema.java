@@ -1,12 +1,17 @@
 package com.sedapal.model;
 
+import com.sedapal.config.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_ADMIN_SISTEMAS)
 @Table(name = "tb_admin_sistemas")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,41 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tb_cambios_fecha")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioFecha {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_actividad", nullable = false)
+    private Long idActividad;
+
+    @Column(name = "fecha_anterior")
+    private LocalDate fechaAnterior;
+
+    @Column(name = "fecha_nueva", nullable = false)
+    private LocalDate fechaNueva;
+
+    @Column(name = "modificado_por", nullable = false)
+    private Long modificadoPor;
+
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaModificacion = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,66 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cumplimiento de un día para un sistema, gerencia, equipo o trimestre (o el total)
+ */
+@Entity
+@Table(name = "tb_cumplimiento_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CumplimientoSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "dimension", nullable = false)
+    private String dimension;
+
+    @Column(name = "id_dimension", nullable = false)
+    private Long idDimension;
+
+    @Column(name = "actividades", nullable = false)
+    private Integer actividades;
+
+    @Column(name = "completadas", nullable = false)
+    private Integer completadas;
+
+    @Column(name = "pendientes", nullable = false)
+    private Integer pendientes;
+
+    @Column(name = "asignaciones", nullable = false)
+    private Integer asignaciones;
+
+    @Column(name = "cumple", nullable = false)
+    private Integer cumple;
+
+    @Column(name = "no_cumple", nullable = false)
+    private Integer noCumple;
+
+    @Column(name = "tasa_actividades")
+    private BigDecimal tasaActividades;
+
+    @Column(name = "tasa_asignaciones")
+    private BigDecimal tasaAsignaciones;
+
+    @Column(name = "fecha_calculo")
+    private LocalDateTime fechaCalculo;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCalculo = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,68 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tb_entregables")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Entregable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_actividad", nullable = false)
+    private Long idActividad;
+
+    @Column(name = "nombre_archivo", nullable = false)
+    private String nombreArchivo;
+
+    @Column(name = "ruta_archivo", nullable = false)
+    private String rutaArchivo;
+
+    @Column(name = "tamaño_archivo")
+    private Long tamanoArchivo;
+
+    @Column(name = "hash_sha256", length = 64)
+    private String hashSha256;
+
+    @Column(name = "subido_por", nullable = false)
+    private Long subidoPor;
+
+    @Column(name = "fecha_subida")
+    private LocalDateTime fechaSubida;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nivel_almacenamiento", nullable = false)
+    private Nivel nivelAlmacenamiento;
+
+    /** Compresión del objeto almacenado; null = se guarda tal cual */
+    @Column(name = "codec")
+    private String codec;
+
+    @Column(name = "tamano_almacenado")
+    private Long tamanoAlmacenado;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fechaSubida == null) {
+            fechaSubida = LocalDateTime.now();
+        }
+        if (nivelAlmacenamiento == null) {
+            nivelAlmacenamiento = Nivel.caliente;
+        }
+    }
+
+    public static final String CODEC_GZIP = "gzip";
+
+    public enum Nivel {
+        caliente, archivo
+    }
+}
@@ -0,0 +1,48 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Contenido de un archivo almacenado una sola vez, identificado por su SHA-256.
+ * Varias filas de tb_entregables pueden apuntar al mismo blob.
+ */
+@Entity
+@Table(name = "tb_entregable_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntregableBlob {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String ruta;
+
+    @Column(nullable = false)
+    private Long tamano;
+
+    @Column(nullable = false)
+    private Integer referencias;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_sin_referencias")
+    private LocalDateTime fechaSinReferencias;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nivel_almacenamiento", nullable = false)
+    private Entregable.Nivel nivelAlmacenamiento;
+
+    @Column(name = "codec")
+    private String codec;
+
+    @Column(name = "tamano_almacenado")
+    private Long tamanoAlmacenado;
+}
@@ -0,0 +1,54 @@
+package com.sedapal.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Eventos del registro de dominio (RegistroEventos). El nombre simple del record es el
+ * tipo que se guarda en el archivo, así que renombrar uno rompe la lectura de lo ya escrito.
+ *
+ * clave(): la compactación conserva sólo el último evento de cada tipo + clave;
+ * null = el evento es historia y se conserva siempre.
+ */
+public sealed interface EventoDominio {
+
+    default String clave() {
+        return null;
+    }
+
+    record UsuarioCreado(Long idUsuario, String email, String nombre, String apellido, Usuario.Rol rol)
+            implements EventoDominio {
+        @Override
+        public String clave() {
+            return idUsuario.toString();
+        }
+    }
+
+    record SistemaAsignado(Long idAdmin, Long idSistema) implements EventoDominio {
+        @Override
+        public String clave() {
+            return idAdmin + ":" + idSistema;
+        }
+    }
+
+    record ActividadPlanificada(Long idActividad, String nombreActividad, Long idSistema, Integer idEquipo,
+                                List<Integer> trimestres, List<Long> idsUsuarios, Long idAdmin) implements EventoDominio {
+        @Override
+        public String clave() {
+            return idActividad.toString();
+        }
+    }
+
+    record ActividadReprogramada(Long idActividad, LocalDate fechaAnterior, LocalDate fechaNueva, Long modificadoPor)
+            implements EventoDominio {
+    }
+
+    /** Decisión de revisión: evaluación de la actividad y cumplimiento de sus asignaciones */
+    record CumplimientoActualizado(Long idActividad, String evaluacion, String cumplimiento, Long idRevisor)
+            implements EventoDominio {
+        @Override
+        public String clave() {
+            return idActividad.toString();
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.sedapal.model;
 
+import com.sedapal.config.CacheSegundoNivelConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_SISTEMAS)
 @Table(name = "tb_sistemas")
 @Data
 @NoArgsConstructor
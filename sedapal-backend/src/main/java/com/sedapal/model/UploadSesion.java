@@ -0,0 +1,59 @@
+package com.sedapal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "tb_upload_sesiones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSesion {
+
+    @Id
+    @Column(name = "id_sesion", length = 36)
+    private String id;
+
+    @Column(name = "id_actividad", nullable = false)
+    private Long idActividad;
+
+    @Column(name = "subido_por", nullable = false)
+    private Long subidoPor;
+
+    @Column(name = "nombre_archivo", nullable = false)
+    private String nombreArchivo;
+
+    @Column(name = "tamano_total", nullable = false)
+    private Long tamanoTotal;
+
+    @Column(name = "tamano_chunk", nullable = false)
+    private Integer tamanoChunk;
+
+    @Column(name = "total_chunks", nullable = false)
+    private Integer totalChunks;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Estado estado;
+
+    @Column(name = "id_entregable")
+    private Long idEntregable;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    public enum Estado {
+        activa, completada
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+        if (estado == null) {
+            estado = Estado.activa;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.sedapal.repository;
 
+import com.sedapal.config.CacheSegundoNivelConfig;
+import com.sedapal.config.LeerDelPrimario;
 import com.sedapal.model.AdminSistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,11 +14,20 @@ import java.util.Optional;
 
 @Repository
 public interface AdminSistemaRepository extends JpaRepository<AdminSistema, Long> {
-    
+
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_ADMIN_SISTEMAS)})
     List<AdminSistema> findByIdAdminAndEstado(Long idAdmin, Boolean estado);
-    
+
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_ADMIN_SISTEMAS)})
     List<AdminSistema> findByIdSistemaAndEstado(Long idSistema, Boolean estado);
-    
+
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_ADMIN_SISTEMAS)})
     Optional<AdminSistema> findByIdAdminAndIdSistemaAndEstado(Long idAdmin, Long idSistema, Boolean estado);
     
     boolean existsByIdAdminAndIdSistemaAndEstado(Long idAdmin, Long idSistema, Boolean estado);
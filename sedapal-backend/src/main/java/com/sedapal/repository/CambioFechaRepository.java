@@ -0,0 +1,15 @@
+package com.sedapal.repository;
+
+import com.sedapal.model.CambioFecha;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface CambioFechaRepository extends JpaRepository<CambioFecha, Long> {
+
+    Page<CambioFecha> findByIdActividadInOrderByFechaModificacionDesc(Collection<Long> idsActividad, Pageable pageable);
+}
@@ -0,0 +1,77 @@
+package com.sedapal.repository;
+
+import com.sedapal.model.CumplimientoSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CumplimientoSnapshotRepository extends JpaRepository<CumplimientoSnapshot, Long> {
+
+    /**
+     * Conteos de las actividades cuya relación principal (la primera fila de tb_as_sis_act)
+     * es el sistema indicado, agrupados por gerencia, por equipo, por trimestre y en total
+     * (GROUPING SETS). Columnas: grupo (1 gerencia, 2 equipo, 3 trimestre, 0 total),
+     * id del grupo, actividades, completadas, pendientes, asignaciones, cumple, no_cumple.
+     */
+    @Query(value = "WITH act AS ( " +
+                   "  SELECT a.id_actividad, a.trimestre, a.estado_actividad, r.id_equipo, " +
+                   "         COALESCE(r.id_gerencia, e.id_gerencia) AS id_gerencia " +
+                   "  FROM tb_as_sis_act r " +
+                   "  JOIN tb_actividades a ON a.id_actividad = r.id_actividad " +
+                   "  LEFT JOIN tb_equipos e ON e.id_equipo = r.id_equipo " +
+                   "  WHERE r.id_sistema = :idSistema AND a.estado IS NOT FALSE " +
+                   "    AND r.id = (SELECT MIN(p.id) FROM tb_as_sis_act p WHERE p.id_actividad = r.id_actividad) " +
+                   "), asig AS ( " +
+                   "  SELECT ua.id_actividad, COUNT(*) AS total, " +
+                   "         COUNT(*) FILTER (WHERE ua.cumplimiento = 'cumple') AS cumple, " +
+                   "         COUNT(*) FILTER (WHERE ua.cumplimiento = 'no_cumple') AS no_cumple " +
+                   "  FROM tb_usuario_actividades ua JOIN act ON act.id_actividad = ua.id_actividad " +
+                   "  GROUP BY ua.id_actividad " +
+                   ") " +
+                   "SELECT CASE GROUPING(act.id_gerencia, act.id_equipo, act.trimestre) " +
+                   "         WHEN 3 THEN 1 WHEN 5 THEN 2 WHEN 6 THEN 3 ELSE 0 END AS grupo, " +
+                   "       COALESCE(act.id_gerencia, act.id_equipo, act.trimestre, 0) AS id_grupo, " +
+                   "       COUNT(*) AS actividades, " +
+                   "       COUNT(*) FILTER (WHERE act.estado_actividad = 'completado') AS completadas, " +
+                   "       COUNT(*) FILTER (WHERE act.estado_actividad IN ('pendiente', 'reprogramado')) AS pendientes, " +
+                   "       COALESCE(SUM(asig.total), 0) AS asignaciones, " +
+                   "       COALESCE(SUM(asig.cumple), 0) AS cumple, " +
+                   "       COALESCE(SUM(asig.no_cumple), 0) AS no_cumple " +
+                   "FROM act LEFT JOIN asig ON asig.id_actividad = act.id_actividad " +
+                   "GROUP BY GROUPING SETS ((act.id_gerencia), (act.id_equipo), (act.trimestre), ())",
+           nativeQuery = true)
+    List<Object[]> resumirSistema(@Param("idSistema") Long idSistema);
+
+    @Modifying
+    @Query("DELETE FROM CumplimientoSnapshot s WHERE s.fecha = :fecha")
+    int deleteByFecha(@Param("fecha") LocalDate fecha);
+
+    boolean existsByFecha(LocalDate fecha);
+
+    List<CumplimientoSnapshot> findByDimensionAndIdDimensionAndFechaBetweenOrderByFecha(
+            String dimension, Long idDimension, LocalDate desde, LocalDate hasta);
+
+    List<CumplimientoSnapshot> findByDimensionAndFechaBetweenOrderByIdDimensionAscFechaAsc(
+            String dimension, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Último snapshot de cada mes en el rango (un punto por mes para gráficos largos)
+     */
+    @Query(value = "SELECT DISTINCT ON (s.id_dimension, date_trunc('month', s.fecha)) s.* " +
+                   "FROM tb_cumplimiento_snapshots s " +
+                   "WHERE s.dimension = :dimension " +
+                   "AND (CAST(:idDimension AS BIGINT) IS NULL OR s.id_dimension = :idDimension) " +
+                   "AND s.fecha BETWEEN :desde AND :hasta " +
+                   "ORDER BY s.id_dimension, date_trunc('month', s.fecha), s.fecha DESC",
+           nativeQuery = true)
+    List<CumplimientoSnapshot> findMensual(@Param("dimension") String dimension,
+                                           @Param("idDimension") Long idDimension,
+                                           @Param("desde") LocalDate desde,
+                                           @Param("hasta") LocalDate hasta);
+}
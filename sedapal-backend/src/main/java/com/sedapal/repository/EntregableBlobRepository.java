@@ -0,0 +1,57 @@
+package com.sedapal.repository;
+
+import com.sedapal.model.EntregableBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EntregableBlobRepository extends JpaRepository<EntregableBlob, String> {
+
+    /**
+     * Crear el blob con una referencia o sumar una referencia si ya existe
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_entregable_blobs (hash, ruta, tamano, referencias, fecha_creacion) " +
+                   "VALUES (:hash, :ruta, :tamano, 1, now()) " +
+                   "ON CONFLICT (hash) DO UPDATE SET referencias = tb_entregable_blobs.referencias + 1, " +
+                   "fecha_sin_referencias = NULL",
+           nativeQuery = true)
+    int registrarReferencia(@Param("hash") String hash, @Param("ruta") String ruta, @Param("tamano") long tamano);
+
+    /**
+     * Restar una referencia; al llegar a 0 se marca la fecha para el recolector
+     */
+    @Modifying
+    @Query(value = "UPDATE tb_entregable_blobs SET referencias = referencias - 1, " +
+                   "fecha_sin_referencias = CASE WHEN referencias = 1 THEN now() ELSE fecha_sin_referencias END " +
+                   "WHERE hash = :hash AND referencias > 0",
+           nativeQuery = true)
+    int liberarReferencia(@Param("hash") String hash);
+
+    @Query("SELECT b.hash FROM EntregableBlob b WHERE b.referencias = 0 AND b.fechaSinReferencias < :limite")
+    List<String> findHuerfanos(@Param("limite") LocalDateTime limite);
+
+    /**
+     * Bloquea un blob huérfano; una subida concurrente del mismo contenido espera a que termine la eliminación
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM EntregableBlob b WHERE b.hash = :hash AND b.referencias = 0")
+    Optional<EntregableBlob> findHuerfanoParaEliminar(@Param("hash") String hash);
+
+    /**
+     * Bloquea el blob mientras el archivado cambia su ruta; una subida del mismo contenido
+     * (registrarReferencia) espera y luego ve la ruta nueva
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM EntregableBlob b WHERE b.hash = :hash")
+    Optional<EntregableBlob> findByIdParaActualizar(@Param("hash") String hash);
+}
@@ -0,0 +1,83 @@
+package com.sedapal.repository;
+
+import com.sedapal.model.Entregable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EntregableRepository extends JpaRepository<Entregable, Long> {
+
+    List<Entregable> findByIdActividadOrderByFechaSubidaDesc(Long idActividad);
+
+    /**
+     * Entregables filtrados por actividad, sistema y/o trimestre (los filtros nulos se ignoran)
+     */
+    @Query(value = "SELECT e.* FROM tb_entregables e " +
+                   "JOIN tb_actividades a ON a.id_actividad = e.id_actividad " +
+                   "WHERE (CAST(:idActividad AS BIGINT) IS NULL OR e.id_actividad = :idActividad) " +
+                   "AND (CAST(:idSistema AS BIGINT) IS NULL OR EXISTS (SELECT 1 FROM tb_as_sis_act r " +
+                   "     WHERE r.id_actividad = e.id_actividad AND r.id_sistema = :idSistema)) " +
+                   "AND (CAST(:trimestre AS INTEGER) IS NULL OR a.trimestre = :trimestre " +
+                   "     OR EXISTS (SELECT 1 FROM tb_actividad_trimestres t " +
+                   "     WHERE t.id_actividad = e.id_actividad AND t.trimestre = :trimestre)) " +
+                   "ORDER BY e.id_actividad, e.fecha_subida",
+           nativeQuery = true)
+    List<Entregable> buscarParaBundle(@Param("idActividad") Long idActividad,
+                                      @Param("idSistema") Long idSistema,
+                                      @Param("trimestre") Integer trimestre);
+
+    /**
+     * Objetos del almacenamiento principal cuyo entregable más reciente es anterior al límite,
+     * por ruta a partir de "desde": [ruta, nombre, hash] (varias filas pueden compartir un blob)
+     */
+    @Query(value = "SELECT e.ruta_archivo, MIN(e.nombre_archivo), MIN(e.hash_sha256) FROM tb_entregables e " +
+                   "WHERE e.nivel_almacenamiento = 'caliente' AND e.ruta_archivo > :desde " +
+                   "GROUP BY e.ruta_archivo " +
+                   "HAVING MAX(e.fecha_subida) < :limite " +
+                   "ORDER BY e.ruta_archivo " +
+                   "LIMIT :lote",
+           nativeQuery = true)
+    List<Object[]> findParaArchivar(@Param("limite") LocalDateTime limite,
+                                    @Param("desde") String desde,
+                                    @Param("lote") int lote);
+
+    /**
+     * Apuntar al objeto archivado todas las filas que usaban la ruta anterior
+     */
+    @Modifying
+    @Query(value = "UPDATE tb_entregables SET ruta_archivo = :destino, nivel_almacenamiento = 'archivo', " +
+                   "codec = :codec, tamaño_archivo = :tamano, tamano_almacenado = :almacenado " +
+                   "WHERE ruta_archivo = :origen AND nivel_almacenamiento = 'caliente'",
+           nativeQuery = true)
+    int archivar(@Param("origen") String origen,
+                 @Param("destino") String destino,
+                 @Param("codec") String codec,
+                 @Param("tamano") long tamano,
+                 @Param("almacenado") long almacenado);
+
+    /**
+     * Ruta y códec actuales, sin pasar por la entidad ya cargada: [ruta, codec]
+     */
+    @Query(value = "SELECT ruta_archivo, codec FROM tb_entregables WHERE id = :id", nativeQuery = true)
+    List<Object[]> findUbicacion(@Param("id") Long id);
+
+    /**
+     * Objetos distintos por nivel y códec: [nivel, codec, objetos, bytes originales, bytes almacenados]
+     */
+    @Query(value = "SELECT o.nivel_almacenamiento, o.codec, COUNT(*), " +
+                   "       COALESCE(SUM(o.tamaño_archivo), 0), " +
+                   "       COALESCE(SUM(COALESCE(o.tamano_almacenado, o.tamaño_archivo)), 0) " +
+                   "FROM (SELECT DISTINCT ON (e.ruta_archivo) e.ruta_archivo, e.nivel_almacenamiento, e.codec, " +
+                   "             e.tamaño_archivo, e.tamano_almacenado " +
+                   "      FROM tb_entregables e ORDER BY e.ruta_archivo) o " +
+                   "GROUP BY o.nivel_almacenamiento, o.codec " +
+                   "ORDER BY o.nivel_almacenamiento, o.codec",
+           nativeQuery = true)
+    List<Object[]> resumirAlmacenamiento();
+}
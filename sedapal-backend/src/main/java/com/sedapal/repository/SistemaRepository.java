@@ -1,13 +1,51 @@
 package com.sedapal.repository;
 
+import com.sedapal.config.CacheSegundoNivelConfig;
+import com.sedapal.config.LeerDelPrimario;
 import com.sedapal.model.Sistema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SistemaRepository extends JpaRepository<Sistema, Long> {
-    
+
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_SISTEMAS)})
     List<Sistema> findByEstado(Integer estado);
+
+    /**
+     * Redeclarado para leerlo del primario: llena la caché de segundo nivel
+     */
+    @Override
+    @LeerDelPrimario
+    Optional<Sistema> findById(Long id);
+
+    /**
+     * Redeclarado para cachear la consulta "id in (...)" que genera Spring Data
+     */
+    @Override
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_SISTEMAS)})
+    List<Sistema> findAllById(Iterable<Long> ids);
+
+    /**
+     * Sistemas con asignación activa del admin en una sola consulta. La caché de consultas
+     * la invalida cualquier escritura en tb_sistemas o tb_admin_sistemas
+     */
+    @LeerDelPrimario
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS_ADMIN_SISTEMAS)})
+    @Query("SELECT s FROM Sistema s WHERE s.id IN " +
+           "(SELECT a.idSistema FROM AdminSistema a WHERE a.idAdmin = :idAdmin AND a.estado = TRUE)")
+    List<Sistema> findAsignadosAlAdmin(@Param("idAdmin") Long idAdmin);
 }
@@ -0,0 +1,34 @@
+package com.sedapal.repository;
+
+import com.sedapal.model.UploadSesion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSesionRepository extends JpaRepository<UploadSesion, String> {
+
+    List<UploadSesion> findByEstadoAndFechaCreacionBefore(UploadSesion.Estado estado, LocalDateTime limite);
+
+    /**
+     * Marcar la sesión como completada si sigue activa. La fila queda bloqueada hasta
+     * el commit; una finalización concurrente espera y luego actualiza 0 filas.
+     */
+    @Modifying
+    @Query(value = "UPDATE tb_upload_sesiones SET estado = 'completada', id_entregable = :idEntregable " +
+                   "WHERE id_sesion = :id AND estado = 'activa'",
+           nativeQuery = true)
+    int completar(@Param("id") String id, @Param("idEntregable") Long idEntregable);
+
+    /**
+     * Entregable de la sesión leído de la base (no del contexto de persistencia)
+     */
+    @Query("SELECT s.idEntregable FROM UploadSesion s WHERE s.id = :id")
+    Optional<Long> findIdEntregable(@Param("id") String id);
+}
@@ -0,0 +1,149 @@
+package com.sedapal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sedapal.config.LecturaCompartida;
+import com.sedapal.dto.ActividadDTO;
+import com.sedapal.model.Actividad;
+import com.sedapal.model.CambioFecha;
+import com.sedapal.model.EventoDominio;
+import com.sedapal.repository.ActividadRepository;
+import com.sedapal.repository.CambioFechaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class ActividadService {
+
+    /**
+     * Filas entre flush del listado NDJSON (la primera se envía sola)
+     */
+    private static final int FILAS_POR_FLUSH = 200;
+
+    private final ActividadRepository actividadRepository;
+    private final CambioFechaRepository cambioFechaRepository;
+    private final RegistroEventos registroEventos;
+    private final ObjectWriter listadoWriter;
+    private final int maxCambiosFecha;
+
+    public ActividadService(ActividadRepository actividadRepository,
+                            CambioFechaRepository cambioFechaRepository,
+                            RegistroEventos registroEventos,
+                            ObjectMapper objectMapper,
+                            @Value("${app.actividades.max-cambios-fecha:2}") int maxCambiosFecha) {
+        this.actividadRepository = actividadRepository;
+        this.cambioFechaRepository = cambioFechaRepository;
+        this.registroEventos = registroEventos;
+        this.listadoWriter = objectMapper.writerFor(ActividadDTO.ListadoResponse.class);
+        this.maxCambiosFecha = maxCambiosFecha;
+    }
+
+    /**
+     * Reprogramar la fecha de una actividad. En una sola transacción se actualiza
+     * la fecha, se registra el cambio en tb_cambios_fecha y se incrementa el contador.
+     */
+    @Transactional
+    public ActividadDTO.ReprogramacionResponse reprogramar(Long idActividad, Long modificadoPor, LocalDate fechaNueva) {
+        Actividad actividad = actividadRepository.findByIdParaActualizar(idActividad)
+                .orElseThrow(() -> new RuntimeException("Actividad no encontrada"));
+
+        int cantidad = actividad.getCantidadCambiosFecha() == null ? 0 : actividad.getCantidadCambiosFecha();
+        if (cantidad >= maxCambiosFecha) {
+            throw new RuntimeException("Esta actividad ya alcanzó el máximo de " + maxCambiosFecha + " cambios de fecha permitidos");
+        }
+
+        CambioFecha cambio = new CambioFecha();
+        cambio.setIdActividad(idActividad);
+        cambio.setFechaAnterior(actividad.getFechaSustento());
+        cambio.setFechaNueva(fechaNueva);
+        cambio.setModificadoPor(modificadoPor);
+        CambioFecha savedCambio = cambioFechaRepository.save(cambio);
+
+        actividad.setFechaSustento(fechaNueva);
+        actividad.setEstadoActividad("reprogramado");
+        actividad.setCantidadCambiosFecha(cantidad + 1);
+        actividadRepository.save(actividad);
+        registroEventos.publicar(new EventoDominio.ActividadReprogramada(idActividad, cambio.getFechaAnterior(),
+                fechaNueva, modificadoPor));
+
+        log.info("📅 Actividad {} reprogramada al {} por {} (cambio {}/{})",
+                 idActividad, fechaNueva, modificadoPor, cantidad + 1, maxCambiosFecha);
+
+        return new ActividadDTO.ReprogramacionResponse(
+            ActividadDTO.CambioFechaResponse.fromEntity(savedCambio),
+            cantidad + 1,
+            maxCambiosFecha - cantidad - 1
+        );
+    }
+
+    /**
+     * Cantidad de cambios de fecha de una actividad (lectura del contador)
+     */
+    @Transactional(readOnly = true)
+    public int obtenerCantidadCambios(Long idActividad) {
+        return actividadRepository.findCantidadCambiosFecha(idActividad)
+                .orElseThrow(() -> new RuntimeException("Actividad no encontrada"));
+    }
+
+    /**
+     * Cantidad de cambios de varias actividades en una sola consulta
+     */
+    @LecturaCompartida(clave = "new java.util.TreeSet(#idsActividad)")
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> obtenerCantidadesCambios(Collection<Long> idsActividad) {
+        Map<Long, Integer> cantidades = new HashMap<>();
+        if (idsActividad.isEmpty()) return cantidades;
+        for (ActividadRepository.CantidadCambios c : actividadRepository.findCantidadesCambiosFecha(idsActividad)) {
+            cantidades.put(c.getIdActividad(), c.getCantidad() == null ? 0 : c.getCantidad());
+        }
+        return cantidades;
+    }
+
+    /**
+     * Historial de cambios de fecha de una o varias actividades, paginado
+     */
+    @Transactional(readOnly = true)
+    public Page<ActividadDTO.CambioFechaResponse> obtenerHistorialCambios(Collection<Long> idsActividad, Pageable pageable) {
+        return cambioFechaRepository.findByIdActividadInOrderByFechaModificacionDesc(idsActividad, pageable)
+                .map(ActividadDTO.CambioFechaResponse::fromEntity);
+    }
+
+    /**
+     * Escribir todas las actividades como NDJSON (un objeto por línea) a medida que
+     * llegan del cursor. Las filas son proyecciones escalares: no quedan entidades en
+     * el contexto de persistencia y la memoria no crece con el tamaño del listado.
+     * Si el cliente se desconecta, la escritura lanza IOException y se cierra el cursor.
+     */
+    @Transactional(readOnly = true)
+    public long escribirListadoNdjson(OutputStream salida) throws IOException {
+        long filas = 0;
+        try (Stream<Object[]> listado = actividadRepository.streamListado()) {
+            Iterator<Object[]> it = listado.iterator();
+            while (it.hasNext()) {
+                salida.write(listadoWriter.writeValueAsBytes(ActividadDTO.ListadoResponse.fromFila(it.next())));
+                salida.write('\n');
+                filas++;
+                // La primera fila sale de inmediato para que el cliente empiece a procesar
+                if (filas == 1 || filas % FILAS_POR_FLUSH == 0) {
+                    salida.flush();
+                }
+            }
+        }
+        salida.flush();
+        return filas;
+    }
+}
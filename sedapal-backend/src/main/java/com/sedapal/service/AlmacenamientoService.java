@@ -0,0 +1,168 @@
+package com.sedapal.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.UUID;
+
+/**
+ * Almacenamiento de archivos de entregables.
+ * Las rutas son relativas a la raíz configurada (mismo formato que el bucket
+ * "archivos-actividades": entregables/{idActividad}/{archivo}).
+ */
+@Service
+@Slf4j
+public class AlmacenamientoService {
+
+    private final Path raiz;
+
+    public AlmacenamientoService(@Value("${app.storage.path:./storage}") String raiz) {
+        this.raiz = Paths.get(raiz).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Escribir un objeto completo. Se escribe en un temporal y se mueve de forma
+     * atómica, así un lector nunca ve un archivo a medias.
+     *
+     * @return bytes escritos
+     */
+    public long escribir(String ruta, InputStream contenido) {
+        Path destino = resolver(ruta);
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(destino.getParent());
+            long bytes = Files.copy(contenido, temporal);
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return bytes;
+        } catch (IOException e) {
+            eliminarSilencioso(temporal);
+            throw new UncheckedIOException("Error al escribir el archivo " + ruta, e);
+        }
+    }
+
+    /**
+     * Reservar un archivo temporal dentro de la raíz (mismo sistema de archivos,
+     * para poder moverlo luego de forma atómica con {@link #moverAtomico})
+     */
+    public Path crearTemporal() {
+        try {
+            Path dir = raiz.resolve(".tmp");
+            Files.createDirectories(dir);
+            return dir.resolve(UUID.randomUUID().toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al crear el directorio temporal", e);
+        }
+    }
+
+    /**
+     * Publicar un temporal en su ruta definitiva
+     */
+    public void moverAtomico(Path temporal, String ruta) {
+        Path destino = resolver(ruta);
+        try {
+            Files.createDirectories(destino.getParent());
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al mover el archivo a " + ruta, e);
+        }
+    }
+
+    /**
+     * Sacar un objeto de su ruta moviéndolo a un temporal, para borrarlo o devolverlo
+     * después con {@link #moverAtomico}. Devuelve null si el objeto no existe.
+     */
+    public Path apartar(String ruta) {
+        Path origen = resolver(ruta);
+        Path temporal = crearTemporal();
+        try {
+            Files.move(origen, temporal, StandardCopyOption.ATOMIC_MOVE);
+            return temporal;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al apartar el archivo " + ruta, e);
+        }
+    }
+
+    /**
+     * Abrir un objeto para lectura secuencial
+     */
+    public InputStream abrir(String ruta) {
+        try {
+            return Files.newInputStream(resolver(ruta));
+        } catch (NoSuchFileException e) {
+            throw new RuntimeException("Archivo no encontrado: " + ruta);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo " + ruta, e);
+        }
+    }
+
+    public boolean existe(String ruta) {
+        return Files.isRegularFile(resolver(ruta));
+    }
+
+    public long tamano(String ruta) {
+        try {
+            return Files.size(resolver(ruta));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el tamaño de " + ruta, e);
+        }
+    }
+
+    public void eliminar(String ruta) {
+        try {
+            Files.deleteIfExists(resolver(ruta));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al eliminar el archivo " + ruta, e);
+        }
+    }
+
+    /**
+     * Eliminar el objeto recién cuando confirme la transacción en curso: si se revierte,
+     * la fila sigue apuntando a un archivo que existe. Sin transacción se elimina ya.
+     */
+    public void eliminarAlConfirmar(String ruta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eliminar(ruta);
+            return;
+        }
+        Path path = resolver(ruta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // La fila ya no existe: el archivo queda huérfano en disco, sin afectar a nadie
+                    log.warn("⚠️ No se pudo eliminar el archivo {}: {}", ruta, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolver una ruta relativa impidiendo salir de la raíz (../)
+     */
+    public Path resolver(String ruta) {
+        Path destino = raiz.resolve(ruta).normalize();
+        if (!destino.startsWith(raiz)) {
+            throw new IllegalArgumentException("Ruta inválida: " + ruta);
+        }
+        return destino;
+    }
+
+    public void eliminarSilencioso(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo eliminar el temporal {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Entregable;
+import com.sedapal.model.EntregableBlob;
+import com.sedapal.repository.EntregableBlobRepository;
+import com.sedapal.repository.EntregableRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archivo frío de entregables: los objetos cuyo entregable más reciente supera la edad
+ * configurada se mueven a archivo/ comprimidos con gzip. Los formatos que ya vienen
+ * comprimidos (y los que gzip no reduce lo suficiente) se archivan tal cual.
+ *
+ * Cada objeto se procesa por separado: se comprime a un temporal sin tocar el original,
+ * y en una transacción (con el blob bloqueado) se publica y se actualizan las filas.
+ * El original se borra después del commit; las descargas que leyeron la ruta anterior
+ * vuelven a leerla (EntregableService.ubicar).
+ */
+@Service
+@Slf4j
+public class ArchivoEntregablesService {
+
+    private static final String PREFIJO = "archivo/";
+    private static final int BUFFER_GZIP = 64 * 1024;
+
+    private final EntregableRepository entregableRepository;
+    private final EntregableBlobRepository blobRepository;
+    private final AlmacenamientoService almacenamientoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final Duration edad;
+    private final int paralelismo;
+    private final int lote;
+    private final double ratioMax;
+    private final Counter archivados;
+    private final Counter bytesAhorrados;
+    private final ReentrantLock enCurso = new ReentrantLock();
+    private volatile Resultado ultimaEjecucion;
+
+    public ArchivoEntregablesService(EntregableRepository entregableRepository,
+                                     EntregableBlobRepository blobRepository,
+                                     AlmacenamientoService almacenamientoService,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Qualifier("applicationTaskExecutor") Executor executor,
+                                     @Value("${app.archivo.edad-dias:180}") long edadDias,
+                                     @Value("${app.archivo.paralelismo:2}") int paralelismo,
+                                     @Value("${app.archivo.lote:200}") int lote,
+                                     @Value("${app.archivo.ratio-max:0.9}") double ratioMax) {
+        this.entregableRepository = entregableRepository;
+        this.blobRepository = blobRepository;
+        this.almacenamientoService = almacenamientoService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.edad = Duration.ofDays(edadDias);
+        this.paralelismo = Math.max(1, paralelismo);
+        this.lote = lote;
+        this.ratioMax = ratioMax;
+        this.archivados = Counter.builder("sedapal.archivo.objetos").register(meterRegistry);
+        this.bytesAhorrados = Counter.builder("sedapal.archivo.bytes.ahorrados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public record Resultado(LocalDateTime inicio, long duracionMs, int archivados, int comprimidos, int fallidos,
+                            long bytesOriginales, long bytesAlmacenados, long bytesAhorrados) {}
+
+    public record ResumenNivel(String nivel, String codec, long objetos, long bytesOriginales, long bytesAlmacenados,
+                                long bytesAhorrados) {}
+
+    public record Estado(List<ResumenNivel> niveles, long bytesAhorrados, Resultado ultimaEjecucion) {}
+
+    private record Candidato(String ruta, String nombreArchivo, String hash) {}
+
+    private static final class Acumulado {
+        final AtomicInteger archivados = new AtomicInteger();
+        final AtomicInteger comprimidos = new AtomicInteger();
+        final AtomicInteger fallidos = new AtomicInteger();
+        final AtomicLong bytesOriginales = new AtomicLong();
+        final AtomicLong bytesAlmacenados = new AtomicLong();
+    }
+
+    @Scheduled(fixedDelayString = "${app.archivo.intervalo-ms:86400000}",
+               initialDelayString = "${app.archivo.intervalo-ms:86400000}")
+    public void archivadoProgramado() {
+        try {
+            archivar();
+        } catch (Exception e) {
+            log.error("❌ Error al archivar entregables: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archivar ahora los objetos antiguos, hasta "paralelismo" a la vez.
+     * Devuelve null si ya hay un archivado en curso.
+     */
+    public Resultado archivar() {
+        if (!enCurso.tryLock()) {
+            return null;
+        }
+        try {
+            LocalDateTime inicio = LocalDateTime.now();
+            long t0 = System.nanoTime();
+            LocalDateTime limite = inicio.minus(edad);
+            Acumulado acumulado = new Acumulado();
+
+            // Se avanza por ruta: un objeto que falla no se vuelve a intentar en la misma ejecución
+            String desde = "";
+            while (true) {
+                List<Candidato> candidatos = entregableRepository.findParaArchivar(limite, desde, lote).stream()
+                        .map(fila -> new Candidato((String) fila[0], (String) fila[1], (String) fila[2]))
+                        .toList();
+                if (candidatos.isEmpty()) {
+                    break;
+                }
+                procesar(candidatos, acumulado);
+                desde = candidatos.get(candidatos.size() - 1).ruta();
+                if (candidatos.size() < lote) {
+                    break;
+                }
+            }
+
+            long originales = acumulado.bytesOriginales.get();
+            long almacenados = acumulado.bytesAlmacenados.get();
+            Resultado resultado = new Resultado(inicio, (System.nanoTime() - t0) / 1_000_000,
+                    acumulado.archivados.get(), acumulado.comprimidos.get(), acumulado.fallidos.get(),
+                    originales, almacenados, originales - almacenados);
+            ultimaEjecucion = resultado;
+            if (resultado.archivados() > 0 || resultado.fallidos() > 0) {
+                log.info("🧊 Archivo frío: {} objetos archivados ({} con gzip, {} fallidos), {} → {} bytes, {} bytes ahorrados en {} ms",
+                         resultado.archivados(), resultado.comprimidos(), resultado.fallidos(),
+                         originales, almacenados, resultado.bytesAhorrados(), resultado.duracionMs());
+            }
+            return resultado;
+        } finally {
+            enCurso.unlock();
+        }
+    }
+
+    /**
+     * Bytes por nivel y códec (cada objeto una vez aunque lo compartan varios entregables)
+     * y el resultado de la última ejecución
+     */
+    public Estado obtenerEstado() {
+        List<ResumenNivel> niveles = entregableRepository.resumirAlmacenamiento().stream()
+                .map(fila -> {
+                    long originales = ((Number) fila[3]).longValue();
+                    long almacenados = ((Number) fila[4]).longValue();
+                    return new ResumenNivel((String) fila[0], (String) fila[1], ((Number) fila[2]).longValue(),
+                            originales, almacenados, originales - almacenados);
+                })
+                .toList();
+        long ahorrados = niveles.stream().mapToLong(ResumenNivel::bytesAhorrados).sum();
+        return new Estado(niveles, ahorrados, ultimaEjecucion);
+    }
+
+    private void procesar(List<Candidato> candidatos, Acumulado acumulado) {
+        ConcurrentLinkedQueue<Candidato> cola = new ConcurrentLinkedQueue<>(candidatos);
+        int trabajadores = Math.min(paralelismo, candidatos.size());
+        CompletableFuture<?>[] tareas = new CompletableFuture<?>[trabajadores];
+        for (int i = 0; i < trabajadores; i++) {
+            tareas[i] = CompletableFuture.runAsync(() -> {
+                Candidato candidato;
+                while ((candidato = cola.poll()) != null) {
+                    archivarUno(candidato, acumulado);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(tareas).join();
+    }
+
+    private void archivarUno(Candidato candidato, Acumulado acumulado) {
+        Path temporal = almacenamientoService.crearTemporal();
+        try {
+            long original = almacenamientoService.tamano(candidato.ruta());
+            String codec = null;
+            if (!EntregableService.esComprimido(candidato.nombreArchivo())) {
+                try (InputStream in = almacenamientoService.abrir(candidato.ruta());
+                     OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporal), BUFFER_GZIP)) {
+                    in.transferTo(out);
+                }
+                if (Files.size(temporal) <= original * ratioMax) {
+                    codec = Entregable.CODEC_GZIP;
+                }
+            }
+            if (codec == null) {
+                // Ya comprimido o gzip no compensa: al archivo tal cual
+                try (InputStream in = almacenamientoService.abrir(candidato.ruta())) {
+                    Files.copy(in, temporal, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            long almacenado = Files.size(temporal);
+            String destino = PREFIJO + candidato.ruta() + (codec != null ? ".gz" : "");
+            String codecFinal = codec;
+
+            Boolean archivado = transactionTemplate.execute(status -> {
+                EntregableBlob blob = null;
+                if (candidato.hash() != null) {
+                    blob = blobRepository.findByIdParaActualizar(candidato.hash())
+                            .filter(b -> b.getRuta().equals(candidato.ruta()))
+                            .orElse(null);
+                    if (blob == null) {
+                        return false;
+                    }
+                }
+                if (entregableRepository.archivar(candidato.ruta(), destino, codecFinal, original, almacenado) == 0) {
+                    // Entregables eliminados mientras se comprimía
+                    return false;
+                }
+                if (blob != null) {
+                    blob.setRuta(destino);
+                    blob.setNivelAlmacenamiento(Entregable.Nivel.archivo);
+                    blob.setCodec(codecFinal);
+                    blob.setTamanoAlmacenado(almacenado);
+                }
+                almacenamientoService.moverAtomico(temporal, destino);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int estado) {
+                        if (estado == STATUS_COMMITTED) {
+                            almacenamientoService.eliminarSilencioso(almacenamientoService.resolver(candidato.ruta()));
+                        } else {
+                            almacenamientoService.eliminarSilencioso(almacenamientoService.resolver(destino));
+                        }
+                    }
+                });
+                return true;
+            });
+
+            if (Boolean.TRUE.equals(archivado)) {
+                acumulado.archivados.incrementAndGet();
+                if (codecFinal != null) {
+                    acumulado.comprimidos.incrementAndGet();
+                }
+                acumulado.bytesOriginales.addAndGet(original);
+                acumulado.bytesAlmacenados.addAndGet(almacenado);
+                archivados.increment();
+                bytesAhorrados.increment(original - almacenado);
+            }
+        } catch (Exception e) {
+            acumulado.fallidos.incrementAndGet();
+            log.warn("⚠️ No se pudo archivar {}: {}", candidato.ruta(), e.getMessage());
+        } finally {
+            almacenamientoService.eliminarSilencioso(temporal);
+        }
+    }
+}
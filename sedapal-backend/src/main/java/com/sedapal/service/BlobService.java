@@ -0,0 +1,175 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Entregable;
+import com.sedapal.model.EntregableBlob;
+import com.sedapal.repository.EntregableBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Almacenamiento direccionado por contenido de los entregables.
+ * Cada contenido se guarda una sola vez bajo blobs/{hash} y se cuentan las
+ * filas de tb_entregables que lo referencian.
+ */
+@Service
+@Slf4j
+public class BlobService {
+
+    private final EntregableBlobRepository blobRepository;
+    private final AlmacenamientoService almacenamientoService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracia;
+
+    public BlobService(EntregableBlobRepository blobRepository,
+                       AlmacenamientoService almacenamientoService,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${app.blobs.gracia-horas:1}") long graciaHoras) {
+        this.blobRepository = blobRepository;
+        this.almacenamientoService = almacenamientoService;
+        this.transactionTemplate = transactionTemplate;
+        this.gracia = Duration.ofHours(graciaHoras);
+    }
+
+    /**
+     * ruta/nivel/codec son los del objeto registrado: si el contenido ya estaba en el
+     * archivo frío, el entregable nuevo apunta al objeto archivado
+     */
+    public record BlobGuardado(String hash, String ruta, long tamano, boolean duplicado,
+                               Entregable.Nivel nivel, String codec, long tamanoAlmacenado) {}
+
+    /**
+     * Contenido ya escrito en un temporal con su hash, pendiente de registrar
+     */
+    public record BlobPreparado(String hash, long tamano, Path temporal) {}
+
+    /**
+     * Copiar un contenido a un temporal calculando su SHA-256 mientras se lee.
+     * No toca la base de datos: se llama antes de abrir la transacción, y el
+     * temporal se publica con {@link #registrar} o se borra con {@link #descartar}.
+     */
+    public BlobPreparado preparar(InputStream contenido) {
+        Path temporal = almacenamientoService.crearTemporal();
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            long tamano;
+            try (DigestInputStream in = new DigestInputStream(contenido, sha256)) {
+                tamano = Files.copy(in, temporal);
+            }
+            return new BlobPreparado(HexFormat.of().formatHex(sha256.digest()), tamano, temporal);
+        } catch (IOException e) {
+            almacenamientoService.eliminarSilencioso(temporal);
+            throw new UncheckedIOException("Error al guardar el contenido", e);
+        } catch (NoSuchAlgorithmException e) {
+            almacenamientoService.eliminarSilencioso(temporal);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Sumar una referencia al blob y publicar el temporal si el contenido no existía.
+     * Debe llamarse dentro de la transacción que inserta la fila de tb_entregables.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BlobGuardado registrar(BlobPreparado preparado) {
+        String hash = preparado.hash();
+        long tamano = preparado.tamano();
+        String ruta = rutaBlob(hash);
+
+        // Bloquea la fila del blob hasta el commit: ni el recolector ni el archivado la cambian mientras tanto
+        blobRepository.registrarReferencia(hash, ruta, tamano);
+        EntregableBlob blob = blobRepository.findById(hash)
+                .orElseThrow(() -> new IllegalStateException("Blob " + hash + " no registrado"));
+
+        boolean duplicado = almacenamientoService.existe(blob.getRuta());
+        if (duplicado) {
+            descartar(preparado);
+            log.info("♻️ Contenido duplicado reutilizado: {} ({} bytes, {})", hash, tamano, blob.getNivelAlmacenamiento());
+        } else if (blob.getRuta().equals(ruta)) {
+            almacenamientoService.moverAtomico(preparado.temporal(), ruta);
+        } else {
+            descartar(preparado);
+            throw new IllegalStateException("Falta el objeto archivado " + blob.getRuta() + " del blob " + hash);
+        }
+        return new BlobGuardado(hash, blob.getRuta(), tamano, duplicado, blob.getNivelAlmacenamiento(), blob.getCodec(),
+                blob.getTamanoAlmacenado() != null ? blob.getTamanoAlmacenado() : tamano);
+    }
+
+    /**
+     * Borrar el temporal de un contenido que no se llegó a registrar (no falla si ya se publicó)
+     */
+    public void descartar(BlobPreparado preparado) {
+        almacenamientoService.eliminarSilencioso(preparado.temporal());
+    }
+
+    /**
+     * Restar una referencia al blob (al eliminar un entregable)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void liberar(String hash) {
+        if (blobRepository.liberarReferencia(hash) == 0) {
+            log.warn("⚠️ Blob {} sin referencias que liberar", hash);
+        }
+    }
+
+    /**
+     * Recolector: elimina los blobs que siguen sin referencias pasado el periodo de gracia
+     */
+    @Scheduled(fixedDelayString = "${app.blobs.limpieza-ms:3600000}", initialDelayString = "${app.blobs.limpieza-ms:3600000}")
+    public void recolectarHuerfanos() {
+        List<String> huerfanos = blobRepository.findHuerfanos(LocalDateTime.now().minus(gracia));
+        int eliminados = 0;
+        for (String hash : huerfanos) {
+            Boolean eliminado = transactionTemplate.execute(status ->
+                blobRepository.findHuerfanoParaEliminar(hash)
+                    .map(blob -> {
+                        // Se aparta con la fila bloqueada: una subida del mismo contenido que espera
+                        // el bloqueo ya no lo encuentra y publica el suyo. Se borra al confirmar y
+                        // vuelve a su ruta si la transacción se revierte
+                        Path apartado = almacenamientoService.apartar(blob.getRuta());
+                        blobRepository.delete(blob);
+                        if (apartado != null) {
+                            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                                @Override
+                                public void afterCompletion(int estado) {
+                                    if (estado == STATUS_COMMITTED) {
+                                        almacenamientoService.eliminarSilencioso(apartado);
+                                    } else {
+                                        almacenamientoService.moverAtomico(apartado, blob.getRuta());
+                                    }
+                                }
+                            });
+                        }
+                        return true;
+                    })
+                    .orElse(false));
+            if (Boolean.TRUE.equals(eliminado)) eliminados++;
+        }
+        if (eliminados > 0) {
+            log.info("🧹 Blobs huérfanos eliminados: {}", eliminados);
+        }
+    }
+
+    private String rutaBlob(String hash) {
+        return "blobs/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+}
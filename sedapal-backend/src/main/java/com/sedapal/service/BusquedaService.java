@@ -0,0 +1,345 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Actividad;
+import com.sedapal.model.Sistema;
+import com.sedapal.model.Usuario;
+import com.sedapal.repository.ActividadRepository;
+import com.sedapal.repository.SistemaRepository;
+import com.sedapal.repository.UsuarioRepository;
+import com.sedapal.util.TextoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para buscar usuarios, actividades y sistemas
+ * sin tildes ni mayúsculas. Soporta coincidencia por prefijo ("gest" -> "gestión")
+ * y por trigramas para errores de tipeo o fragmentos ("gestoin" -> "gestión").
+ *
+ * Se reconstruye completo al iniciar y periódicamente (el frontend todavía escribe
+ * directo en Supabase), y se actualiza de forma incremental en las escrituras del backend.
+ */
+@Service
+@Slf4j
+public class BusquedaService {
+
+    private static final int LIMITE_MAXIMO = 50;
+    /** Fracción mínima de trigramas compartidos para aceptar una coincidencia aproximada */
+    private static final double UMBRAL_TRIGRAMAS = 0.4;
+
+    public enum Tipo {
+        usuario, actividad, sistema
+    }
+
+    public record Resultado(Tipo tipo, Long id, String titulo, String detalle, double puntaje) {}
+
+    private record Documento(Tipo tipo, Long id, String titulo, String detalle, Set<String> tokens) {}
+
+    private final UsuarioRepository usuarioRepository;
+    private final ActividadRepository actividadRepository;
+    private final SistemaRepository sistemaRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Documento> documentos = new HashMap<>();
+    /** token -> documentos; ordenado para resolver prefijos con un subMap */
+    private final NavigableMap<String, Set<String>> porToken = new TreeMap<>();
+    /** trigrama -> tokens que lo contienen */
+    private final Map<String, Set<String>> porTrigrama = new HashMap<>();
+    /**
+     * Cambios incrementales llegados mientras se reconstruye (clave -> documento, null si se quitó),
+     * para aplicarlos sobre el índice nuevo. Null cuando no hay reconstrucción en curso.
+     */
+    private Map<String, Documento> cambiosDuranteReconstruccion;
+
+    public BusquedaService(UsuarioRepository usuarioRepository,
+                           ActividadRepository actividadRepository,
+                           SistemaRepository sistemaRepository) {
+        this.usuarioRepository = usuarioRepository;
+        this.actividadRepository = actividadRepository;
+        this.sistemaRepository = sistemaRepository;
+    }
+
+    /**
+     * Buscar en el índice. Todos los términos deben coincidir (AND).
+     */
+    public List<Resultado> buscar(String consulta, Tipo tipo, int limite) {
+        List<String> terminos = TextoUtils.tokens(TextoUtils.plegar(consulta));
+        if (terminos.isEmpty()) return List.of();
+        int max = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+
+        lock.readLock().lock();
+        try {
+            Map<String, Double> puntajes = null;
+            for (String termino : terminos) {
+                Map<String, Double> coincidencias = coincidenciasTermino(termino);
+                if (puntajes == null) {
+                    puntajes = coincidencias;
+                } else {
+                    puntajes.keySet().retainAll(coincidencias.keySet());
+                    puntajes.replaceAll((clave, puntaje) -> puntaje + coincidencias.get(clave));
+                }
+                if (puntajes.isEmpty()) return List.of();
+            }
+
+            // Top-k con un heap: evita ordenar todos los candidatos en consultas amplias
+            Comparator<Resultado> orden = Comparator.comparingDouble(Resultado::puntaje)
+                    .thenComparing(Resultado::titulo, Comparator.reverseOrder());
+            PriorityQueue<Resultado> mejores = new PriorityQueue<>(max + 1, orden);
+            for (Map.Entry<String, Double> e : puntajes.entrySet()) {
+                Documento doc = documentos.get(e.getKey());
+                if (tipo != null && doc.tipo() != tipo) continue;
+                if (mejores.size() == max && e.getValue() <= mejores.peek().puntaje()) continue;
+                mejores.add(new Resultado(doc.tipo(), doc.id(), doc.titulo(), doc.detalle(), e.getValue()));
+                if (mejores.size() > max) mejores.poll();
+            }
+            List<Resultado> resultado = new ArrayList<>(mejores);
+            resultado.sort(orden.reversed());
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos que coinciden con un término: exacto (3), prefijo (2) o trigramas (0..1)
+     */
+    private Map<String, Double> coincidenciasTermino(String termino) {
+        Map<String, Double> resultado = new HashMap<>();
+        for (Map.Entry<String, Set<String>> e : porToken.subMap(termino, true, termino + Character.MAX_VALUE, false).entrySet()) {
+            double puntaje = e.getKey().equals(termino) ? 3.0 : 2.0;
+            for (String doc : e.getValue()) {
+                resultado.merge(doc, puntaje, Math::max);
+            }
+        }
+        if (!resultado.isEmpty() || termino.length() < 3) {
+            return resultado;
+        }
+
+        // Sin prefijos: buscar tokens que compartan suficientes trigramas
+        Set<String> trigramasTermino = trigramas(termino);
+        Map<String, Integer> compartidos = new HashMap<>();
+        for (String trigrama : trigramasTermino) {
+            for (String token : porTrigrama.getOrDefault(trigrama, Set.of())) {
+                compartidos.merge(token, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<String, Integer> e : compartidos.entrySet()) {
+            int mayor = Math.max(trigramasTermino.size(), trigramas(e.getKey()).size());
+            double similitud = (double) e.getValue() / mayor;
+            if (similitud >= UMBRAL_TRIGRAMAS) {
+                for (String doc : porToken.getOrDefault(e.getKey(), Set.of())) {
+                    resultado.merge(doc, similitud, Math::max);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    // ================= Actualización incremental =================
+
+    public void indexarUsuario(Usuario usuario) {
+        alConfirmar(() -> {
+            if (Boolean.FALSE.equals(usuario.getEstado())) {
+                quitar(Tipo.usuario, usuario.getId());
+            } else {
+                agregar(documentoUsuario(usuario));
+            }
+        });
+    }
+
+    public void indexarActividad(Actividad actividad) {
+        alConfirmar(() -> {
+            if (Boolean.FALSE.equals(actividad.getEstado()) || actividad.getNombreActividad() == null) {
+                quitar(Tipo.actividad, actividad.getId());
+            } else {
+                agregar(documentoActividad(actividad));
+            }
+        });
+    }
+
+    /**
+     * Reconstruir el índice completo desde la base de datos. Las actualizaciones
+     * incrementales que llegan mientras se lee se vuelven a aplicar después del reemplazo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.busqueda.refresco-ms:300000}", initialDelayString = "${app.busqueda.refresco-ms:300000}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            cambiosDuranteReconstruccion = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Documento> nuevos = new ArrayList<>();
+        try {
+            usuarioRepository.findAll().stream()
+                    .filter(u -> !Boolean.FALSE.equals(u.getEstado()))
+                    .map(this::documentoUsuario)
+                    .forEach(nuevos::add);
+            actividadRepository.findAll().stream()
+                    .filter(a -> !Boolean.FALSE.equals(a.getEstado()) && a.getNombreActividad() != null)
+                    .map(this::documentoActividad)
+                    .forEach(nuevos::add);
+            sistemaRepository.findByEstado(1).stream()
+                    .map(this::documentoSistema)
+                    .forEach(nuevos::add);
+        } catch (Exception e) {
+            log.error("❌ No se pudo reconstruir el índice de búsqueda: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                cambiosDuranteReconstruccion = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            documentos.clear();
+            porToken.clear();
+            porTrigrama.clear();
+            nuevos.forEach(this::agregarSinBloqueo);
+            cambiosDuranteReconstruccion.forEach((clave, documento) -> {
+                if (documento == null) {
+                    quitarSinBloqueo(clave);
+                } else {
+                    agregarSinBloqueo(documento);
+                }
+            });
+            cambiosDuranteReconstruccion = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("🔎 Índice de búsqueda reconstruido: {} documentos en {} ms",
+                nuevos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private void agregar(Documento documento) {
+        lock.writeLock().lock();
+        try {
+            agregarSinBloqueo(documento);
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(clave(documento.tipo(), documento.id()), documento);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void quitar(Tipo tipo, Long id) {
+        lock.writeLock().lock();
+        try {
+            quitarSinBloqueo(clave(tipo, id));
+            if (cambiosDuranteReconstruccion != null) {
+                cambiosDuranteReconstruccion.put(clave(tipo, id), null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void agregarSinBloqueo(Documento documento) {
+        String clave = clave(documento.tipo(), documento.id());
+        quitarSinBloqueo(clave);
+        documentos.put(clave, documento);
+        for (String token : documento.tokens()) {
+            Set<String> docs = porToken.computeIfAbsent(token, t -> new HashSet<>());
+            if (docs.isEmpty()) {
+                for (String trigrama : trigramas(token)) {
+                    porTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(token);
+                }
+            }
+            docs.add(clave);
+        }
+    }
+
+    private void quitarSinBloqueo(String clave) {
+        Documento anterior = documentos.remove(clave);
+        if (anterior == null) return;
+        for (String token : anterior.tokens()) {
+            Set<String> docs = porToken.get(token);
+            if (docs == null) continue;
+            docs.remove(clave);
+            if (docs.isEmpty()) {
+                porToken.remove(token);
+                for (String trigrama : trigramas(token)) {
+                    Set<String> tokens = porTrigrama.get(trigrama);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) porTrigrama.remove(trigrama);
+                    }
+                }
+            }
+        }
+    }
+
+    // ================= Documentos =================
+
+    private Documento documentoUsuario(Usuario u) {
+        String titulo = (u.getNombre() + " " + u.getApellido()).trim();
+        return new Documento(Tipo.usuario, u.getId(), titulo, u.getEmail(),
+                tokensDe(u.getNombre(), u.getApellido(), u.getEmail()));
+    }
+
+    private Documento documentoActividad(Actividad a) {
+        String detalle = a.getTrimestre() != null ? "Trimestre " + a.getTrimestre() : null;
+        return new Documento(Tipo.actividad, a.getId(), a.getNombreActividad(), detalle,
+                tokensDe(a.getNombreActividad()));
+    }
+
+    private Documento documentoSistema(Sistema s) {
+        return new Documento(Tipo.sistema, s.getId(), s.getDescSistema(), s.getAbrev(),
+                tokensDe(s.getDescSistema(), s.getAbrev()));
+    }
+
+    private Set<String> tokensDe(String... campos) {
+        Set<String> tokens = new HashSet<>();
+        for (String campo : campos) {
+            if (campo == null) continue;
+            String plegado = TextoUtils.plegar(campo);
+            tokens.addAll(TextoUtils.tokens(plegado));
+            // El email completo también se indexa como un solo token
+            if (campo.contains("@")) tokens.add(plegado.trim());
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigramas(String token) {
+        String t = " " + token + " ";
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= t.length(); i++) {
+            trigramas.add(t.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    private static String clave(Tipo tipo, Long id) {
+        return tipo + ":" + id;
+    }
+
+    /**
+     * Aplicar el cambio cuando la transacción se confirma (o ya, si no hay transacción)
+     */
+    private void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
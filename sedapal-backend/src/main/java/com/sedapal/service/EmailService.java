@@ -1,22 +1,52 @@
 package com.sedapal.service;
 
 import com.sedapal.model.Usuario;
+import com.sedapal.util.Circuito;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Correos del sistema. Los métodos enviar* devuelven true si el correo salió y false si
+ * el servidor SMTP no está disponible y el correo quedó en cola para reintento.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
+    /** Correo a reenviar cuando el servidor SMTP vuelva (sólo en memoria) */
+    private record Pendiente(String plantilla, Runnable envio, int intentos) {}
+
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final Circuito circuitoSmtp;
+    private final Queue<Pendiente> pendientes = new LinkedBlockingQueue<>();
+
+    @Value("${app.mail.pendientes-max:500}")
+    private int maxPendientes;
+
+    @Value("${app.mail.reintento-max-intentos:10}")
+    private int maxIntentos;
 
     @Value("${spring.mail.username:noreply@sedapal.com}")
     private String fromEmail;
@@ -24,10 +54,17 @@ public class EmailService {
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
+    @PostConstruct
+    void registrarMetricas() {
+        Gauge.builder("sedapal.email.pendientes", pendientes, Queue::size)
+                .description("Correos en cola para reintento")
+                .register(meterRegistry);
+    }
+
     /**
      * Enviar credenciales de acceso por email
      */
-    public void enviarCredenciales(String email, String nombre, String apellido, 
+    public boolean enviarCredenciales(String email, String nombre, String apellido, 
                                    String contrasena, Usuario.Rol rol) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
@@ -38,14 +75,143 @@ public class EmailService {
             helper.setSubject(obtenerAsunto(rol));
             helper.setText(construirMensajeHtml(nombre, apellido, email, contrasena, rol), true);
 
-            mailSender.send(message);
+            if (!enviar("credenciales", message)) {
+                return false;
+            }
             log.info("✅ Email enviado exitosamente a: {}", email);
+
+            return true;
         } catch (MessagingException e) {
             log.error("❌ Error al enviar email a {}: {}", email, e.getMessage());
             throw new RuntimeException("Error al enviar email: " + e.getMessage());
         }
     }
 
+    /**
+     * Enviar por el circuito "smtp" midiendo la latencia por plantilla (sedapal.email.envio)
+     * y contando los fallos por tipo de error (sedapal.email.fallos).
+     * Devuelve false si el correo quedó en cola para reintento: circuito abierto, bulkhead
+     * lleno o el servidor no respondió. Los rechazos del propio correo (destinatario
+     * inválido) se lanzan como antes.
+     */
+    private boolean enviar(String plantilla, MimeMessage message) {
+        return enviarOEncolar(new Pendiente(plantilla, () -> mailSender.send(message), 0));
+    }
+
+    private boolean enviar(String plantilla, SimpleMailMessage message) {
+        return enviarOEncolar(new Pendiente(plantilla, () -> mailSender.send(message), 0));
+    }
+
+    private boolean enviarOEncolar(Pendiente pendiente) {
+        Circuito.Permiso permiso;
+        try {
+            permiso = circuitoSmtp.entrar();
+        } catch (Circuito.RechazoException e) {
+            encolar(pendiente, e.getMessage());
+            return false;
+        }
+        try {
+            medir(pendiente.plantilla(), pendiente.envio());
+            permiso.exito();
+            return true;
+        } catch (MailException e) {
+            if (!esFalloDelServidor(e)) {
+                permiso.exito();
+                throw e;
+            }
+            permiso.fallo();
+            encolar(pendiente, e.getMessage());
+            return false;
+        } catch (RuntimeException e) {
+            permiso.exito();
+            throw e;
+        }
+    }
+
+    private void encolar(Pendiente pendiente, String motivo) {
+        if (pendientes.size() >= maxPendientes) {
+            log.error("❌ Cola de reintentos de correo llena ({}), se descarta {}: {}", maxPendientes, pendiente.plantilla(), motivo);
+            throw new MailSendException("Servidor de correo no disponible y la cola de reintentos está llena");
+        }
+        pendientes.add(pendiente);
+        log.warn("📤 Correo {} en cola para reintento ({} pendientes): {}", pendiente.plantilla(), pendientes.size(), motivo);
+    }
+
+    /**
+     * Reintenta la cola mientras el circuito deje pasar; se detiene en el primer rechazo
+     * o fallo del servidor. Un correo que falla maxIntentos veces se descarta.
+     */
+    @Scheduled(initialDelayString = "${app.mail.reintento-ms:30000}", fixedDelayString = "${app.mail.reintento-ms:30000}")
+    public void reintentarPendientes() {
+        Pendiente pendiente;
+        while ((pendiente = pendientes.peek()) != null) {
+            Circuito.Permiso permiso;
+            try {
+                permiso = circuitoSmtp.entrar();
+            } catch (Circuito.RechazoException e) {
+                return;
+            }
+            pendientes.poll();
+            try {
+                medir(pendiente.plantilla(), pendiente.envio());
+                permiso.exito();
+                log.info("✅ Correo {} reenviado ({} pendientes)", pendiente.plantilla(), pendientes.size());
+            } catch (MailException e) {
+                if (!esFalloDelServidor(e)) {
+                    permiso.exito();
+                    log.error("❌ Correo {} descartado: {}", pendiente.plantilla(), e.getMessage());
+                    continue;
+                }
+                permiso.fallo();
+                if (pendiente.intentos() + 1 >= maxIntentos) {
+                    log.error("❌ Correo {} descartado tras {} intentos: {}", pendiente.plantilla(), maxIntentos, e.getMessage());
+                } else {
+                    pendientes.add(new Pendiente(pendiente.plantilla(), pendiente.envio(), pendiente.intentos() + 1));
+                }
+                return;
+            } catch (RuntimeException e) {
+                permiso.exito();
+                log.error("❌ Correo {} descartado: {}", pendiente.plantilla(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fallas de conexión, timeout o autenticación cuentan contra el circuito; un
+     * destinatario rechazado (SendFailedException) es un problema del correo, no del servidor.
+     */
+    private static boolean esFalloDelServidor(MailException e) {
+        if (e instanceof MailAuthenticationException) {
+            return true;
+        }
+        return e instanceof MailSendException envio
+                && envio.getFailedMessages().values().stream().noneMatch(c -> c instanceof SendFailedException);
+    }
+
+    private void medir(String plantilla, Runnable envio) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String resultado = "error";
+        try {
+            envio.run();
+            resultado = "ok";
+        } catch (MailException e) {
+            Counter.builder("sedapal.email.fallos")
+                    .description("Correos que no se pudieron enviar")
+                    .tag("plantilla", plantilla)
+                    .tag("error", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            muestra.stop(Timer.builder("sedapal.email.envio")
+                    .description("Latencia del envío SMTP por plantilla")
+                    .tag("plantilla", plantilla)
+                    .tag("resultado", resultado)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
     /**
      * Obtener asunto según el rol
      */
@@ -60,7 +226,7 @@ public class EmailService {
     /**
      * Construir mensaje HTML del email
      */
-    private String construirMensajeHtml(String nombre, String apellido, String email, 
+    String construirMensajeHtml(String nombre, String apellido, String email, 
                                        String contrasena, Usuario.Rol rol) {
         String nombreCompleto = nombre + " " + apellido;
         String rolTexto = obtenerTextoRol(rol);
@@ -148,7 +314,7 @@ public class EmailService {
     /**
      * Enviar notificación de nueva actividad asignada
      */
-    public void enviarNotificacionActividad(String email, String nombreUsuario, 
+    public boolean enviarNotificacionActividad(String email, String nombreUsuario, 
                                            String nombreActividad, String sistemaAbrev,
                                            String equipoNombre, int trimestre, 
                                            String fechaMaxima) {
@@ -165,8 +331,12 @@ public class EmailService {
             helper.setText(construirMensajeActividadHtml(nombreUsuario, nombreActividad, 
                           sistemaAbrev, equipoNombre, trimestre, fechaMaxima), true);
 
-            mailSender.send(message);
+            if (!enviar("actividad", message)) {
+                return false;
+            }
             log.info("✅ Email de actividad enviado a: {}", email);
+
+            return true;
         } catch (MessagingException e) {
             log.error("❌ Error al enviar email de actividad a {}: {}", email, e.getMessage());
             throw new RuntimeException("Error al enviar email: " + e.getMessage());
@@ -176,7 +346,7 @@ public class EmailService {
     /**
      * Construir mensaje HTML para notificación de actividad
      */
-    private String construirMensajeActividadHtml(String nombreUsuario, String nombreActividad,
+    String construirMensajeActividadHtml(String nombreUsuario, String nombreActividad,
                                                 String sistemaAbrev, String equipoNombre,
                                                 int trimestre, String fechaMaxima) {
         String loginUrl = frontendUrl + "/login";
@@ -277,7 +447,7 @@ public class EmailService {
     /**
      * Enviar credenciales con actividad asignada (usuario nuevo + actividad)
      */
-    public void enviarCredencialesConActividad(String email, String nombre, String apellido, 
+    public boolean enviarCredencialesConActividad(String email, String nombre, String apellido, 
                                                String contrasena, String nombreActividad, 
                                                String sistemaAbrev, String equipoNombre, 
                                                int trimestre, String fechaMaxima) {
@@ -292,8 +462,12 @@ public class EmailService {
                           contrasena, nombreActividad, sistemaAbrev, equipoNombre, trimestre, 
                           fechaMaxima), true);
 
-            mailSender.send(message);
+            if (!enviar("credenciales_actividad", message)) {
+                return false;
+            }
             log.info("✅ Email de credenciales + actividad enviado a: {}", email);
+
+            return true;
         } catch (MessagingException e) {
             log.error("❌ Error al enviar email a {}: {}", email, e.getMessage());
             throw new RuntimeException("Error al enviar email: " + e.getMessage());
@@ -303,7 +477,7 @@ public class EmailService {
     /**
      * Construir mensaje HTML para credenciales + actividad
      */
-    private String construirMensajeCredencialesConActividadHtml(String nombre, String apellido, 
+    String construirMensajeCredencialesConActividadHtml(String nombre, String apellido, 
                                                                 String email, String contrasena,
                                                                 String nombreActividad, 
                                                                 String sistemaAbrev, 
@@ -422,7 +596,7 @@ public class EmailService {
     /**
      * Enviar email simple (para testing)
      */
-    public void enviarEmailSimple(String to, String subject, String text) {
+    public boolean enviarEmailSimple(String to, String subject, String text) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
@@ -430,8 +604,12 @@ public class EmailService {
             message.setSubject(subject);
             message.setText(text);
             
-            mailSender.send(message);
+            if (!enviar("simple", message)) {
+                return false;
+            }
             log.info("✅ Email simple enviado a: {}", to);
+            
+            return true;
         } catch (Exception e) {
             log.error("❌ Error al enviar email simple: {}", e.getMessage());
             throw new RuntimeException("Error al enviar email: " + e.getMessage());
@@ -439,7 +617,7 @@ public class EmailService {
     }
 
     // ================= Nuevos correos de notificación =================
-    public void enviarNotificacionUsuarioCumplio(String adminEmail, String usuarioNombre, String usuarioEmail,
+    public boolean enviarNotificacionUsuarioCumplio(String adminEmail, String usuarioNombre, String usuarioEmail,
                                                 String nombreActividad, String entregableNombre, String sistemaAbrev,
                                                 String equipoNombre, String fechaMaxima) {
         try {
@@ -451,14 +629,17 @@ public class EmailService {
             String html = construirHtmlNotificacionUsuarioCumplio(usuarioNombre, usuarioEmail, nombreActividad,
                     entregableNombre, sistemaAbrev, equipoNombre, fechaMaxima);
             helper.setText(html, true);
-            mailSender.send(message);
+            if (!enviar("usuario_cumplio", message)) {
+                return false;
+            }
             log.info("✅ Notificación enviada al admin {} por cumplimiento de {}", adminEmail, usuarioEmail);
+            return true;
         } catch (MessagingException e) {
             throw new RuntimeException("Error al enviar notificación: " + e.getMessage());
         }
     }
 
-    public void enviarNotificacionConforme(java.util.List<String> usuariosDestino,
+    public boolean enviarNotificacionConforme(java.util.List<String> usuariosDestino,
                                            java.util.List<String> superadminsDestino,
                                            String nombreActividad, String entregableNombre,
                                            String sistemaAbrev, String equipoNombre, String fechaMaxima) {
@@ -473,15 +654,51 @@ public class EmailService {
             helper.setSubject("✅ Actividad validada: " + nombreActividad);
             String html = construirHtmlNotificacionConforme(nombreActividad, entregableNombre, sistemaAbrev, equipoNombre, fechaMaxima);
             helper.setText(html, true);
-            mailSender.send(message);
+            if (!enviar("conforme", message)) {
+                return false;
+            }
             log.info("✅ Notificación de conforme enviada a {} destinatarios", destinatarios.size());
+            return true;
+        } catch (MessagingException e) {
+            throw new RuntimeException("Error al enviar notificación: " + e.getMessage());
+        }
+    }
+
+    /** Una actividad validada dentro del resumen de conformes */
+    public record ActividadConforme(String nombreActividad, String entregableNombre, String sistemaAbrev,
+                                    String equipoNombre, String fechaMaxima) {}
+
+    /**
+     * Un solo correo con todas las actividades validadas para el destinatario (revisión en
+     * lote). Con una sola actividad se usa el mismo correo que enviarNotificacionConforme.
+     */
+    public boolean enviarResumenConforme(String email, java.util.List<ActividadConforme> actividades) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(email);
+            if (actividades.size() == 1) {
+                ActividadConforme a = actividades.get(0);
+                helper.setSubject("✅ Actividad validada: " + a.nombreActividad());
+                helper.setText(construirHtmlNotificacionConforme(a.nombreActividad(), a.entregableNombre(),
+                        a.sistemaAbrev(), a.equipoNombre(), a.fechaMaxima()), true);
+            } else {
+                helper.setSubject("✅ " + actividades.size() + " actividades validadas");
+                helper.setText(construirHtmlResumenConforme(actividades), true);
+            }
+            if (!enviar("conforme_resumen", message)) {
+                return false;
+            }
+            log.info("✅ Resumen de conforme ({} actividades) enviado a {}", actividades.size(), email);
+            return true;
         } catch (MessagingException e) {
             throw new RuntimeException("Error al enviar notificación: " + e.getMessage());
         }
     }
 
     // ================= Usuario creado con equipo/gerencia =================
-    public void enviarUsuarioCreado(String email, String nombreUsuario, String contrasena,
+    public boolean enviarUsuarioCreado(String email, String nombreUsuario, String contrasena,
                                     String gerenciaNombre, String equipoNombre) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
@@ -491,8 +708,11 @@ public class EmailService {
             helper.setSubject("👤 Usuario creado - Accesos y pertenencia");
             String html = construirHtmlUsuarioCreado(nombreUsuario, email, contrasena, gerenciaNombre, equipoNombre);
             helper.setText(html, true);
-            mailSender.send(message);
+            if (!enviar("usuario_creado", message)) {
+                return false;
+            }
             log.info("✅ Notificación de usuario creado enviada a {}", email);
+            return true;
         } catch (MessagingException e) {
             throw new RuntimeException("Error al enviar notificación: " + e.getMessage());
         }
@@ -509,7 +729,7 @@ public class EmailService {
         """.formatted(logoUrl);
     }
 
-    private String construirHtmlUsuarioCreado(String nombreUsuario, String email, String contrasena,
+    String construirHtmlUsuarioCreado(String nombreUsuario, String email, String contrasena,
                                               String gerenciaNombre, String equipoNombre) {
         return """
         <!DOCTYPE html>
@@ -553,7 +773,7 @@ public class EmailService {
         """.formatted(nombreUsuario, email, contrasena, gerenciaNombre, equipoNombre, construirFooterLogo());
     }
 
-    public void enviarAsignacionSistema(String email, String nombreAdmin, String sistemaAbrev, String sistemaNombre) {
+    public boolean enviarAsignacionSistema(String email, String nombreAdmin, String sistemaAbrev, String sistemaNombre) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -562,14 +782,17 @@ public class EmailService {
             helper.setSubject("🛠️ Sistema asignado: " + (sistemaAbrev != null ? sistemaAbrev : ""));
             String html = construirHtmlAsignacionSistema(nombreAdmin, sistemaAbrev, sistemaNombre);
             helper.setText(html, true);
-            mailSender.send(message);
+            if (!enviar("asignacion_sistema", message)) {
+                return false;
+            }
             log.info("✅ Notificación de asignación de sistema enviada a {}", email);
+            return true;
         } catch (MessagingException e) {
             throw new RuntimeException("Error al enviar notificación: " + e.getMessage());
         }
     }
 
-    private String construirHtmlAsignacionSistema(String nombreAdmin, String sistemaAbrev, String sistemaNombre) {
+    String construirHtmlAsignacionSistema(String nombreAdmin, String sistemaAbrev, String sistemaNombre) {
         return """
         <div style=\"font-family:Arial,sans-serif;color:#111827\"> 
           <div style=\"background:linear-gradient(135deg,#0284c7 0%%,#0369a1 100%%);color:#fff;padding:24px;border-radius:10px 10px 0 0;text-align:center\">
@@ -589,7 +812,7 @@ public class EmailService {
         """.formatted(nombreAdmin, sistemaAbrev != null ? sistemaAbrev : "N/A", sistemaNombre != null ? sistemaNombre : "Sistema", construirFooterLogo());
     }
 
-    private String construirHtmlNotificacionUsuarioCumplio(String usuarioNombre, String usuarioEmail,
+    String construirHtmlNotificacionUsuarioCumplio(String usuarioNombre, String usuarioEmail,
                                                            String nombreActividad, String entregableNombre,
                                                            String sistemaAbrev, String equipoNombre, String fechaMaxima) {
         String loginUrl = frontendUrl + "/login";
@@ -620,7 +843,7 @@ public class EmailService {
                 fecha, construirFooterLogo());
     }
 
-    private String construirHtmlNotificacionConforme(String nombreActividad, String entregableNombre,
+    String construirHtmlNotificacionConforme(String nombreActividad, String entregableNombre,
                                                      String sistemaAbrev, String equipoNombre, String fechaMaxima) {
         String loginUrl = frontendUrl + "/login";
         String fecha = fechaMaxima != null ? fechaMaxima : "No especificada";
@@ -648,4 +871,41 @@ public class EmailService {
                 equipoNombre != null ? equipoNombre : "N/A",
                 fecha, construirFooterLogo());
     }
+
+    String construirHtmlResumenConforme(java.util.List<ActividadConforme> actividades) {
+        StringBuilder filas = new StringBuilder();
+        for (ActividadConforme a : actividades) {
+            filas.append("""
+              <tr>
+                <td style=\"padding:8px;border-bottom:1px solid #e5e7eb;font-weight:600\">%s</td>
+                <td style=\"padding:8px;border-bottom:1px solid #e5e7eb\">%s</td>
+                <td style=\"padding:8px;border-bottom:1px solid #e5e7eb\">%s</td>
+                <td style=\"padding:8px;border-bottom:1px solid #e5e7eb\">%s</td>
+                <td style=\"padding:8px;border-bottom:1px solid #e5e7eb\">%s</td>
+              </tr>
+            """.formatted(a.nombreActividad(),
+                    a.entregableNombre() != null ? a.entregableNombre() : "No especificado",
+                    a.sistemaAbrev() != null ? a.sistemaAbrev() : "N/A",
+                    a.equipoNombre() != null ? a.equipoNombre() : "N/A",
+                    a.fechaMaxima() != null ? a.fechaMaxima() : "No especificada"));
+        }
+        return """
+        <div style=\"font-family:Arial,sans-serif;color:#111827\"> 
+<div style=\"background:linear-gradient(135deg,#10b981 0%%,#059669 100%%);color:#fff;padding:24px;border-radius:10px 10px 0 0;text-align:center\">
+            <h2 style=\"margin:0;font-size:22px\">✅ %d actividades validadas</h2>
+            <div style=\"opacity:.9;font-size:12px\">Sistema de Gestión SEDAPAL</div>
+          </div>
+          <div style=\"background:#ffffff;padding:24px;border:1px solid #e5e7eb;border-top:none;border-radius:0 0 10px 10px\">
+            <p>Las siguientes actividades fueron revisadas y <strong>validadas (Conforme)</strong>. Su estado pasó a <strong>Completado</strong>.</p>
+            <table style=\"width:100%%;border-collapse:collapse;background:#ecfdf5;border-left:4px solid #10b981;border-radius:8px;margin:16px 0;font-size:14px\">
+              <tr style=\"color:#6b7280;text-align:left\">
+                <th style=\"padding:8px\">📌 Actividad</th><th style=\"padding:8px\">📑 Entregable</th><th style=\"padding:8px\">📊 Sistema</th><th style=\"padding:8px\">👥 Equipo</th><th style=\"padding:8px\">⏰ Fecha máxima</th>
+              </tr>
+              %s
+            </table>
+            %s
+          </div>
+        </div>
+        """.formatted(actividades.size(), filas, construirFooterLogo());
+    }
 }
@@ -0,0 +1,180 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Entregable;
+import com.sedapal.repository.EntregableRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntregableService {
+
+    /**
+     * Formatos que ya vienen comprimidos: volver a comprimirlos solo gasta CPU
+     */
+    private static final Set<String> EXTENSIONES_COMPRIMIDAS = Set.of(
+        "pdf", "zip", "rar", "7z", "gz", "tgz", "bz2", "xz",
+        "jpg", "jpeg", "png", "gif", "webp", "heic",
+        "docx", "xlsx", "pptx", "odt", "ods",
+        "mp3", "mp4", "mov", "avi"
+    );
+
+    private static final int BUFFER_GZIP = 64 * 1024;
+
+    private final EntregableRepository entregableRepository;
+    private final BlobService blobService;
+    private final AlmacenamientoService almacenamientoService;
+
+    /**
+     * Eliminar un entregable. Si su contenido es compartido solo se resta una
+     * referencia; el recolector de blobs borra el objeto cuando nadie lo usa.
+     */
+    @Transactional
+    public void eliminar(Long id) {
+        Entregable entregable = entregableRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Entregable no encontrado"));
+
+        entregableRepository.delete(entregable);
+        if (entregable.getHashSha256() != null) {
+            blobService.liberar(entregable.getHashSha256());
+        } else {
+            // Entregables anteriores a la deduplicación tienen su propio objeto
+            almacenamientoService.eliminarAlConfirmar(entregable.getRutaArchivo());
+        }
+        log.info("🗑️ Entregable eliminado: {} ({})", id, entregable.getRutaArchivo());
+    }
+
+    /**
+     * Dónde está hoy el contenido de un entregable
+     */
+    public record Ubicacion(String ruta, String codec) {}
+
+    /**
+     * Ubicación del contenido, o null si no está en el almacenamiento. Si el archivado
+     * movió el objeto después de leer la fila, se vuelve a leer la ruta una vez.
+     */
+    public Ubicacion ubicar(Entregable entregable) {
+        if (almacenamientoService.existe(entregable.getRutaArchivo())) {
+            return new Ubicacion(entregable.getRutaArchivo(), entregable.getCodec());
+        }
+        return entregableRepository.findUbicacion(entregable.getId()).stream()
+                .map(fila -> new Ubicacion((String) fila[0], (String) fila[1]))
+                .filter(u -> !u.ruta().equals(entregable.getRutaArchivo()) && almacenamientoService.existe(u.ruta()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Abrir el contenido original, descomprimiendo al vuelo si está archivado con gzip
+     */
+    public InputStream abrir(Ubicacion ubicacion) {
+        InputStream in = almacenamientoService.abrir(ubicacion.ruta());
+        if (ubicacion.codec() == null) {
+            return in;
+        }
+        try {
+            if (Entregable.CODEC_GZIP.equals(ubicacion.codec())) {
+                return new GZIPInputStream(in, BUFFER_GZIP);
+            }
+            throw new IllegalStateException("Códec no soportado: " + ubicacion.codec());
+        } catch (IOException e) {
+            cerrarSilencioso(in);
+            throw new UncheckedIOException("Error al leer el archivo " + ubicacion.ruta(), e);
+        } catch (RuntimeException e) {
+            cerrarSilencioso(in);
+            throw e;
+        }
+    }
+
+    /**
+     * Entregables a incluir en un ZIP, por actividad, sistema y/o trimestre
+     */
+    public List<Entregable> buscarParaBundle(Long idActividad, Long idSistema, Integer trimestre) {
+        if (idActividad == null && idSistema == null && trimestre == null) {
+            throw new RuntimeException("Debe indicar actividad, sistema o trimestre");
+        }
+        return entregableRepository.buscarParaBundle(idActividad, idSistema, trimestre);
+    }
+
+    /**
+     * Escribir el ZIP directamente en la salida, leyendo un archivo a la vez.
+     * Los formatos ya comprimidos se agregan sin compresión (nivel 0) para no
+     * recomprimirlos; así el ZIP se genera en una sola pasada y sin buffers en disco.
+     */
+    public void escribirBundle(List<Entregable> entregables, OutputStream salida) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(salida, StandardCharsets.UTF_8);
+        List<String> faltantes = new ArrayList<>();
+
+        for (Entregable entregable : entregables) {
+            Ubicacion ubicacion = ubicar(entregable);
+            if (ubicacion == null) {
+                faltantes.add(entregable.getId() + " - " + entregable.getRutaArchivo());
+                continue;
+            }
+
+            zip.setLevel(esComprimido(entregable.getNombreArchivo()) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+            ZipEntry entry = new ZipEntry("actividad_" + entregable.getIdActividad() + "/"
+                    + entregable.getId() + "_" + nombreEnZip(entregable.getNombreArchivo()));
+            if (entregable.getFechaSubida() != null) {
+                entry.setTimeLocal(entregable.getFechaSubida());
+            }
+            zip.putNextEntry(entry);
+            try (InputStream in = abrir(ubicacion)) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
+            // Enviar cada archivo apenas se termina de escribir
+            zip.flush();
+        }
+
+        if (!faltantes.isEmpty()) {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry("FALTANTES.txt"));
+            zip.write(("Archivos no disponibles en el almacenamiento:\n" + String.join("\n", faltantes) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * El nombre lo manda el cliente: dentro del ZIP se usa sólo su último segmento, para
+     * que "../" o una ruta absoluta no escriban fuera de la carpeta al descomprimir
+     */
+    static String nombreEnZip(String nombreArchivo) {
+        String nombre = nombreArchivo == null ? "" : nombreArchivo.substring(
+                Math.max(nombreArchivo.lastIndexOf('/'), nombreArchivo.lastIndexOf('\\')) + 1).strip();
+        return nombre.isEmpty() || nombre.equals(".") || nombre.equals("..") ? "archivo" : nombre;
+    }
+
+    static boolean esComprimido(String nombreArchivo) {
+        int punto = nombreArchivo.lastIndexOf('.');
+        return punto >= 0 && EXTENSIONES_COMPRIMIDAS.contains(nombreArchivo.substring(punto + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static void cerrarSilencioso(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException ignorada) {
+            // Ya se está propagando el error original
+        }
+    }
+}
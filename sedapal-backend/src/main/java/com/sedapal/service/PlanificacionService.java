@@ -0,0 +1,265 @@
+package com.sedapal.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sedapal.dto.ActividadDTO;
+import com.sedapal.model.Actividad;
+import com.sedapal.model.EventoDominio;
+import com.sedapal.model.Sistema;
+import com.sedapal.model.Usuario;
+import com.sedapal.repository.SistemaRepository;
+import com.sedapal.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Planificación masiva de actividades: valida contra los catálogos en caché e inserta
+ * actividades, relación sistema/equipo, trimestres, admin creador y asignaciones con
+ * sentencias JDBC en batch, todo en una transacción. Los correos a los asignados se
+ * encolan después del commit.
+ */
+@Service
+@Slf4j
+public class PlanificacionService {
+
+    private static final int MAX_ERRORES = 20;
+
+    /** Equipo del catálogo tb_equipos */
+    private record Equipo(Integer id, Integer idGerencia, String nombre) {}
+
+    /** Correo de actividad asignada, enviado después del commit */
+    private record Notificacion(String email, String nombreUsuario, String nombreActividad, String sistemaAbrev,
+                                String equipoNombre, int trimestre, LocalDate fechaMaxima) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SistemaRepository sistemaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final BusquedaService busquedaService;
+    private final EmailService emailService;
+    private final RegistroEventos registroEventos;
+    private final Executor executor;
+    private final LoadingCache<String, Map<Integer, Equipo>> equipos;
+    private final int maxActividades;
+
+    public PlanificacionService(JdbcTemplate jdbcTemplate,
+                                SistemaRepository sistemaRepository,
+                                UsuarioRepository usuarioRepository,
+                                BusquedaService busquedaService,
+                                EmailService emailService,
+                                RegistroEventos registroEventos,
+                                @Qualifier("applicationTaskExecutor") Executor executor,
+                                @Value("${app.actividades.bulk-max:2000}") int maxActividades,
+                                @Value("${app.actividades.catalogo-ttl-segundos:300}") long catalogoTtlSegundos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sistemaRepository = sistemaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.busquedaService = busquedaService;
+        this.emailService = emailService;
+        this.registroEventos = registroEventos;
+        this.executor = executor;
+        this.maxActividades = maxActividades;
+        this.equipos = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(catalogoTtlSegundos))
+                .build(k -> cargarEquipos());
+    }
+
+    /**
+     * Crear todas las actividades de la solicitud o ninguna. Lanza IllegalArgumentException
+     * con los errores de validación (índice de la actividad y motivo).
+     */
+    @Transactional
+    public ActividadDTO.BulkResponse planificar(ActividadDTO.BulkRequest request) {
+        List<ActividadDTO.PlanActividadRequest> planes = request.getActividades();
+        if (planes.size() > maxActividades) {
+            throw new IllegalArgumentException("Máximo " + maxActividades + " actividades por solicitud");
+        }
+
+        Usuario admin = usuarioRepository.findById(request.getIdAdmin())
+                .filter(u -> Boolean.TRUE.equals(u.getEstado()) && u.getRol() != Usuario.Rol.usuario)
+                .orElseThrow(() -> new IllegalArgumentException("Administrador " + request.getIdAdmin() + " no válido"));
+        Map<Long, Sistema> sistemas = sistemaRepository.findByEstado(1).stream()
+                .collect(Collectors.toMap(Sistema::getId, Function.identity()));
+        Map<Integer, Equipo> catalogoEquipos = equipos.get("equipos");
+        Set<Long> idsUsuarios = planes.stream()
+                .filter(p -> p.getIdsUsuarios() != null)
+                .flatMap(p -> p.getIdsUsuarios().stream())
+                .collect(Collectors.toSet());
+        Map<Long, Usuario> usuarios = usuarioRepository.findAllById(idsUsuarios).stream()
+                .filter(u -> Boolean.TRUE.equals(u.getEstado()))
+                .collect(Collectors.toMap(Usuario::getId, Function.identity()));
+
+        List<String> errores = new ArrayList<>();
+        for (int i = 0; i < planes.size(); i++) {
+            validar(i, planes.get(i), sistemas, catalogoEquipos, usuarios, errores);
+        }
+        if (!errores.isEmpty()) {
+            String detalle = String.join("; ", errores.subList(0, Math.min(errores.size(), MAX_ERRORES)));
+            throw new IllegalArgumentException(errores.size() > MAX_ERRORES
+                    ? detalle + "; y " + (errores.size() - MAX_ERRORES) + " errores más"
+                    : detalle);
+        }
+
+        // Ids reservados en una sola consulta: las filas hijas se arman sin esperar un RETURNING por actividad
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('tb_actividades', 'id_actividad')) FROM generate_series(1, ?)",
+                Long.class, planes.size());
+
+        List<Object[]> actividades = new ArrayList<>(planes.size());
+        List<Object[]> relaciones = new ArrayList<>(planes.size());
+        List<Object[]> trimestres = new ArrayList<>();
+        List<Object[]> adminActividades = new ArrayList<>(planes.size());
+        List<Object[]> asignaciones = new ArrayList<>();
+        List<Notificacion> notificaciones = new ArrayList<>();
+        List<Actividad> indexar = new ArrayList<>(planes.size());
+        List<EventoDominio> eventos = new ArrayList<>(planes.size());
+
+        for (int i = 0; i < planes.size(); i++) {
+            ActividadDTO.PlanActividadRequest plan = planes.get(i);
+            Long id = ids.get(i);
+            SortedSet<Integer> trimestresPlan = new TreeSet<>(plan.getTrimestres());
+            int trimestre = trimestresPlan.first();
+            int codCatInt = plan.getCodCatInt() != null ? plan.getCodCatInt() : 1;
+            Equipo equipo = catalogoEquipos.get(plan.getIdEquipo());
+            Sistema sistema = sistemas.get(plan.getIdSistema());
+
+            actividades.add(new Object[]{id, plan.getNombreActividad().trim(), codCatInt, trimestre,
+                    plan.getFechaSustento(), plan.getFechaMaximaEntrega(), plan.getIdEntregable()});
+            relaciones.add(new Object[]{id, plan.getIdSistema(), equipo.id(), equipo.idGerencia(), codCatInt});
+            for (Integer t : trimestresPlan) {
+                trimestres.add(new Object[]{id, t});
+            }
+            adminActividades.add(new Object[]{admin.getId(), id});
+            List<Long> asignados = plan.getIdsUsuarios() != null
+                    ? List.copyOf(new LinkedHashSet<>(plan.getIdsUsuarios()))
+                    : List.of();
+            for (Long idUsuario : asignados) {
+                asignaciones.add(new Object[]{idUsuario, id});
+                Usuario usuario = usuarios.get(idUsuario);
+                notificaciones.add(new Notificacion(usuario.getEmail(), usuario.getNombre() + " " + usuario.getApellido(),
+                        plan.getNombreActividad().trim(), sistema.getAbrev(), equipo.nombre(), trimestre,
+                        plan.getFechaMaximaEntrega()));
+            }
+            eventos.add(new EventoDominio.ActividadPlanificada(id, plan.getNombreActividad().trim(), plan.getIdSistema(),
+                    equipo.id(), List.copyOf(trimestresPlan), asignados, admin.getId()));
+
+            Actividad actividad = new Actividad();
+            actividad.setId(id);
+            actividad.setNombreActividad(plan.getNombreActividad().trim());
+            actividad.setEstado(true);
+            actividad.setTrimestre(trimestre);
+            actividad.setEstadoActividad("pendiente");
+            indexar.add(actividad);
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_actividades (id_actividad, nombre_actividad, cod_cat_int, trimestre, fecha_sustento, " +
+                "fecha_maxima_entrega, id_entregable, estado, estado_actividad, evaluacion, cantidad_cambios_fecha) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, 'pendiente', 'pendiente', 0)",
+                actividades,
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.INTEGER, Types.DATE, Types.DATE, Types.BIGINT});
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_as_sis_act (id_actividad, id_sistema, id_equipo, id_gerencia, cod_cat_int) VALUES (?, ?, ?, ?, ?)",
+                relaciones,
+                new int[]{Types.BIGINT, Types.BIGINT, Types.INTEGER, Types.INTEGER, Types.INTEGER});
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_actividad_trimestres (id_actividad, trimestre) VALUES (?, ?)",
+                trimestres,
+                new int[]{Types.BIGINT, Types.INTEGER});
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_admin_actividades (id_admin, id_actividad) VALUES (?, ?)",
+                adminActividades,
+                new int[]{Types.BIGINT, Types.BIGINT});
+        if (!asignaciones.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO tb_usuario_actividades (id_usuario, id_actividad, cumplimiento) VALUES (?, ?, 'pendiente')",
+                    asignaciones,
+                    new int[]{Types.BIGINT, Types.BIGINT});
+        }
+
+        indexar.forEach(busquedaService::indexarActividad);
+        registroEventos.publicar(eventos);
+        boolean notificar = !Boolean.FALSE.equals(request.getNotificar()) && !notificaciones.isEmpty();
+        if (notificar) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> enviarNotificaciones(notificaciones));
+                }
+            });
+        }
+
+        log.info("📋 Planificación masiva del admin {}: {} actividades, {} trimestres, {} asignaciones",
+                 admin.getId(), ids.size(), trimestres.size(), asignaciones.size());
+        return new ActividadDTO.BulkResponse(ids.size(), ids, asignaciones.size(), notificar ? notificaciones.size() : 0);
+    }
+
+    private void validar(int indice, ActividadDTO.PlanActividadRequest plan, Map<Long, Sistema> sistemas,
+                         Map<Integer, Equipo> catalogoEquipos, Map<Long, Usuario> usuarios, List<String> errores) {
+        String prefijo = "actividades[" + indice + "]: ";
+        if (plan.getNombreActividad() == null || plan.getNombreActividad().isBlank()) {
+            errores.add(prefijo + "nombre requerido");
+        }
+        if (plan.getIdSistema() == null || !sistemas.containsKey(plan.getIdSistema())) {
+            errores.add(prefijo + "sistema " + plan.getIdSistema() + " no existe o está inactivo");
+        }
+        if (plan.getIdEquipo() == null || !catalogoEquipos.containsKey(plan.getIdEquipo())) {
+            errores.add(prefijo + "equipo " + plan.getIdEquipo() + " no existe o está inactivo");
+        }
+        if (plan.getTrimestres() == null || plan.getTrimestres().isEmpty()) {
+            errores.add(prefijo + "se requiere al menos un trimestre");
+        } else if (plan.getTrimestres().stream().anyMatch(t -> t == null || t < 1 || t > 4)) {
+            errores.add(prefijo + "trimestres fuera de rango (1-4): " + plan.getTrimestres());
+        }
+        if (plan.getIdsUsuarios() != null) {
+            for (Long idUsuario : plan.getIdsUsuarios()) {
+                if (!usuarios.containsKey(idUsuario)) {
+                    errores.add(prefijo + "usuario " + idUsuario + " no existe o está inactivo");
+                }
+            }
+        }
+    }
+
+    /**
+     * En el executor de tareas: cada correo pasa por el circuito SMTP de EmailService, que
+     * deja en su cola de reintentos lo que no pueda salir ahora
+     */
+    private void enviarNotificaciones(List<Notificacion> notificaciones) {
+        int enviadas = 0;
+        for (Notificacion n : notificaciones) {
+            try {
+                if (emailService.enviarNotificacionActividad(n.email(), n.nombreUsuario(), n.nombreActividad(),
+                        n.sistemaAbrev(), n.equipoNombre(), n.trimestre(),
+                        n.fechaMaxima() != null ? n.fechaMaxima().toString() : "")) {
+                    enviadas++;
+                }
+            } catch (Exception e) {
+                log.error("❌ Error al notificar actividad {} a {}: {}", n.nombreActividad(), n.email(), e.getMessage());
+            }
+        }
+        log.info("📤 Planificación masiva: {} de {} notificaciones enviadas", enviadas, notificaciones.size());
+    }
+
+    private Map<Integer, Equipo> cargarEquipos() {
+        Map<Integer, Equipo> catalogo = new HashMap<>();
+        jdbcTemplate.query("SELECT id_equipo, id_gerencia, desc_equipo FROM tb_equipos WHERE estado = 1",
+                rs -> {
+                    Integer id = rs.getInt("id_equipo");
+                    catalogo.put(id, new Equipo(id, (Integer) rs.getObject("id_gerencia"), rs.getString("desc_equipo")));
+                });
+        return catalogo;
+    }
+}
@@ -0,0 +1,647 @@
+package com.sedapal.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sedapal.model.EventoDominio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de eventos de dominio (solo se agrega al final) en archivos de segmento
+ * mapeados en memoria: app.eventos.path/00000000000000000000.log, uno nuevo cada
+ * app.eventos.segmento-bytes, nombrado por el offset de su primer evento.
+ *
+ * Los servicios publican después del commit y un único hilo escritor agrupa lo que haya
+ * en cola (hasta app.eventos.lote-max), lo copia al segmento activo y hace un solo fsync
+ * por lote. Los lectores avanzan por offset (cursor) y sólo ven eventos ya sincronizados.
+ *
+ * Cada evento en el archivo:
+ *   int longitud | int crc32 | long offset | long fecha (epoch ms) | cuerpo
+ *   cuerpo = short + tipo | short + clave | JSON de los datos
+ * Una longitud 0 marca el final; al arrancar se recorre cada segmento y se descarta la
+ * cola que no pase el CRC (escritura cortada por una caída).
+ *
+ * La compactación reescribe los segmentos cerrados dejando sólo el último evento de cada
+ * tipo + clave (EventoDominio.clave()). Los offsets no cambian: un cursor sigue siendo
+ * válido y simplemente salta los eventos eliminados.
+ */
+@Component
+@Slf4j
+public class RegistroEventos implements SmartLifecycle {
+
+    /** longitud, crc, offset, fecha */
+    private static final int CABECERA = 4 + 4 + 8 + 8;
+    private static final String EXTENSION = ".log";
+    private static final String TEMPORAL = ".compactando";
+
+    public record Evento(long offset, Instant fecha, String tipo, EventoDominio datos) {}
+
+    /** siguiente: offset desde el que pedir la próxima página */
+    public record Pagina(List<Evento> eventos, long siguiente) {}
+
+    public record Estado(int segmentos, long primerOffset, long siguienteOffset, long bytes, int pendientes) {}
+
+    private record Pendiente(EventoDominio evento, CompletableFuture<Long> escrito) {}
+
+    private final ObjectMapper objectMapper;
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final int loteMax;
+    private final long esperaMs;
+    private final BlockingQueue<Pendiente> cola;
+    private final Map<String, Class<? extends EventoDominio>> tipos = new HashMap<>();
+    /** Lectores vs. escritor / compactación sobre la lista y los índices de los segmentos */
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final ReentrantLock compactando = new ReentrantLock();
+    /** Ordenados por offset; el último es el activo */
+    private final List<Segmento> segmentos = new ArrayList<>();
+    private final Counter escritos;
+    private final Timer fsync;
+
+    private long siguienteOffset;
+    /** Último offset con fsync: lo más lejos que llegan los lectores */
+    private volatile long confirmado = -1;
+    private volatile boolean activo;
+    private Thread escritor;
+
+    @SuppressWarnings("unchecked")
+    public RegistroEventos(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.eventos.path:./storage/eventos}") String directorio,
+                           @Value("${app.eventos.segmento-bytes:67108864}") int tamanoSegmento,
+                           @Value("${app.eventos.lote-max:1000}") int loteMax,
+                           @Value("${app.eventos.pendientes-max:100000}") int pendientesMax,
+                           @Value("${app.eventos.espera-ms:1000}") long esperaMs) {
+        this.objectMapper = objectMapper;
+        this.directorio = Path.of(directorio);
+        this.tamanoSegmento = tamanoSegmento;
+        this.loteMax = Math.max(1, loteMax);
+        this.esperaMs = esperaMs;
+        this.cola = new LinkedBlockingQueue<>(pendientesMax);
+        for (Class<?> tipo : EventoDominio.class.getPermittedSubclasses()) {
+            tipos.put(tipo.getSimpleName(), (Class<? extends EventoDominio>) tipo);
+        }
+        this.escritos = Counter.builder("sedapal.eventos.escritos").register(meterRegistry);
+        this.fsync = Timer.builder("sedapal.eventos.fsync")
+                .description("Escritura y fsync de cada lote de eventos")
+                .register(meterRegistry);
+        Gauge.builder("sedapal.eventos.pendientes", cola, Collection::size).register(meterRegistry);
+    }
+
+    // ============================ Publicación ============================
+
+    /**
+     * Agregar eventos al registro cuando la transacción actual confirme (si se revierte no
+     * queda rastro); sin transacción se encolan de inmediato. No espera el fsync.
+     */
+    public void publicar(List<? extends EventoDominio> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventos.forEach(RegistroEventos.this::agregar);
+                }
+            });
+        } else {
+            eventos.forEach(this::agregar);
+        }
+    }
+
+    public void publicar(EventoDominio evento) {
+        publicar(List.of(evento));
+    }
+
+    /**
+     * Encolar un evento; el futuro se completa con su offset tras el fsync del lote
+     */
+    public CompletableFuture<Long> agregar(EventoDominio evento) {
+        Pendiente pendiente = new Pendiente(evento, new CompletableFuture<>());
+        try {
+            if (!activo) {
+                throw new IllegalStateException("el registro de eventos está detenido");
+            }
+            if (!cola.offer(pendiente, esperaMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("cola de eventos llena (" + cola.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendiente.escrito().completeExceptionally(e);
+        } catch (IllegalStateException e) {
+            log.error("❌ Evento {} descartado: {}", evento.getClass().getSimpleName(), e.getMessage());
+            pendiente.escrito().completeExceptionally(e);
+        }
+        return pendiente.escrito();
+    }
+
+    // ============================ Lectura ============================
+
+    /**
+     * Hasta limite eventos con offset >= desde, en orden
+     */
+    public Pagina leer(long desde, int limite) {
+        List<Evento> eventos = new ArrayList<>(Math.min(limite, 1000));
+        long hasta = confirmado;
+        long siguiente = Math.max(desde, 0);
+        bloqueo.readLock().lock();
+        try {
+            for (Segmento s : segmentos) {
+                if (eventos.size() >= limite) break;
+                if (s.cantidad == 0 || s.ultimoOffset() < siguiente) continue;
+                for (int i = s.buscar(siguiente); i < s.cantidad && eventos.size() < limite; i++) {
+                    long offset = s.offsets[i];
+                    if (offset > hasta) break;
+                    eventos.add(leerEvento(s, s.posiciones[i]));
+                    siguiente = offset + 1;
+                }
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+        return new Pagina(eventos, eventos.isEmpty() ? Math.max(desde, 0) : siguiente);
+    }
+
+    /**
+     * Recorrer en orden todo lo confirmado desde un offset (reconstruir o poner al día una
+     * proyección). Devuelve el offset desde el que continuar la próxima vez.
+     */
+    public long reproducir(long desde, Consumer<Evento> consumidor) {
+        long siguiente = desde;
+        while (true) {
+            Pagina pagina = leer(siguiente, 1000);
+            if (pagina.eventos().isEmpty()) {
+                return siguiente;
+            }
+            pagina.eventos().forEach(consumidor);
+            siguiente = pagina.siguiente();
+        }
+    }
+
+    public Estado obtenerEstado() {
+        bloqueo.readLock().lock();
+        try {
+            long primero = segmentos.stream().filter(s -> s.cantidad > 0).mapToLong(s -> s.offsets[0]).findFirst()
+                    .orElse(confirmado + 1);
+            long bytes = segmentos.stream().mapToLong(s -> s.escrito).sum();
+            return new Estado(segmentos.size(), primero, confirmado + 1, bytes, cola.size());
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private Evento leerEvento(Segmento s, int posicion) {
+        long offset = s.mapa.getLong(posicion + 8);
+        Instant fecha = Instant.ofEpochMilli(s.mapa.getLong(posicion + 16));
+        ByteBuffer cuerpo = s.cuerpo(posicion);
+        String tipo = leerTexto(cuerpo);
+        leerTexto(cuerpo);
+        Class<? extends EventoDominio> clase = tipos.get(tipo);
+        if (clase == null) {
+            return new Evento(offset, fecha, tipo, null);
+        }
+        try {
+            byte[] json = new byte[cuerpo.remaining()];
+            cuerpo.get(json);
+            return new Evento(offset, fecha, tipo, objectMapper.readValue(json, clase));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Evento " + offset + " ilegible (" + tipo + ")", e);
+        }
+    }
+
+    // ============================ Escritura ============================
+
+    private void escribir() {
+        List<Pendiente> lote = new ArrayList<>(loteMax);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Pendiente primero = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (primero == null) continue;
+                lote.add(primero);
+                cola.drainTo(lote, loteMax - 1);
+                fsync.record(() -> escribirLote(lote));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Error al escribir {} eventos: {}", lote.size(), e.getMessage());
+                lote.forEach(p -> p.escrito().completeExceptionally(e));
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void escribirLote(List<Pendiente> lote) {
+        long fecha = System.currentTimeMillis();
+        Set<Segmento> tocados = new LinkedHashSet<>();
+        List<Pendiente> aceptados = new ArrayList<>(lote.size());
+        List<Long> offsets = new ArrayList<>(lote.size());
+        for (Pendiente p : lote) {
+            try {
+                byte[] cuerpo = serializar(p.evento());
+                long offset = siguienteOffset;
+                tocados.add(escribirEvento(offset, fecha, cuerpo));
+                siguienteOffset = offset + 1;
+                aceptados.add(p);
+                offsets.add(offset);
+            } catch (IOException | RuntimeException e) {
+                log.error("❌ Evento {} no escrito: {}", p.evento().getClass().getSimpleName(), e.getMessage());
+                p.escrito().completeExceptionally(e);
+            }
+        }
+        tocados.forEach(s -> s.mapa.force());
+        confirmado = siguienteOffset - 1;
+        escritos.increment(aceptados.size());
+        for (int i = 0; i < aceptados.size(); i++) {
+            aceptados.get(i).escrito().complete(offsets.get(i));
+        }
+    }
+
+    private Segmento escribirEvento(long offset, long fecha, byte[] cuerpo) throws IOException {
+        bloqueo.writeLock().lock();
+        try {
+            Segmento activo = segmentos.get(segmentos.size() - 1);
+            if (activo.agregar(offset, fecha, cuerpo)) {
+                return activo;
+            }
+            if (activo.cantidad == 0) {
+                throw new IllegalArgumentException("evento de " + cuerpo.length + " bytes, no cabe en un segmento");
+            }
+            // Rotar: el activo queda cerrado (con fsync) y se abre uno nombrado por este offset
+            activo.mapa.force();
+            Segmento nuevo = Segmento.abrir(directorio.resolve(nombre(offset)), offset, tamanoSegmento);
+            segmentos.add(nuevo);
+            log.info("📒 Nuevo segmento del registro de eventos: {}", nuevo.archivo.getFileName());
+            if (!nuevo.agregar(offset, fecha, cuerpo)) {
+                throw new IllegalArgumentException("evento de " + cuerpo.length + " bytes, no cabe en un segmento");
+            }
+            return nuevo;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private byte[] serializar(EventoDominio evento) throws IOException {
+        byte[] tipo = evento.getClass().getSimpleName().getBytes(StandardCharsets.UTF_8);
+        byte[] clave = evento.clave() != null ? evento.clave().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] json = objectMapper.writeValueAsBytes(evento);
+        return ByteBuffer.allocate(2 + tipo.length + 2 + clave.length + json.length)
+                .putShort((short) tipo.length).put(tipo)
+                .putShort((short) clave.length).put(clave)
+                .put(json)
+                .array();
+    }
+
+    // ============================ Compactación ============================
+
+    @Scheduled(fixedDelayString = "${app.eventos.compactacion-ms:86400000}",
+               initialDelayString = "${app.eventos.compactacion-ms:86400000}")
+    public void compactacionProgramada() {
+        try {
+            compactar();
+        } catch (Exception e) {
+            log.error("❌ Error al compactar el registro de eventos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reescribir los segmentos cerrados sin los eventos que tienen uno posterior del mismo
+     * tipo + clave. Devuelve cuántos eventos se eliminaron.
+     */
+    public int compactar() throws IOException {
+        if (!compactando.tryLock()) {
+            return 0;
+        }
+        try {
+            long hasta = confirmado;
+            List<Segmento> copia;
+            bloqueo.readLock().lock();
+            try {
+                copia = List.copyOf(segmentos);
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+            if (copia.size() < 2) {
+                return 0;
+            }
+
+            // Último offset de cada tipo + clave en todo el registro (incluido el segmento activo)
+            Map<String, Long> ultimos = new HashMap<>();
+            for (Segmento s : copia.subList(0, copia.size() - 1)) {
+                acumularUltimos(s, hasta, ultimos);
+            }
+            // El segmento activo sigue recibiendo escrituras (cantidad y los índices crecen): como en leer()
+            bloqueo.readLock().lock();
+            try {
+                acumularUltimos(copia.get(copia.size() - 1), hasta, ultimos);
+            } finally {
+                bloqueo.readLock().unlock();
+            }
+
+            int eliminados = 0;
+            for (Segmento s : copia.subList(0, copia.size() - 1)) {
+                // Recién cerrado en un lote que todavía no hizo fsync: queda para la próxima
+                if (s.cantidad == 0 || s.ultimoOffset() > hasta) continue;
+                List<Integer> conservar = new ArrayList<>();
+                for (int i = 0; i < s.cantidad; i++) {
+                    String clave = claveCompactacion(s, s.posiciones[i]);
+                    Long ultimo = clave != null ? ultimos.get(clave) : null;
+                    if (ultimo == null || ultimo == s.offsets[i]) {
+                        conservar.add(s.posiciones[i]);
+                    }
+                }
+                if (conservar.size() == s.cantidad) continue;
+                eliminados += s.cantidad - conservar.size();
+                reemplazar(s, conservar);
+            }
+            log.info("🗜️ Registro de eventos compactado: {} eventos reemplazados eliminados", eliminados);
+            return eliminados;
+        } finally {
+            compactando.unlock();
+        }
+    }
+
+    private void acumularUltimos(Segmento s, long hasta, Map<String, Long> ultimos) {
+        for (int i = 0; i < s.cantidad && s.offsets[i] <= hasta; i++) {
+            String clave = claveCompactacion(s, s.posiciones[i]);
+            if (clave != null) {
+                ultimos.put(clave, s.offsets[i]);
+            }
+        }
+    }
+
+    /**
+     * Archivo temporal con los eventos que quedan, fsync y rename atómico sobre el segmento.
+     * Un lector que ya tenía el segmento viejo sigue leyendo su mapeo hasta terminar.
+     */
+    private void reemplazar(Segmento viejo, List<Integer> conservar) throws IOException {
+        if (conservar.isEmpty()) {
+            bloqueo.writeLock().lock();
+            try {
+                segmentos.remove(viejo);
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+            Files.delete(viejo.archivo);
+            return;
+        }
+        Path temporal = viejo.archivo.resolveSibling(viejo.archivo.getFileName() + TEMPORAL);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int posicion : conservar) {
+                ByteBuffer evento = viejo.mapa.slice(posicion, CABECERA + viejo.mapa.getInt(posicion));
+                while (evento.hasRemaining()) {
+                    canal.write(evento);
+                }
+            }
+            canal.force(true);
+        }
+        Files.move(temporal, viejo.archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Segmento nuevo = Segmento.abrir(viejo.archivo, viejo.base, 0);
+        bloqueo.writeLock().lock();
+        try {
+            segmentos.set(segmentos.indexOf(viejo), nuevo);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private static String claveCompactacion(Segmento s, int posicion) {
+        ByteBuffer cuerpo = s.cuerpo(posicion);
+        String tipo = leerTexto(cuerpo);
+        String clave = leerTexto(cuerpo);
+        return clave.isEmpty() ? null : tipo + ":" + clave;
+    }
+
+    // ============================ Ciclo de vida ============================
+
+    @Override
+    public void start() {
+        try {
+            abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el registro de eventos en " + directorio.toAbsolutePath(), e);
+        }
+        activo = true;
+        escritor = new Thread(this::escribir, "registro-eventos");
+        escritor.setDaemon(true);
+        escritor.start();
+        Estado estado = obtenerEstado();
+        log.info("📒 Registro de eventos en {}: {} segmentos, offsets {}..{}",
+                directorio.toAbsolutePath(), estado.segmentos(), estado.primerOffset(), estado.siguienteOffset() - 1);
+    }
+
+    /**
+     * Deja de aceptar eventos y espera a que el escritor sincronice lo que quedaba en cola
+     */
+    @Override
+    public void stop() {
+        activo = false;
+        Thread hilo = escritor;
+        if (hilo != null) {
+            try {
+                hilo.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            escritor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return activo;
+    }
+
+    /**
+     * Arranca antes que el servidor web y se detiene después (las publicaciones de los
+     * últimos requests llegan a disco)
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void abrir() throws IOException {
+        Files.createDirectories(directorio);
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(directorio)) {
+            archivos = listado.sorted().toList();
+        }
+        List<Path> logs = new ArrayList<>();
+        for (Path archivo : archivos) {
+            String nombre = archivo.getFileName().toString();
+            if (nombre.endsWith(TEMPORAL)) {
+                Files.delete(archivo);
+            } else if (nombre.endsWith(EXTENSION)) {
+                logs.add(archivo);
+            }
+        }
+        bloqueo.writeLock().lock();
+        try {
+            segmentos.clear();
+            for (int i = 0; i < logs.size(); i++) {
+                Path archivo = logs.get(i);
+                String nombre = archivo.getFileName().toString();
+                long base = Long.parseLong(nombre.substring(0, nombre.length() - EXTENSION.length()));
+                segmentos.add(Segmento.abrir(archivo, base, i == logs.size() - 1 ? tamanoSegmento : 0));
+            }
+            if (segmentos.isEmpty()) {
+                segmentos.add(Segmento.abrir(directorio.resolve(nombre(0)), 0, tamanoSegmento));
+            }
+            Segmento activo = segmentos.get(segmentos.size() - 1);
+            siguienteOffset = activo.cantidad > 0 ? activo.ultimoOffset() + 1 : activo.base;
+            confirmado = siguienteOffset - 1;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private static String nombre(long base) {
+        return String.format("%020d%s", base, EXTENSION);
+    }
+
+    private static String leerTexto(ByteBuffer cuerpo) {
+        byte[] texto = new byte[cuerpo.getShort()];
+        cuerpo.get(texto);
+        return new String(texto, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Un archivo de segmento mapeado y su índice offset -> posición. tamano 0 = segmento
+     * cerrado, mapeado de solo lectura con el tamaño del archivo.
+     */
+    private static final class Segmento {
+        final Path archivo;
+        final long base;
+        final MappedByteBuffer mapa;
+        int escrito;
+        long[] offsets = new long[256];
+        int[] posiciones = new int[256];
+        int cantidad;
+
+        private Segmento(Path archivo, long base, MappedByteBuffer mapa) {
+            this.archivo = archivo;
+            this.base = base;
+            this.mapa = mapa;
+        }
+
+        static Segmento abrir(Path archivo, long base, int tamano) throws IOException {
+            boolean escribible = tamano > 0;
+            Set<StandardOpenOption> opciones = escribible
+                    ? EnumSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+                    : EnumSet.of(StandardOpenOption.READ);
+            // El mapeo sigue válido después de cerrar el canal
+            try (FileChannel canal = FileChannel.open(archivo, opciones)) {
+                MappedByteBuffer mapa = canal.map(escribible ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                        0, escribible ? Math.max(canal.size(), tamano) : canal.size());
+                Segmento segmento = new Segmento(archivo, base, mapa);
+                segmento.recuperar(escribible);
+                return segmento;
+            }
+        }
+
+        /**
+         * Indexar los eventos válidos; en el activo se limpia lo que quede después del
+         * último válido para que una escritura cortada no reaparezca más adelante
+         */
+        private void recuperar(boolean escribible) {
+            int posicion = 0;
+            while (posicion + CABECERA <= mapa.capacity()) {
+                int longitud = mapa.getInt(posicion);
+                if (longitud <= 0 || posicion + CABECERA + longitud > mapa.capacity()) break;
+                if (crc(posicion, longitud) != mapa.getInt(posicion + 4)) {
+                    log.warn("⚠️ Evento cortado en {} (posición {}): se descarta desde ahí", archivo.getFileName(), posicion);
+                    break;
+                }
+                indexar(mapa.getLong(posicion + 8), posicion);
+                posicion += CABECERA + longitud;
+            }
+            escrito = posicion;
+            if (escribible && posicion + 4 <= mapa.capacity() && mapa.getInt(posicion) != 0) {
+                for (int i = posicion; i < mapa.capacity(); i++) {
+                    mapa.put(i, (byte) 0);
+                }
+            }
+        }
+
+        boolean agregar(long offset, long fecha, byte[] cuerpo) {
+            int posicion = escrito;
+            if (mapa.isReadOnly() || posicion + CABECERA + cuerpo.length > mapa.capacity()) {
+                return false;
+            }
+            mapa.putLong(posicion + 8, offset);
+            mapa.putLong(posicion + 16, fecha);
+            mapa.put(posicion + CABECERA, cuerpo);
+            mapa.putInt(posicion + 4, crc(posicion, cuerpo.length));
+            // La longitud al final: hasta acá el evento no existe para recuperar()
+            mapa.putInt(posicion, cuerpo.length);
+            escrito = posicion + CABECERA + cuerpo.length;
+            indexar(offset, posicion);
+            return true;
+        }
+
+        ByteBuffer cuerpo(int posicion) {
+            return mapa.slice(posicion + CABECERA, mapa.getInt(posicion));
+        }
+
+        long ultimoOffset() {
+            return offsets[cantidad - 1];
+        }
+
+        /**
+         * Índice del primer evento con offset >= desde
+         */
+        int buscar(long desde) {
+            int i = Arrays.binarySearch(offsets, 0, cantidad, desde);
+            return i >= 0 ? i : -i - 1;
+        }
+
+        private void indexar(long offset, int posicion) {
+            if (cantidad == offsets.length) {
+                offsets = Arrays.copyOf(offsets, cantidad * 2);
+                posiciones = Arrays.copyOf(posiciones, cantidad * 2);
+            }
+            offsets[cantidad] = offset;
+            posiciones[cantidad] = posicion;
+            cantidad++;
+        }
+
+        private int crc(int posicion, int longitud) {
+            CRC32 crc = new CRC32();
+            crc.update(mapa.slice(posicion + 8, 16 + longitud));
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sedapal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas JSON de catálogos ya serializadas: se guardan los bytes UTF-8 (y su versión
+ * gzip) y se devuelven tal cual, sin pasar por Jackson en cada request.
+ *
+ * La clave incluye la versión de cada entidad de la que depende la respuesta; las
+ * escrituras de esas entidades (InvalidacionRespuestas) suben la versión y la entrada
+ * vieja deja de usarse. El TTL cubre los cambios hechos por fuera de la aplicación.
+ */
+@Component
+public class RespuestasCache {
+
+    /** Por debajo de este tamaño no vale la pena comprimir */
+    private static final int MIN_GZIP = 1024;
+
+    record Entrada(byte[] json, byte[] gzip) {}
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entrada> entradas;
+    private final ConcurrentHashMap<Class<?>, AtomicLong> versiones = new ConcurrentHashMap<>();
+
+    public RespuestasCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.respuestas-cache.max-bytes:33554432}") long maxBytes,
+                           @Value("${app.respuestas-cache.ttl-segundos:300}") long ttlSegundos) {
+        this.objectMapper = objectMapper;
+        this.entradas = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String clave, Entrada e) -> e.json().length + (e.gzip() != null ? e.gzip().length : 0))
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entradas, "respuestas_json");
+    }
+
+    /**
+     * Respuesta 200 con el JSON de cargar.get(), serializado una sola vez por versión de
+     * las entidades indicadas. Devuelve gzip si el cliente lo acepta.
+     */
+    public ResponseEntity<byte[]> responder(String clave, String acceptEncoding, Supplier<?> cargar,
+                                            Class<?>... entidades) {
+        StringBuilder id = new StringBuilder(clave);
+        for (Class<?> entidad : entidades) {
+            id.append('|').append(version(entidad).get());
+        }
+        Entrada entrada = entradas.get(id.toString(), k -> serializar(cargar.get()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (entrada.gzip() != null && aceptaGzip(acceptEncoding)) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new ResponseEntity<>(entrada.gzip(), headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(entrada.json(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Deja sin efecto las respuestas que dependen de la entidad
+     */
+    public void invalidar(Class<?> entidad) {
+        version(entidad).incrementAndGet();
+    }
+
+    private AtomicLong version(Class<?> entidad) {
+        return versiones.computeIfAbsent(entidad, e -> new AtomicLong());
+    }
+
+    private Entrada serializar(Object valor) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(valor);
+            return new Entrada(json, json.length >= MIN_GZIP ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    private static boolean aceptaGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+}
@@ -0,0 +1,198 @@
+package com.sedapal.service;
+
+import com.sedapal.dto.RevisionDTO;
+import com.sedapal.model.EventoDominio;
+import com.sedapal.model.Usuario;
+import com.sedapal.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.util.*;
+import java.util.concurrent.Executor;
+
+/**
+ * Revisión en lote de entregables: las decisiones conforme / observado se aplican con
+ * UPDATE ... WHERE id_actividad = ANY(?) (dos sentencias por decisión, sin importar
+ * cuántas actividades) y los correos de conforme se agrupan por destinatario.
+ */
+@Service
+@Slf4j
+public class RevisionService {
+
+    private static final String CONFORME = "conforme";
+    private static final String OBSERVADO = "observado";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UsuarioRepository usuarioRepository;
+    private final EmailService emailService;
+    private final RegistroEventos registroEventos;
+    private final Executor executor;
+    private final int maxDecisiones;
+
+    public RevisionService(JdbcTemplate jdbcTemplate,
+                           UsuarioRepository usuarioRepository,
+                           EmailService emailService,
+                           RegistroEventos registroEventos,
+                           @Qualifier("applicationTaskExecutor") Executor executor,
+                           @Value("${app.revisiones.batch-max:2000}") int maxDecisiones) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.usuarioRepository = usuarioRepository;
+        this.emailService = emailService;
+        this.registroEventos = registroEventos;
+        this.executor = executor;
+        this.maxDecisiones = maxDecisiones;
+    }
+
+    /**
+     * Conforme: actividad completada y asignaciones en "cumple". Observado: actividad
+     * "no conforme" y asignaciones en "no_cumple", para que el usuario vuelva a enviar.
+     * Lanza IllegalArgumentException si alguna decisión no es válida (no se aplica nada).
+     */
+    @Transactional
+    public RevisionDTO.BatchResponse aplicar(RevisionDTO.BatchRequest request) {
+        if (request.getDecisiones().size() > maxDecisiones) {
+            throw new IllegalArgumentException("Máximo " + maxDecisiones + " decisiones por solicitud");
+        }
+        usuarioRepository.findById(request.getIdRevisor())
+                .filter(u -> Boolean.TRUE.equals(u.getEstado()) && u.getRol() != Usuario.Rol.usuario)
+                .orElseThrow(() -> new IllegalArgumentException("Revisor " + request.getIdRevisor() + " no válido"));
+
+        Map<Long, String> decisiones = new LinkedHashMap<>();
+        for (RevisionDTO.DecisionRequest d : request.getDecisiones()) {
+            String decision = d.getDecision().trim().toLowerCase();
+            if (!CONFORME.equals(decision) && !OBSERVADO.equals(decision)) {
+                throw new IllegalArgumentException("Decisión no válida para la actividad " + d.getIdActividad()
+                        + ": " + d.getDecision() + " (conforme | observado)");
+            }
+            String anterior = decisiones.putIfAbsent(d.getIdActividad(), decision);
+            if (anterior != null && !anterior.equals(decision)) {
+                throw new IllegalArgumentException("Decisiones contradictorias para la actividad " + d.getIdActividad());
+            }
+        }
+        Long[] conformes = decisiones.entrySet().stream()
+                .filter(e -> CONFORME.equals(e.getValue())).map(Map.Entry::getKey).toArray(Long[]::new);
+        Long[] observadas = decisiones.entrySet().stream()
+                .filter(e -> OBSERVADO.equals(e.getValue())).map(Map.Entry::getKey).toArray(Long[]::new);
+
+        List<Long> existentes = jdbcTemplate.query(
+                "SELECT id_actividad FROM tb_actividades WHERE id_actividad = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", decisiones.keySet().toArray())),
+                (rs, i) -> rs.getLong(1));
+        if (existentes.size() != decisiones.size()) {
+            Set<Long> faltantes = new TreeSet<>(decisiones.keySet());
+            existentes.forEach(faltantes::remove);
+            throw new IllegalArgumentException("Actividades no encontradas: " + faltantes);
+        }
+
+        int asignaciones = 0;
+        if (conformes.length > 0) {
+            actualizar("UPDATE tb_actividades SET evaluacion = 'conforme', estado_actividad = 'completado' " +
+                       "WHERE id_actividad = ANY(?)", conformes);
+            asignaciones += actualizar("UPDATE tb_usuario_actividades SET cumplimiento = 'cumple' " +
+                                       "WHERE id_actividad = ANY(?) AND cumplimiento IS DISTINCT FROM 'cumple'", conformes);
+        }
+        if (observadas.length > 0) {
+            actualizar("UPDATE tb_actividades SET evaluacion = 'no conforme', " +
+                       "estado_actividad = CASE WHEN estado_actividad = 'completado' THEN 'pendiente' ELSE estado_actividad END " +
+                       "WHERE id_actividad = ANY(?)", observadas);
+            asignaciones += actualizar("UPDATE tb_usuario_actividades SET cumplimiento = 'no_cumple' " +
+                                       "WHERE id_actividad = ANY(?) AND cumplimiento IS DISTINCT FROM 'no_cumple'", observadas);
+        }
+
+        List<EventoDominio> eventos = new ArrayList<>(decisiones.size());
+        for (Long id : conformes) {
+            eventos.add(new EventoDominio.CumplimientoActualizado(id, "conforme", "cumple", request.getIdRevisor()));
+        }
+        for (Long id : observadas) {
+            eventos.add(new EventoDominio.CumplimientoActualizado(id, "no conforme", "no_cumple", request.getIdRevisor()));
+        }
+        registroEventos.publicar(eventos);
+
+        int correos = 0;
+        if (!Boolean.FALSE.equals(request.getNotificar()) && conformes.length > 0) {
+            Map<String, List<EmailService.ActividadConforme>> porDestinatario = agruparCorreos(conformes);
+            correos = porDestinatario.size();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> enviarCorreos(porDestinatario));
+                }
+            });
+        }
+
+        log.info("📝 Revisión en lote del revisor {}: {} conformes, {} observadas, {} asignaciones, {} correos",
+                 request.getIdRevisor(), conformes.length, observadas.length, asignaciones, correos);
+        return new RevisionDTO.BatchResponse(conformes.length, observadas.length, asignaciones, correos);
+    }
+
+    /**
+     * Una consulta para todas las actividades conformes: cada usuario asignado recibe sus
+     * actividades y cada superadmin todas, en un solo correo por destinatario
+     */
+    private Map<String, List<EmailService.ActividadConforme>> agruparCorreos(Long[] conformes) {
+        Map<Long, EmailService.ActividadConforme> actividades = new LinkedHashMap<>();
+        Map<String, Set<Long>> porUsuario = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT a.id_actividad, a.nombre_actividad, COALESCE(a.fecha_maxima_entrega, a.fecha_sustento) AS fecha, " +
+                "       s.abrev, e.desc_equipo, " +
+                "       (SELECT string_agg(en.nombre_archivo, ', ' ORDER BY en.id) FROM tb_entregables en " +
+                "         WHERE en.id_actividad = a.id_actividad) AS entregables, " +
+                "       u.email " +
+                "FROM tb_actividades a " +
+                "LEFT JOIN LATERAL (SELECT r.id_sistema, r.id_equipo FROM tb_as_sis_act r " +
+                "                   WHERE r.id_actividad = a.id_actividad ORDER BY r.id LIMIT 1) r ON TRUE " +
+                "LEFT JOIN tb_sistemas s ON s.id = r.id_sistema " +
+                "LEFT JOIN tb_equipos e ON e.id_equipo = r.id_equipo " +
+                "LEFT JOIN tb_usuario_actividades ua ON ua.id_actividad = a.id_actividad " +
+                "LEFT JOIN tb_usuarios u ON u.id_usuario = ua.id_usuario AND u.estado = TRUE " +
+                "WHERE a.id_actividad = ANY(?) " +
+                "ORDER BY a.id_actividad",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", conformes)),
+                rs -> {
+                    long id = rs.getLong("id_actividad");
+                    if (!actividades.containsKey(id)) {
+                        Date fecha = rs.getDate("fecha");
+                        actividades.put(id, new EmailService.ActividadConforme(rs.getString("nombre_actividad"),
+                                rs.getString("entregables"), rs.getString("abrev"), rs.getString("desc_equipo"),
+                                fecha != null ? fecha.toLocalDate().toString() : null));
+                    }
+                    String email = rs.getString("email");
+                    if (email != null) {
+                        porUsuario.computeIfAbsent(email, k -> new LinkedHashSet<>()).add(id);
+                    }
+                });
+
+        Map<String, List<EmailService.ActividadConforme>> porDestinatario = new LinkedHashMap<>();
+        porUsuario.forEach((email, ids) -> porDestinatario.put(email, ids.stream().map(actividades::get).toList()));
+        List<EmailService.ActividadConforme> todas = List.copyOf(actividades.values());
+        for (Usuario superadmin : usuarioRepository.findByRolAndEstado(Usuario.Rol.superadmin, true)) {
+            porDestinatario.put(superadmin.getEmail(), todas);
+        }
+        return porDestinatario;
+    }
+
+    private void enviarCorreos(Map<String, List<EmailService.ActividadConforme>> porDestinatario) {
+        int enviados = 0;
+        for (Map.Entry<String, List<EmailService.ActividadConforme>> e : porDestinatario.entrySet()) {
+            try {
+                if (emailService.enviarResumenConforme(e.getKey(), e.getValue())) {
+                    enviados++;
+                }
+            } catch (Exception ex) {
+                log.error("❌ Error al enviar el resumen de conforme a {}: {}", e.getKey(), ex.getMessage());
+            }
+        }
+        log.info("📤 Revisión en lote: {} de {} correos de conforme enviados", enviados, porDestinatario.size());
+    }
+
+    private int actualizar(String sql, Long[] ids) {
+        return jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+}
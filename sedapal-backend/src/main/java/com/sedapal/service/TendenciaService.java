@@ -0,0 +1,300 @@
+package com.sedapal.service;
+
+import com.sedapal.config.LecturaCompartida;
+import com.sedapal.dto.TendenciaDTO;
+import com.sedapal.model.CumplimientoSnapshot;
+import com.sedapal.model.Sistema;
+import com.sedapal.repository.CumplimientoSnapshotRepository;
+import com.sedapal.repository.SistemaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Historial de cumplimiento. Cada noche se calcula el cumplimiento por sistema,
+ * gerencia, equipo y trimestre y se guarda en tb_cumplimiento_snapshots; las
+ * tendencias se leen de ahí con un rango del índice en vez de recalcularse.
+ *
+ * El cálculo se parte por sistema: cada sistema es una consulta en su propia
+ * transacción de solo lectura y los parciales se suman con fork/join. Cada
+ * actividad cuenta una sola vez, en el sistema de su relación principal.
+ */
+@Service
+@Slf4j
+public class TendenciaService {
+
+    public static final List<String> DIMENSIONES = List.of("total", "sistema", "gerencia", "equipo", "trimestre");
+    /** Dimensión de cada grupo devuelto por resumirSistema (índice = columna "grupo") */
+    private static final String[] GRUPOS = {"sistema", "gerencia", "equipo", "trimestre"};
+
+    private final CumplimientoSnapshotRepository snapshotRepository;
+    private final SistemaRepository sistemaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate escritura;
+    private final TransactionTemplate lectura;
+    private final int paralelismo;
+    private final ZoneId zona;
+    private final ReentrantLock enCurso = new ReentrantLock();
+
+    public TendenciaService(CumplimientoSnapshotRepository snapshotRepository,
+                            SistemaRepository sistemaRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.tendencias.paralelismo:3}") int paralelismo,
+                            @Value("${app.tendencias.zona:America/Lima}") String zona) {
+        this.snapshotRepository = snapshotRepository;
+        this.sistemaRepository = sistemaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.paralelismo = Math.max(1, paralelismo);
+        this.zona = ZoneId.of(zona);
+    }
+
+    /**
+     * Snapshot nocturno del día
+     */
+    @Scheduled(cron = "${app.tendencias.cron:0 30 2 * * *}", zone = "${app.tendencias.zona:America/Lima}")
+    public void snapshotProgramado() {
+        try {
+            generarSnapshot(LocalDate.now(zona));
+        } catch (Exception e) {
+            log.error("❌ No se pudo generar el snapshot de cumplimiento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Calcular el cumplimiento actual y guardarlo como el snapshot de hoy (reemplaza el
+     * de hoy si ya existía). Sólo se acepta la fecha de hoy: el cálculo refleja el estado
+     * actual, guardado con otra fecha reescribiría el historial.
+     */
+    public TendenciaDTO.SnapshotResponse generarSnapshot(LocalDate fechaSnapshot) {
+        LocalDate fecha = LocalDate.now(zona);
+        if (fechaSnapshot != null && !fechaSnapshot.equals(fecha)) {
+            throw new IllegalArgumentException("Sólo se puede generar el snapshot de hoy (" + fecha + "): " +
+                    "el cumplimiento se calcula con el estado actual");
+        }
+        if (!enCurso.tryLock()) {
+            throw new IllegalStateException("Ya hay un snapshot de cumplimiento en curso");
+        }
+        try {
+            long inicio = System.nanoTime();
+            List<Long> sistemas = sistemaRepository.findAll().stream().map(Sistema::getId).sorted().toList();
+            Parcial total = new Parcial();
+            if (!sistemas.isEmpty()) {
+                ForkJoinPool pool = new ForkJoinPool(Math.min(paralelismo, sistemas.size()));
+                try {
+                    total = pool.invoke(new ParticionSistemas(sistemas));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+
+            List<CumplimientoSnapshot> filas = total.aSnapshots(fecha);
+            escritura.executeWithoutResult(status -> {
+                snapshotRepository.deleteByFecha(fecha);
+                insertar(filas);
+            });
+            long ms = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("📈 Snapshot de cumplimiento {}: {} sistemas, {} filas en {} ms", fecha, sistemas.size(), filas.size(), ms);
+            return new TendenciaDTO.SnapshotResponse(fecha, sistemas.size(), filas.size(), ms);
+        } finally {
+            enCurso.unlock();
+        }
+    }
+
+    /**
+     * Un solo INSERT en batch (multi-fila con reWriteBatchedInserts) en vez de uno por
+     * fila: con id IDENTITY Hibernate no puede agrupar los saveAll
+     */
+    private void insertar(List<CumplimientoSnapshot> filas) {
+        Timestamp calculo = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tb_cumplimiento_snapshots (fecha, dimension, id_dimension, actividades, completadas, " +
+                "pendientes, asignaciones, cumple, no_cumple, tasa_actividades, tasa_asignaciones, fecha_calculo) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                filas, filas.size(), (ps, s) -> {
+                    ps.setObject(1, s.getFecha());
+                    ps.setString(2, s.getDimension());
+                    ps.setLong(3, s.getIdDimension());
+                    ps.setInt(4, s.getActividades());
+                    ps.setInt(5, s.getCompletadas());
+                    ps.setInt(6, s.getPendientes());
+                    ps.setInt(7, s.getAsignaciones());
+                    ps.setInt(8, s.getCumple());
+                    ps.setInt(9, s.getNoCumple());
+                    ps.setBigDecimal(10, s.getTasaActividades());
+                    ps.setBigDecimal(11, s.getTasaAsignaciones());
+                    ps.setTimestamp(12, calculo);
+                });
+    }
+
+    /**
+     * Tendencia de una dimensión (de un id o de todos) entre dos fechas.
+     * Con mensual=true se devuelve el último snapshot de cada mes.
+     */
+    @LecturaCompartida
+    @Transactional(readOnly = true)
+    public List<TendenciaDTO.PuntoResponse> obtenerTendencia(String dimension, Long idDimension,
+                                                             LocalDate desde, LocalDate hasta, boolean mensual) {
+        if (!DIMENSIONES.contains(dimension)) {
+            throw new IllegalArgumentException("Dimensión inválida: " + dimension + " (use " + String.join(", ", DIMENSIONES) + ")");
+        }
+        LocalDate fin = hasta != null ? hasta : LocalDate.now(zona);
+        LocalDate inicio = desde != null ? desde : fin.minusMonths(12);
+        if (inicio.isAfter(fin)) {
+            throw new IllegalArgumentException("La fecha inicial es posterior a la final");
+        }
+        Long id = "total".equals(dimension) ? Long.valueOf(0) : idDimension;
+
+        List<CumplimientoSnapshot> snapshots;
+        if (mensual) {
+            snapshots = snapshotRepository.findMensual(dimension, id, inicio, fin);
+        } else if (id != null) {
+            snapshots = snapshotRepository.findByDimensionAndIdDimensionAndFechaBetweenOrderByFecha(dimension, id, inicio, fin);
+        } else {
+            snapshots = snapshotRepository.findByDimensionAndFechaBetweenOrderByIdDimensionAscFechaAsc(dimension, inicio, fin);
+        }
+        return snapshots.stream().map(TendenciaDTO.PuntoResponse::fromEntity).toList();
+    }
+
+    /**
+     * Divide la lista de sistemas en mitades hasta llegar a un sistema por tarea
+     */
+    private final class ParticionSistemas extends RecursiveTask<Parcial> {
+
+        private final List<Long> sistemas;
+
+        ParticionSistemas(List<Long> sistemas) {
+            this.sistemas = sistemas;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (sistemas.size() == 1) {
+                return resumir(sistemas.get(0));
+            }
+            int mitad = sistemas.size() / 2;
+            ParticionSistemas izquierda = new ParticionSistemas(sistemas.subList(0, mitad));
+            ParticionSistemas derecha = new ParticionSistemas(sistemas.subList(mitad, sistemas.size()));
+            izquierda.fork();
+            Parcial resultado = derecha.compute();
+            return resultado.unir(izquierda.join());
+        }
+    }
+
+    private Parcial resumir(Long idSistema) {
+        List<Object[]> filas = lectura.execute(status -> snapshotRepository.resumirSistema(idSistema));
+        Parcial parcial = new Parcial();
+        for (Object[] fila : filas) {
+            int grupo = ((Number) fila[0]).intValue();
+            Conteo conteo = Conteo.deFila(fila);
+            if (grupo == 0) {
+                parcial.sumar("sistema", idSistema, conteo);
+                parcial.sumar("total", 0L, conteo);
+            } else {
+                parcial.sumar(GRUPOS[grupo], ((Number) fila[1]).longValue(), conteo);
+            }
+        }
+        return parcial;
+    }
+
+    /**
+     * Conteos de un grupo; se suman entre sistemas
+     */
+    private static final class Conteo {
+        int actividades;
+        int completadas;
+        int pendientes;
+        int asignaciones;
+        int cumple;
+        int noCumple;
+
+        static Conteo deFila(Object[] fila) {
+            Conteo c = new Conteo();
+            c.actividades = ((Number) fila[2]).intValue();
+            c.completadas = ((Number) fila[3]).intValue();
+            c.pendientes = ((Number) fila[4]).intValue();
+            c.asignaciones = ((Number) fila[5]).intValue();
+            c.cumple = ((Number) fila[6]).intValue();
+            c.noCumple = ((Number) fila[7]).intValue();
+            return c;
+        }
+
+        void sumar(Conteo otro) {
+            actividades += otro.actividades;
+            completadas += otro.completadas;
+            pendientes += otro.pendientes;
+            asignaciones += otro.asignaciones;
+            cumple += otro.cumple;
+            noCumple += otro.noCumple;
+        }
+    }
+
+    /**
+     * Resultado de una o varias particiones: dimensión -> id -> conteo
+     */
+    private static final class Parcial {
+        private final Map<String, Map<Long, Conteo>> porDimension = new HashMap<>();
+
+        void sumar(String dimension, Long id, Conteo conteo) {
+            porDimension.computeIfAbsent(dimension, d -> new TreeMap<>())
+                    .computeIfAbsent(id, i -> new Conteo())
+                    .sumar(conteo);
+        }
+
+        Parcial unir(Parcial otro) {
+            otro.porDimension.forEach((dimension, conteos) ->
+                    conteos.forEach((id, conteo) -> sumar(dimension, id, conteo)));
+            return this;
+        }
+
+        List<CumplimientoSnapshot> aSnapshots(LocalDate fecha) {
+            List<CumplimientoSnapshot> snapshots = new ArrayList<>();
+            for (String dimension : DIMENSIONES) {
+                porDimension.getOrDefault(dimension, Map.of()).forEach((id, c) -> {
+                    CumplimientoSnapshot s = new CumplimientoSnapshot();
+                    s.setFecha(fecha);
+                    s.setDimension(dimension);
+                    s.setIdDimension(id);
+                    s.setActividades(c.actividades);
+                    s.setCompletadas(c.completadas);
+                    s.setPendientes(c.pendientes);
+                    s.setAsignaciones(c.asignaciones);
+                    s.setCumple(c.cumple);
+                    s.setNoCumple(c.noCumple);
+                    s.setTasaActividades(tasa(c.completadas, c.completadas + c.pendientes));
+                    s.setTasaAsignaciones(tasa(c.cumple, c.asignaciones));
+                    snapshots.add(s);
+                });
+            }
+            return snapshots;
+        }
+
+        private static BigDecimal tasa(int parte, int total) {
+            if (total == 0) return null;
+            return BigDecimal.valueOf(parte * 100L).divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP);
+        }
+    }
+}
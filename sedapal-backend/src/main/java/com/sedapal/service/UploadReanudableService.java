@@ -0,0 +1,352 @@
+package com.sedapal.service;
+
+import com.sedapal.model.Entregable;
+import com.sedapal.model.UploadSesion;
+import com.sedapal.repository.EntregableRepository;
+import com.sedapal.repository.UploadSesionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Subida reanudable de entregables por partes (chunks).
+ * Cada chunk se guarda como un archivo independiente, por lo que el cliente puede
+ * enviarlos en paralelo y reintentar solo los que falten. Al finalizar se
+ * ensamblan en un único objeto y se registra la fila en tb_entregables.
+ */
+@Service
+@Slf4j
+public class UploadReanudableService {
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final UploadSesionRepository uploadSesionRepository;
+    private final EntregableRepository entregableRepository;
+    private final BlobService blobService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directorioPartes;
+    private final int tamanoChunk;
+    private final Duration expiracion;
+
+    public UploadReanudableService(UploadSesionRepository uploadSesionRepository,
+                                   EntregableRepository entregableRepository,
+                                   BlobService blobService,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.uploads.path:${app.storage.path:./storage}/.uploads}") String directorioPartes,
+                                   @Value("${app.uploads.chunk-size:5242880}") int tamanoChunk,
+                                   @Value("${app.uploads.expiracion-horas:24}") long expiracionHoras) {
+        this.uploadSesionRepository = uploadSesionRepository;
+        this.entregableRepository = entregableRepository;
+        this.blobService = blobService;
+        this.transactionTemplate = transactionTemplate;
+        this.directorioPartes = Paths.get(directorioPartes).toAbsolutePath().normalize();
+        this.tamanoChunk = tamanoChunk;
+        this.expiracion = Duration.ofHours(expiracionHoras);
+    }
+
+    /**
+     * Crear una sesión de subida
+     */
+    @Transactional
+    public UploadSesion crearSesion(Long idActividad, Long subidoPor, String nombreArchivo, long tamanoTotal) {
+        if (tamanoTotal <= 0) {
+            throw new RuntimeException("El tamaño del archivo debe ser mayor a 0");
+        }
+
+        UploadSesion sesion = new UploadSesion();
+        sesion.setId(UUID.randomUUID().toString());
+        sesion.setIdActividad(idActividad);
+        sesion.setSubidoPor(subidoPor);
+        sesion.setNombreArchivo(nombreArchivo);
+        sesion.setTamanoTotal(tamanoTotal);
+        sesion.setTamanoChunk(tamanoChunk);
+        sesion.setTotalChunks((int) ((tamanoTotal + tamanoChunk - 1) / tamanoChunk));
+        sesion.setEstado(UploadSesion.Estado.activa);
+
+        UploadSesion saved = uploadSesionRepository.save(sesion);
+        log.info("✅ Sesión de subida creada: {} ({} bytes, {} chunks)", saved.getId(), tamanoTotal, saved.getTotalChunks());
+        return saved;
+    }
+
+    /**
+     * Recibir un chunk. Es idempotente: reenviar el mismo número reemplaza la parte.
+     */
+    public void recibirChunk(String idSesion, int numero, InputStream contenido) {
+        UploadSesion sesion = obtenerSesionActiva(idSesion);
+        if (numero < 0 || numero >= sesion.getTotalChunks()) {
+            throw new RuntimeException("Número de chunk fuera de rango: " + numero);
+        }
+
+        long esperado = tamanoEsperado(sesion, numero);
+        Path dir = directorioSesion(idSesion);
+        Path temporal = dir.resolve(numero + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(dir);
+            long recibido = copiarConLimite(contenido, temporal, esperado);
+            if (recibido != esperado) {
+                throw new RuntimeException("Tamaño de chunk inválido: se esperaban " + esperado + " bytes y se recibieron " + recibido);
+            }
+            Files.move(temporal, parte(idSesion, numero), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al guardar el chunk " + numero, e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporal);
+            } catch (IOException ignored) {
+                // El recolector limpia los temporales que queden
+            }
+        }
+    }
+
+    /**
+     * Números de chunk que todavía no se recibieron
+     */
+    public List<Integer> chunksFaltantes(UploadSesion sesion) {
+        List<Integer> faltantes = new ArrayList<>();
+        for (int i = 0; i < sesion.getTotalChunks(); i++) {
+            if (!Files.isRegularFile(parte(sesion.getId(), i))) {
+                faltantes.add(i);
+            }
+        }
+        return faltantes;
+    }
+
+    public UploadSesion obtenerSesion(String idSesion) {
+        return uploadSesionRepository.findById(idSesion)
+                .orElseThrow(() -> new RuntimeException("Sesión de subida no encontrada"));
+    }
+
+    /**
+     * Ensamblar los chunks en el objeto final y registrar el entregable.
+     * El ensamblado y el hash se hacen fuera de la transacción; la transacción solo
+     * registra el blob, inserta la fila y completa la sesión.
+     * Finalizar dos veces la misma sesión devuelve el mismo entregable.
+     */
+    public Entregable finalizar(String idSesion) {
+        UploadSesion sesion = obtenerSesion(idSesion);
+        if (sesion.getEstado() == UploadSesion.Estado.completada) {
+            return entregableDeSesion(sesion.getIdEntregable());
+        }
+
+        List<Integer> faltantes = chunksFaltantes(sesion);
+        if (!faltantes.isEmpty()) {
+            throw new RuntimeException("Faltan " + faltantes.size() + " chunks: " + faltantes);
+        }
+
+        BlobService.BlobPreparado preparado;
+        try (InputStream ensamblado = new SequenceInputStream(new PartesEnumeration(sesion))) {
+            preparado = blobService.preparar(ensamblado);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al ensamblar el archivo", e);
+        }
+
+        try {
+            Entregable saved = transactionTemplate.execute(status -> {
+                BlobService.BlobGuardado blob = blobService.registrar(preparado);
+
+                Entregable entregable = new Entregable();
+                entregable.setIdActividad(sesion.getIdActividad());
+                entregable.setNombreArchivo(sesion.getNombreArchivo());
+                entregable.setRutaArchivo(blob.ruta());
+                entregable.setHashSha256(blob.hash());
+                entregable.setTamanoArchivo(blob.tamano());
+                entregable.setNivelAlmacenamiento(blob.nivel());
+                entregable.setCodec(blob.codec());
+                entregable.setTamanoAlmacenado(blob.tamanoAlmacenado());
+                entregable.setSubidoPor(sesion.getSubidoPor());
+                Entregable insertado = entregableRepository.save(entregable);
+
+                if (uploadSesionRepository.completar(idSesion, insertado.getId()) == 0) {
+                    // Otra petición finalizó (o canceló) la sesión mientras se ensamblaba
+                    status.setRollbackOnly();
+                    return null;
+                }
+
+                // Las partes solo se borran cuando la fila quedó confirmada
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        eliminarPartes(idSesion);
+                    }
+                });
+
+                log.info("✅ Entregable {} ensamblado desde la sesión {} ({} bytes{})", insertado.getId(), idSesion,
+                        blob.tamano(), blob.duplicado() ? ", contenido ya existente" : "");
+                return insertado;
+            });
+            if (saved != null) {
+                return saved;
+            }
+        } finally {
+            blobService.descartar(preparado);
+        }
+
+        Long idEntregable = uploadSesionRepository.findIdEntregable(idSesion)
+                .orElseThrow(() -> new RuntimeException("Sesión de subida no encontrada"));
+        return entregableDeSesion(idEntregable);
+    }
+
+    private Entregable entregableDeSesion(Long idEntregable) {
+        if (idEntregable == null) {
+            throw new RuntimeException("Entregable de la sesión no encontrado");
+        }
+        return entregableRepository.findById(idEntregable)
+                .orElseThrow(() -> new RuntimeException("Entregable de la sesión no encontrado"));
+    }
+
+    /**
+     * Cancelar una sesión y liberar sus partes
+     */
+    @Transactional
+    public void cancelar(String idSesion) {
+        UploadSesion sesion = obtenerSesionActiva(idSesion);
+        uploadSesionRepository.delete(sesion);
+        eliminarPartes(idSesion);
+        log.info("🗑️ Sesión de subida cancelada: {}", idSesion);
+    }
+
+    /**
+     * Recolectar sesiones abandonadas: activas y sin chunks nuevos durante el
+     * tiempo de expiración. También elimina directorios de partes sin sesión.
+     */
+    @Scheduled(fixedDelayString = "${app.uploads.limpieza-ms:3600000}", initialDelayString = "${app.uploads.limpieza-ms:3600000}")
+    @Transactional
+    public void limpiarSesionesAbandonadas() {
+        Instant limite = Instant.now().minus(expiracion);
+        List<UploadSesion> candidatas = uploadSesionRepository.findByEstadoAndFechaCreacionBefore(
+                UploadSesion.Estado.activa, LocalDateTime.now().minus(expiracion));
+
+        int eliminadas = 0;
+        for (UploadSesion sesion : candidatas) {
+            if (ultimaActividad(sesion.getId()).isBefore(limite)) {
+                uploadSesionRepository.delete(sesion);
+                eliminarPartes(sesion.getId());
+                eliminadas++;
+            }
+        }
+
+        if (Files.isDirectory(directorioPartes)) {
+            try (Stream<Path> dirs = Files.list(directorioPartes)) {
+                for (Path dir : dirs.toList()) {
+                    String idSesion = dir.getFileName().toString();
+                    if (ultimaActividad(idSesion).isBefore(limite) && !uploadSesionRepository.existsById(idSesion)) {
+                        eliminarPartes(idSesion);
+                        eliminadas++;
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("⚠️ No se pudo recorrer {}: {}", directorioPartes, e.getMessage());
+            }
+        }
+
+        if (eliminadas > 0) {
+            log.info("🧹 Sesiones de subida abandonadas eliminadas: {}", eliminadas);
+        }
+    }
+
+    private UploadSesion obtenerSesionActiva(String idSesion) {
+        UploadSesion sesion = obtenerSesion(idSesion);
+        if (sesion.getEstado() != UploadSesion.Estado.activa) {
+            throw new RuntimeException("La sesión de subida ya fue finalizada");
+        }
+        return sesion;
+    }
+
+    private long tamanoEsperado(UploadSesion sesion, int numero) {
+        if (numero < sesion.getTotalChunks() - 1) {
+            return sesion.getTamanoChunk();
+        }
+        return sesion.getTamanoTotal() - (long) sesion.getTamanoChunk() * (sesion.getTotalChunks() - 1);
+    }
+
+    /**
+     * Copiar como máximo limite + 1 bytes, suficiente para detectar chunks demasiado grandes
+     */
+    private long copiarConLimite(InputStream in, Path destino, long limite) throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[BUFFER];
+        try (OutputStream out = Files.newOutputStream(destino)) {
+            int leidos;
+            while (total <= limite && (leidos = in.read(buffer, 0, (int) Math.min(buffer.length, limite + 1 - total))) != -1) {
+                out.write(buffer, 0, leidos);
+                total += leidos;
+            }
+        }
+        return total;
+    }
+
+    private Instant ultimaActividad(String idSesion) {
+        try {
+            FileTime mtime = Files.getLastModifiedTime(directorioSesion(idSesion));
+            return mtime.toInstant();
+        } catch (IOException e) {
+            // Sin directorio: nunca llegó un chunk
+            return Instant.EPOCH;
+        }
+    }
+
+    private void eliminarPartes(String idSesion) {
+        Path dir = directorioSesion(idSesion);
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> archivos = Files.list(dir)) {
+            for (Path archivo : archivos.toList()) {
+                Files.deleteIfExists(archivo);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudieron eliminar las partes de {}: {}", idSesion, e.getMessage());
+        }
+    }
+
+    private Path directorioSesion(String idSesion) {
+        Path dir = directorioPartes.resolve(idSesion).normalize();
+        if (!dir.startsWith(directorioPartes)) {
+            throw new IllegalArgumentException("Sesión inválida: " + idSesion);
+        }
+        return dir;
+    }
+
+    private Path parte(String idSesion, int numero) {
+        return directorioSesion(idSesion).resolve(numero + ".part");
+    }
+
+    /**
+     * Abre las partes de una en una, en orden, a medida que se consumen
+     */
+    private class PartesEnumeration implements Enumeration<InputStream> {
+        private final UploadSesion sesion;
+        private int siguiente = 0;
+
+        PartesEnumeration(UploadSesion sesion) {
+            this.sesion = sesion;
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+            return siguiente < sesion.getTotalChunks();
+        }
+
+        @Override
+        public InputStream nextElement() {
+            try {
+                return new BufferedInputStream(Files.newInputStream(parte(sesion.getId(), siguiente++)), BUFFER);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
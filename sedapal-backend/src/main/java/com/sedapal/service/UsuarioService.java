@@ -1,10 +1,14 @@
 package com.sedapal.service;
 
+import com.sedapal.config.LecturaCompartida;
+import com.sedapal.config.LeerDelPrimario;
 import com.sedapal.dto.UsuarioDTO;
 import com.sedapal.model.AdminSistema;
+import com.sedapal.model.EventoDominio;
 import com.sedapal.model.Usuario;
 import com.sedapal.repository.AdminSistemaRepository;
 import com.sedapal.repository.UsuarioRepository;
+import com.sedapal.util.TextoUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,8 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final AdminSistemaRepository adminSistemaRepository;
     private final EmailService emailService;
+    private final BusquedaService busquedaService;
+    private final RegistroEventos registroEventos;
     private final Random random = new Random();
 
     /**
@@ -34,8 +40,8 @@ public class UsuarioService {
         }
 
         // Normalizar nombres
-        String nombreN = normalizarNombre(nombre);
-        String apellidoN = normalizarNombre(apellido);
+        String nombreN = TextoUtils.normalizarNombre(nombre);
+        String apellidoN = TextoUtils.normalizarNombre(apellido);
 
         // Crear usuario con la contraseña proporcionada
         Usuario admin = new Usuario();
@@ -47,6 +53,7 @@ public class UsuarioService {
         admin.setEstado(true);
 
         Usuario savedAdmin = usuarioRepository.save(admin);
+        busquedaService.indexarUsuario(savedAdmin);
         log.info("✅ Administrador creado: {} (ID: {})", email, savedAdmin.getId());
 
         // Asignar sistema al administrador
@@ -57,11 +64,14 @@ public class UsuarioService {
         
         adminSistemaRepository.save(adminSistema);
         log.info("✅ Sistema {} asignado al administrador {}", idSistema, savedAdmin.getId());
+        registroEventos.publicar(List.of(usuarioCreado(savedAdmin),
+                new EventoDominio.SistemaAsignado(savedAdmin.getId(), idSistema)));
 
         // Enviar credenciales por email al administrador
         try {
-            emailService.enviarCredenciales(email, nombre, apellido, contrasena, Usuario.Rol.admin);
-            log.info("✅ Email de credenciales (admin) enviado a: {}", email);
+            if (emailService.enviarCredenciales(email, nombre, apellido, contrasena, Usuario.Rol.admin)) {
+                log.info("✅ Email de credenciales (admin) enviado a: {}", email);
+            }
         } catch (Exception e) {
             log.error("❌ Error al enviar email a {}: {}", email, e.getMessage());
             // No fallar la creación si falla el email
@@ -84,8 +94,8 @@ public class UsuarioService {
         String contrasena = generarContrasenaUsuario(nombre, apellido);
 
         // Normalizar nombres
-        String nombreN = normalizarNombre(nombre);
-        String apellidoN = normalizarNombre(apellido);
+        String nombreN = TextoUtils.normalizarNombre(nombre);
+        String apellidoN = TextoUtils.normalizarNombre(apellido);
 
         // Crear usuario
         Usuario usuario = new Usuario();
@@ -97,12 +107,15 @@ public class UsuarioService {
         usuario.setEstado(true);
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
-        log.info("✅ Usuario creado: {} (ID: {}) - Contraseña: {}", email, savedUsuario.getId(), contrasena);
+        busquedaService.indexarUsuario(savedUsuario);
+        log.info("✅ Usuario creado: {} (ID: {})", email, savedUsuario.getId());
+        registroEventos.publicar(usuarioCreado(savedUsuario));
 
         // Enviar credenciales por email
         try {
-            emailService.enviarCredenciales(email, nombre, apellido, contrasena, Usuario.Rol.usuario);
-            log.info("✅ Email de credenciales enviado a: {}", email);
+            if (emailService.enviarCredenciales(email, nombre, apellido, contrasena, Usuario.Rol.usuario)) {
+                log.info("✅ Email de credenciales enviado a: {}", email);
+            }
         } catch (Exception e) {
             log.error("❌ Error al enviar email a {}: {}", email, e.getMessage());
             // No fallar la creación si falla el email
@@ -128,8 +141,8 @@ public class UsuarioService {
         String contrasena = generarContrasenaUsuario(nombre, apellido);
 
         // Normalizar nombres
-        String nombreN = normalizarNombre(nombre);
-        String apellidoN = normalizarNombre(apellido);
+        String nombreN = TextoUtils.normalizarNombre(nombre);
+        String apellidoN = TextoUtils.normalizarNombre(apellido);
 
         // Crear usuario
         Usuario usuario = new Usuario();
@@ -141,16 +154,18 @@ public class UsuarioService {
         usuario.setEstado(true);
 
         Usuario savedUsuario = usuarioRepository.save(usuario);
-        log.info("✅ Usuario creado con actividad: {} (ID: {}) - Contraseña: {}", 
-                 email, savedUsuario.getId(), contrasena);
+        busquedaService.indexarUsuario(savedUsuario);
+        log.info("✅ Usuario creado con actividad: {} (ID: {})", email, savedUsuario.getId());
+        registroEventos.publicar(usuarioCreado(savedUsuario));
 
         // Enviar credenciales + actividad por email
         try {
-            emailService.enviarCredencialesConActividad(
+            if (emailService.enviarCredencialesConActividad(
                 email, nombre, apellido, contrasena, 
                 nombreActividad, sistemaAbrev, equipoNombre, trimestre, fechaMaxima
-            );
-            log.info("✅ Email de credenciales + actividad enviado a: {}", email);
+            )) {
+                log.info("✅ Email de credenciales + actividad enviado a: {}", email);
+            }
         } catch (Exception e) {
             log.error("❌ Error al enviar email a {}: {}", email, e.getMessage());
             // No fallar la creación si falla el email
@@ -174,6 +189,8 @@ public class UsuarioService {
     /**
      * Obtener usuario por email
      */
+    @LecturaCompartida(clave = "#email")
+    @Transactional(readOnly = true)
     public UsuarioDTO.UsuarioResponse obtenerPorEmail(String email) {
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
@@ -184,6 +201,9 @@ public class UsuarioService {
     /**
      * Obtener todos los administradores activos
      */
+    @LecturaCompartida
+    @LeerDelPrimario
+    @Transactional(readOnly = true)
     public List<UsuarioDTO.UsuarioResponse> obtenerAdministradores() {
         return usuarioRepository.findByRolAndEstado(Usuario.Rol.admin, true)
                 .stream()
@@ -195,7 +215,7 @@ public class UsuarioService {
      * Generar contraseña para administrador
      * Formato: Admin + inicial nombre + inicial apellido + 2 dígitos
      */
-    private String generarContrasenaAdmin(String nombre, String apellido) {
+    String generarContrasenaAdmin(String nombre, String apellido) {
         char inicialNombre = Character.toUpperCase(nombre.charAt(0));
         char inicialApellido = Character.toUpperCase(apellido.charAt(0));
         int numero = 10 + random.nextInt(90); // 10-99
@@ -207,7 +227,7 @@ public class UsuarioService {
      * Generar contraseña para usuario
      * Formato: User + inicial nombre + inicial apellido + 2 dígitos
      */
-    private String generarContrasenaUsuario(String nombre, String apellido) {
+    String generarContrasenaUsuario(String nombre, String apellido) {
         char inicialNombre = Character.toUpperCase(nombre.charAt(0));
         char inicialApellido = Character.toUpperCase(apellido.charAt(0));
         int numero = 10 + random.nextInt(90); // 10-99
@@ -215,17 +235,8 @@ public class UsuarioService {
         return "User" + inicialNombre + inicialApellido + numero;
     }
 
-    private String normalizarNombre(String s) {
-        if (s == null) return null;
-        s = s.trim().toLowerCase();
-        String[] parts = s.split("\\s+");
-        StringBuilder sb = new StringBuilder();
-        for (String p : parts) {
-            if (p.isEmpty()) continue;
-            sb.append(Character.toUpperCase(p.charAt(0)))
-              .append(p.substring(1))
-              .append(" ");
-        }
-        return sb.toString().trim();
+    private static EventoDominio.UsuarioCreado usuarioCreado(Usuario usuario) {
+        return new EventoDominio.UsuarioCreado(usuario.getId(), usuario.getEmail(), usuario.getNombre(),
+                usuario.getApellido(), usuario.getRol());
     }
 }
@@ -0,0 +1,202 @@
+package com.sedapal.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker más bulkhead para una dependencia externa (SMTP, JDBC).
+ *
+ * El bulkhead limita cuántos hilos pueden estar dentro de la dependencia a la vez, así
+ * que cuando se degrada sólo quedan bloqueados esos hilos y no todos los de Tomcat.
+ * El circuito se abre tras N fallos seguidos y rechaza todo al instante durante
+ * abiertoMs; después pasa a SEMIABIERTO y deja pasar una sola llamada de prueba: si
+ * funciona se cierra, si falla vuelve a abrirse.
+ *
+ * Uso: {@code Permiso p = circuito.entrar(); ... p.exito() / p.fallo()}, o p.liberar() si
+ * la llamada no llegó a la dependencia. Cada permiso se cierra una sola vez (los llamados
+ * repetidos no cuentan). Si entrar() rechaza la
+ * llamada lanza RechazoException, para que el llamador responda en modo degradado.
+ * Con maxConcurrentes <= 0 no hay bulkhead, sólo circuito.
+ */
+@Slf4j
+public class Circuito {
+
+    public enum Estado { CERRADO, ABIERTO, SEMIABIERTO }
+
+    private final String nombre;
+    private final int umbralFallos;
+    private final long abiertoMs;
+    private final int maxConcurrentes;
+    private final long esperaMs;
+    private final Semaphore permisos;
+
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.CERRADO);
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private final AtomicBoolean pruebaEnCurso = new AtomicBoolean();
+    private volatile long abiertoHasta;
+
+    private final AtomicLong rechazosAbierto = new AtomicLong();
+    private final AtomicLong rechazosSaturado = new AtomicLong();
+    private final AtomicLong aperturas = new AtomicLong();
+
+    public Circuito(String nombre, int umbralFallos, long abiertoMs, int maxConcurrentes, long esperaMs) {
+        this.nombre = nombre;
+        this.umbralFallos = umbralFallos;
+        this.abiertoMs = abiertoMs;
+        this.maxConcurrentes = maxConcurrentes > 0 ? maxConcurrentes : Integer.MAX_VALUE;
+        this.esperaMs = esperaMs;
+        this.permisos = new Semaphore(this.maxConcurrentes, true);
+    }
+
+    /**
+     * Permiso para llamar a la dependencia. Rechaza sin esperar si el circuito está
+     * abierto, o tras esperaMs si el bulkhead sigue lleno.
+     */
+    public Permiso entrar() {
+        boolean prueba = false;
+        if (estado.get() != Estado.CERRADO) {
+            if (System.currentTimeMillis() < abiertoHasta || !pruebaEnCurso.compareAndSet(false, true)) {
+                rechazosAbierto.incrementAndGet();
+                throw new RechazoException(nombre, "circuito abierto");
+            }
+            prueba = true;
+            if (estado.compareAndSet(Estado.ABIERTO, Estado.SEMIABIERTO)) {
+                log.info("🔌 Circuito {} semiabierto: probando con una llamada", nombre);
+            }
+        }
+        boolean adquirido;
+        try {
+            adquirido = esperaMs > 0 ? permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS) : permisos.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            if (prueba) {
+                pruebaEnCurso.set(false);
+            }
+            rechazosSaturado.incrementAndGet();
+            throw new RechazoException(nombre, "máximo de " + maxConcurrentes + " llamadas concurrentes");
+        }
+        return new Permiso(prueba);
+    }
+
+    public Estado getEstado() {
+        return estado.get();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getEnUso() {
+        return maxConcurrentes - permisos.availablePermits();
+    }
+
+    public long getRechazosAbierto() {
+        return rechazosAbierto.get();
+    }
+
+    public long getRechazosSaturado() {
+        return rechazosSaturado.get();
+    }
+
+    public long getAperturas() {
+        return aperturas.get();
+    }
+
+    private void registrarExito(boolean prueba) {
+        fallosSeguidos.set(0);
+        if (prueba) {
+            estado.set(Estado.CERRADO);
+            pruebaEnCurso.set(false);
+            log.info("✅ Circuito {} cerrado: la dependencia volvió a responder", nombre);
+        }
+    }
+
+    private void registrarFallo(boolean prueba) {
+        if (prueba || fallosSeguidos.incrementAndGet() >= umbralFallos) {
+            abiertoHasta = System.currentTimeMillis() + abiertoMs;
+            Estado anterior = estado.getAndSet(Estado.ABIERTO);
+            pruebaEnCurso.set(false);
+            fallosSeguidos.set(0);
+            if (anterior != Estado.ABIERTO) {
+                aperturas.incrementAndGet();
+                log.warn("⚠️ Circuito {} abierto por {} ms: se rechazan las llamadas sin esperar", nombre, abiertoMs);
+            }
+        }
+    }
+
+    public final class Permiso {
+
+        private final boolean prueba;
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+
+        private Permiso(boolean prueba) {
+            this.prueba = prueba;
+        }
+
+        public void exito() {
+            if (cerrado.compareAndSet(false, true)) {
+                permisos.release();
+                registrarExito(prueba);
+            }
+        }
+
+        public void fallo() {
+            if (cerrado.compareAndSet(false, true)) {
+                permisos.release();
+                registrarFallo(prueba);
+            }
+        }
+
+        /**
+         * La llamada no llegó a la dependencia (saturación local): no cuenta como éxito
+         * ni como fallo. Si era la prueba, la siguiente llamada vuelve a probar.
+         */
+        public void liberar() {
+            if (cerrado.compareAndSet(false, true)) {
+                permisos.release();
+                if (prueba) {
+                    pruebaEnCurso.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Relanzar el rechazo de un circuito si está en la cadena de causas (por ejemplo, el
+     * de CircuitoDataSource envuelto por Spring o Hibernate). Los controladores lo llaman
+     * en sus catch genéricos para responder 503 y no un 400 o 500.
+     */
+    public static void relanzarRechazo(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RechazoException rechazo) {
+                throw rechazo;
+            }
+        }
+    }
+
+    /**
+     * La llamada no se hizo: circuito abierto o bulkhead lleno
+     */
+    public static class RechazoException extends RuntimeException {
+
+        private final String dependencia;
+
+        public RechazoException(String dependencia, String motivo) {
+            super("Dependencia " + dependencia + " no disponible: " + motivo);
+            this.dependencia = dependencia;
+        }
+
+        public String getDependencia() {
+            return dependencia;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sedapal.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Utilidades de texto compartidas (normalización de nombres y búsqueda)
+ */
+public final class TextoUtils {
+
+    private TextoUtils() {
+    }
+
+    /**
+     * Normalizar un nombre para guardarlo: espacios colapsados y cada palabra capitalizada.
+     * Ej: "  maría   JOSÉ " -> "María José"
+     */
+    public static String normalizarNombre(String s) {
+        if (s == null) return null;
+        s = s.trim().toLowerCase();
+        String[] parts = s.split("\\s+");
+        StringBuilder sb = new StringBuilder();
+        for (String p : parts) {
+            if (p.isEmpty()) continue;
+            sb.append(Character.toUpperCase(p.charAt(0)))
+              .append(p.substring(1))
+              .append(" ");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * Plegar un texto para comparar sin tildes ni mayúsculas: "Gestión Ñuño" -> "gestion nuno"
+     */
+    public static String plegar(String s) {
+        if (s == null) return "";
+        String sinMarcas = Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tokens alfanuméricos de un texto ya plegado
+     */
+    public static List<String> tokens(String plegado) {
+        List<String> tokens = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= plegado.length(); i++) {
+            boolean alfanumerico = i < plegado.length() && Character.isLetterOrDigit(plegado.charAt(i));
+            if (alfanumerico && inicio < 0) {
+                inicio = i;
+            } else if (!alfanumerico && inicio >= 0) {
+                tokens.add(plegado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,173 @@
+-- ============================================
+-- Esquema base (versión 1)
+-- Reúne los scripts que hasta ahora se aplicaban a mano en Supabase
+-- (database/roles_y_relaciones.sql, create_entregables_final.sql,
+-- create_usuario_equipo.sql, add_id_entregable_to_actividades.sql y
+-- db/create_admin_sistemas.sql), tal como están hoy en Supabase.
+-- La base de Supabase ya tiene este esquema: Flyway la marca en la versión 1
+-- (spring.flyway.baseline-on-migrate) y sólo aplica las migraciones siguientes,
+-- así que todo lo nuevo va en V2 en adelante, nunca aquí.
+-- Quedan fuera las políticas RLS, storage.* y los GRANT a roles de Supabase.
+-- ============================================
+
+-- Catálogos
+CREATE TABLE IF NOT EXISTS tb_sistemas (
+    id BIGSERIAL PRIMARY KEY,
+    desc_sistema VARCHAR(255) NOT NULL,
+    abrev VARCHAR(50),
+    administrador VARCHAR(255),
+    suplente VARCHAR(255),
+    estado INTEGER NOT NULL DEFAULT 1
+);
+
+CREATE TABLE IF NOT EXISTS tb_gerencias (
+    id_gerencia SERIAL PRIMARY KEY,
+    desc_gerencia VARCHAR(255) NOT NULL,
+    estado INTEGER NOT NULL DEFAULT 1
+);
+
+CREATE TABLE IF NOT EXISTS tb_equipos (
+    id_equipo SERIAL PRIMARY KEY,
+    id_gerencia INTEGER REFERENCES tb_gerencias(id_gerencia),
+    desc_equipo VARCHAR(255) NOT NULL,
+    estado INTEGER NOT NULL DEFAULT 1
+);
+
+-- Usuarios (SuperAdmin, Admin, Usuario)
+CREATE TABLE IF NOT EXISTS tb_usuarios (
+    id_usuario SERIAL PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    apellido VARCHAR(100) NOT NULL,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    contrasena VARCHAR(255) NOT NULL,
+    rol VARCHAR(20) CHECK (rol IN ('superadmin', 'admin', 'usuario')) NOT NULL,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    estado BOOLEAN DEFAULT TRUE
+);
+
+CREATE TABLE IF NOT EXISTS tb_usuario_equipo (
+    id SERIAL PRIMARY KEY,
+    id_usuario INTEGER NOT NULL UNIQUE,
+    id_gerencia INTEGER,
+    id_equipo INTEGER,
+    fecha_asignacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_usuario_equipo_usuario
+        FOREIGN KEY (id_usuario) REFERENCES tb_usuarios(id_usuario) ON DELETE CASCADE,
+    CONSTRAINT fk_usuario_equipo_gerencia
+        FOREIGN KEY (id_gerencia) REFERENCES tb_gerencias(id_gerencia) ON DELETE SET NULL,
+    CONSTRAINT fk_usuario_equipo_equipo
+        FOREIGN KEY (id_equipo) REFERENCES tb_equipos(id_equipo) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_usuario_equipo_usuario ON tb_usuario_equipo(id_usuario);
+CREATE INDEX IF NOT EXISTS idx_usuario_equipo_gerencia ON tb_usuario_equipo(id_gerencia);
+CREATE INDEX IF NOT EXISTS idx_usuario_equipo_equipo ON tb_usuario_equipo(id_equipo);
+
+-- Actividades y sus relaciones
+CREATE TABLE IF NOT EXISTS tb_actividades (
+    id_actividad BIGSERIAL PRIMARY KEY,
+    nombre_actividad VARCHAR(500),
+    cod_cat_int INTEGER,
+    id_empresa INTEGER,
+    estado BOOLEAN DEFAULT TRUE,
+    trimestre INTEGER,
+    fecha_sustento DATE,
+    fecha_maxima_entrega DATE,
+    evaluacion VARCHAR(50),
+    estado_actividad VARCHAR(50),
+    id_entregable INTEGER
+);
+
+CREATE INDEX IF NOT EXISTS idx_actividades_entregable ON tb_actividades(id_entregable);
+
+CREATE TABLE IF NOT EXISTS tb_as_sis_act (
+    id SERIAL PRIMARY KEY,
+    id_actividad BIGINT NOT NULL REFERENCES tb_actividades(id_actividad) ON DELETE CASCADE,
+    id_sistema BIGINT NOT NULL REFERENCES tb_sistemas(id) ON DELETE CASCADE,
+    id_equipo INTEGER REFERENCES tb_equipos(id_equipo),
+    id_gerencia INTEGER REFERENCES tb_gerencias(id_gerencia),
+    cod_cat_int INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS tb_actividad_trimestres (
+    id SERIAL PRIMARY KEY,
+    id_actividad BIGINT NOT NULL REFERENCES tb_actividades(id_actividad) ON DELETE CASCADE,
+    trimestre INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS tb_admin_sistemas (
+    id_admin_sistema BIGSERIAL PRIMARY KEY,
+    id_admin BIGINT NOT NULL REFERENCES tb_usuarios(id_usuario) ON DELETE CASCADE,
+    id_sistema BIGINT NOT NULL REFERENCES tb_sistemas(id) ON DELETE CASCADE,
+    fecha_asignacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+
+    CONSTRAINT uk_admin_sistema UNIQUE (id_admin, id_sistema)
+);
+
+CREATE INDEX IF NOT EXISTS idx_admin_sistemas_admin ON tb_admin_sistemas(id_admin);
+CREATE INDEX IF NOT EXISTS idx_admin_sistemas_sistema ON tb_admin_sistemas(id_sistema);
+CREATE INDEX IF NOT EXISTS idx_admin_sistemas_estado ON tb_admin_sistemas(estado);
+
+CREATE TABLE IF NOT EXISTS tb_admin_actividades (
+    id SERIAL PRIMARY KEY,
+    id_admin INT NOT NULL REFERENCES tb_usuarios(id_usuario) ON DELETE CASCADE,
+    id_actividad INT NOT NULL,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (id_admin, id_actividad)
+);
+
+CREATE INDEX IF NOT EXISTS idx_admin_actividades_admin ON tb_admin_actividades(id_admin);
+CREATE INDEX IF NOT EXISTS idx_admin_actividades_actividad ON tb_admin_actividades(id_actividad);
+
+CREATE TABLE IF NOT EXISTS tb_usuario_actividades (
+    id SERIAL PRIMARY KEY,
+    id_usuario INT NOT NULL REFERENCES tb_usuarios(id_usuario) ON DELETE CASCADE,
+    id_actividad INT NOT NULL,
+    fecha_asignacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    cumplimiento VARCHAR(20) CHECK (cumplimiento IN ('cumple', 'no_cumple', 'pendiente')) DEFAULT 'pendiente',
+    UNIQUE (id_usuario, id_actividad)
+);
+
+CREATE INDEX IF NOT EXISTS idx_usuario_actividades_usuario ON tb_usuario_actividades(id_usuario);
+CREATE INDEX IF NOT EXISTS idx_usuario_actividades_actividad ON tb_usuario_actividades(id_actividad);
+
+CREATE TABLE IF NOT EXISTS tb_cambios_fecha (
+    id SERIAL PRIMARY KEY,
+    id_actividad INT NOT NULL,
+    fecha_anterior DATE,
+    fecha_nueva DATE NOT NULL,
+    modificado_por INT NOT NULL REFERENCES tb_usuarios(id_usuario),
+    fecha_modificacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_cambios_fecha_actividad ON tb_cambios_fecha(id_actividad);
+
+-- Entregables
+CREATE TABLE IF NOT EXISTS tb_entregables (
+    id SERIAL PRIMARY KEY,
+    id_actividad INTEGER NOT NULL REFERENCES tb_actividades(id_actividad) ON DELETE CASCADE,
+    nombre_archivo VARCHAR(255) NOT NULL,
+    ruta_archivo VARCHAR(500) NOT NULL,
+    tamaño_archivo BIGINT,
+    subido_por INTEGER NOT NULL REFERENCES tb_usuarios(id_usuario) ON DELETE CASCADE,
+    fecha_subida TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_entregables_actividad ON tb_entregables(id_actividad);
+CREATE INDEX IF NOT EXISTS idx_entregables_usuario ON tb_entregables(subido_por);
+CREATE INDEX IF NOT EXISTS idx_entregables_fecha ON tb_entregables(fecha_subida DESC);
+
+-- Usuario SuperAdmin inicial (contraseña: superadmin123)
+INSERT INTO tb_usuarios (nombre, apellido, email, contrasena, rol)
+VALUES ('Super', 'Administrador', 'superadmin@sedapal.com', 'superadmin123', 'superadmin')
+ON CONFLICT (email) DO NOTHING;
+
+-- Comentarios
+COMMENT ON TABLE tb_usuarios IS 'Almacena todos los usuarios del sistema (SuperAdmin, Admin, Usuario)';
+COMMENT ON TABLE tb_admin_sistemas IS 'Relación entre administradores y los sistemas que les fueron delegados';
+COMMENT ON TABLE tb_admin_actividades IS 'Relación entre administradores y las actividades que crearon';
+COMMENT ON TABLE tb_usuario_actividades IS 'Relación entre usuarios y las actividades que les fueron asignadas';
+COMMENT ON TABLE tb_cambios_fecha IS 'Historial de cambios de fecha máxima de entrega (límite 2 cambios por actividad)';
+COMMENT ON TABLE tb_entregables IS 'Almacena los archivos entregables subidos por los usuarios para cada actividad';
@@ -0,0 +1,29 @@
+-- Sesiones de subida reanudable de entregables (subida por chunks)
+CREATE TABLE IF NOT EXISTS tb_upload_sesiones (
+    id_sesion VARCHAR(36) PRIMARY KEY,
+    id_actividad BIGINT NOT NULL,
+    subido_por BIGINT NOT NULL,
+    nombre_archivo VARCHAR(255) NOT NULL,
+    tamano_total BIGINT NOT NULL,
+    tamano_chunk INTEGER NOT NULL,
+    total_chunks INTEGER NOT NULL,
+    estado VARCHAR(20) NOT NULL DEFAULT 'activa',
+    id_entregable BIGINT,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_upload_sesiones_usuario
+        FOREIGN KEY (subido_por)
+        REFERENCES tb_usuarios(id_usuario)
+        ON DELETE CASCADE,
+
+    CONSTRAINT chk_upload_sesiones_estado
+        CHECK (estado IN ('activa', 'completada'))
+);
+
+-- Índice para el recolector de sesiones abandonadas
+CREATE INDEX IF NOT EXISTS idx_upload_sesiones_estado_fecha ON tb_upload_sesiones(estado, fecha_creacion);
+
+-- Comentarios
+COMMENT ON TABLE tb_upload_sesiones IS 'Sesiones de subida por chunks; sobreviven a reinicios del backend';
+COMMENT ON COLUMN tb_upload_sesiones.tamano_chunk IS 'Tamaño de cada chunk en bytes (el último puede ser menor)';
+COMMENT ON COLUMN tb_upload_sesiones.id_entregable IS 'Entregable creado al finalizar la sesión';
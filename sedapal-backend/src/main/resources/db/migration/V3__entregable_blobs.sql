@@ -0,0 +1,27 @@
+-- Contenido de entregables direccionado por SHA-256 (deduplicación)
+CREATE TABLE IF NOT EXISTS tb_entregable_blobs (
+    hash CHAR(64) PRIMARY KEY,
+    ruta VARCHAR(500) NOT NULL,
+    tamano BIGINT NOT NULL,
+    referencias INTEGER NOT NULL DEFAULT 0,
+    fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    fecha_sin_referencias TIMESTAMP,
+
+    CONSTRAINT chk_entregable_blobs_referencias CHECK (referencias >= 0)
+);
+
+-- Referencia desde cada entregable a su contenido (NULL para archivos anteriores)
+ALTER TABLE tb_entregables ADD COLUMN IF NOT EXISTS hash_sha256 CHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_entregables_hash ON tb_entregables(hash_sha256);
+
+-- Índice parcial para el recolector de blobs huérfanos
+CREATE INDEX IF NOT EXISTS idx_entregable_blobs_huerfanos
+    ON tb_entregable_blobs(fecha_sin_referencias)
+    WHERE referencias = 0;
+
+-- Comentarios
+COMMENT ON TABLE tb_entregable_blobs IS 'Contenido único de archivos entregables, compartido entre filas de tb_entregables';
+COMMENT ON COLUMN tb_entregable_blobs.referencias IS 'Cantidad de entregables que apuntan a este contenido';
+COMMENT ON COLUMN tb_entregable_blobs.fecha_sin_referencias IS 'Momento en que el contador llegó a 0 (para el recolector)';
+COMMENT ON COLUMN tb_entregables.hash_sha256 IS 'SHA-256 del contenido en tb_entregable_blobs';
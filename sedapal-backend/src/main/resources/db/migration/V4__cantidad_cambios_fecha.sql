@@ -0,0 +1,19 @@
+-- Contador desnormalizado de reprogramaciones por actividad
+ALTER TABLE tb_actividades
+ADD COLUMN IF NOT EXISTS cantidad_cambios_fecha INTEGER NOT NULL DEFAULT 0;
+
+-- Inicializar el contador con el historial existente
+UPDATE tb_actividades a
+SET cantidad_cambios_fecha = c.total
+FROM (
+    SELECT id_actividad, COUNT(*) AS total
+    FROM tb_cambios_fecha
+    GROUP BY id_actividad
+) c
+WHERE c.id_actividad = a.id_actividad;
+
+-- Historial paginado por actividad, del más reciente al más antiguo
+CREATE INDEX IF NOT EXISTS idx_cambios_fecha_actividad_fecha
+    ON tb_cambios_fecha(id_actividad, fecha_modificacion DESC);
+
+COMMENT ON COLUMN tb_actividades.cantidad_cambios_fecha IS 'Cantidad de cambios de fecha (se incrementa junto con cada fila de tb_cambios_fecha)';
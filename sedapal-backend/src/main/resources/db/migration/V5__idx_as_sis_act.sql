@@ -0,0 +1,3 @@
+-- Relación actividad -> sistema/equipo por actividad (listado en streaming, filtros por sistema)
+CREATE INDEX IF NOT EXISTS idx_as_sis_act_actividad
+    ON tb_as_sis_act(id_actividad, id);
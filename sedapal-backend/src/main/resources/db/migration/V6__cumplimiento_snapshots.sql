@@ -0,0 +1,34 @@
+-- Historial diario de cumplimiento por sistema, gerencia, equipo y trimestre
+-- (lo llena TendenciaService cada noche; GET /api/tendencias lo lee)
+CREATE TABLE IF NOT EXISTS tb_cumplimiento_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    fecha DATE NOT NULL,
+    dimension VARCHAR(10) NOT NULL,
+    id_dimension BIGINT NOT NULL,
+    actividades INTEGER NOT NULL,
+    completadas INTEGER NOT NULL,
+    pendientes INTEGER NOT NULL,
+    asignaciones INTEGER NOT NULL,
+    cumple INTEGER NOT NULL,
+    no_cumple INTEGER NOT NULL,
+    tasa_actividades NUMERIC(5,2),
+    tasa_asignaciones NUMERIC(5,2),
+    fecha_calculo TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_cumplimiento_snapshots_dimension
+        CHECK (dimension IN ('total', 'sistema', 'gerencia', 'equipo', 'trimestre'))
+);
+
+-- Tendencia de un sistema/gerencia/equipo/trimestre: un solo rango del índice
+CREATE UNIQUE INDEX IF NOT EXISTS uq_cumplimiento_snapshots_dimension_fecha
+    ON tb_cumplimiento_snapshots(dimension, id_dimension, fecha);
+-- Tendencia de todos los de una dimensión y reemplazo del snapshot de un día
+CREATE INDEX IF NOT EXISTS idx_cumplimiento_snapshots_fecha
+    ON tb_cumplimiento_snapshots(dimension, fecha);
+
+-- Particiones por sistema del cálculo (relación principal de cada actividad)
+CREATE INDEX IF NOT EXISTS idx_as_sis_act_sistema ON tb_as_sis_act(id_sistema);
+
+COMMENT ON TABLE tb_cumplimiento_snapshots IS 'Cumplimiento diario por dimensión; id_dimension 0 = sin gerencia/equipo/trimestre';
+COMMENT ON COLUMN tb_cumplimiento_snapshots.tasa_actividades IS 'Porcentaje de actividades completadas sobre completadas + pendientes/reprogramadas';
+COMMENT ON COLUMN tb_cumplimiento_snapshots.tasa_asignaciones IS 'Porcentaje de asignaciones (tb_usuario_actividades) que cumplen';
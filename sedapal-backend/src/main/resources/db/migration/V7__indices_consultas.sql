@@ -0,0 +1,46 @@
+-- ============================================
+-- Índices para las consultas de los repositorios
+-- (los verifica VerificacionPlanes: mvn -Pplanes -DskipTests verify)
+--
+-- Los filtros por estado llegan como parámetro ($n), así que van como segunda
+-- columna de un índice compuesto: un índice parcial "WHERE estado" no sirve
+-- para el plan genérico que Postgres usa con sentencias preparadas.
+-- ============================================
+
+-- Sistemas de un admin / admins de un sistema (AdminSistemaRepository)
+CREATE INDEX IF NOT EXISTS idx_admin_sistemas_admin_estado ON tb_admin_sistemas(id_admin, estado);
+CREATE INDEX IF NOT EXISTS idx_admin_sistemas_sistema_estado ON tb_admin_sistemas(id_sistema, estado);
+DROP INDEX IF EXISTS idx_admin_sistemas_admin;
+DROP INDEX IF EXISTS idx_admin_sistemas_sistema;
+DROP INDEX IF EXISTS idx_admin_sistemas_estado;
+
+-- Asignaciones por actividad, con el cumplimiento para el listado y el snapshot
+-- sin ir a la tabla. Por usuario ya la cubre UNIQUE (id_usuario, id_actividad).
+CREATE INDEX IF NOT EXISTS idx_usuario_actividades_actividad_cumplimiento
+    ON tb_usuario_actividades(id_actividad) INCLUDE (cumplimiento);
+DROP INDEX IF EXISTS idx_usuario_actividades_actividad;
+DROP INDEX IF EXISTS idx_usuario_actividades_usuario;
+
+-- Por admin ya la cubre UNIQUE (id_admin, id_actividad); por usuario, UNIQUE (id_usuario)
+CREATE INDEX IF NOT EXISTS idx_admin_actividades_actividad ON tb_admin_actividades(id_actividad);
+DROP INDEX IF EXISTS idx_admin_actividades_admin;
+DROP INDEX IF EXISTS idx_usuario_equipo_usuario;
+
+-- Historial por actividad: ya lo cubre idx_cambios_fecha_actividad_fecha
+DROP INDEX IF EXISTS idx_cambios_fecha_actividad;
+
+-- Entregables de una actividad del más reciente al más antiguo
+CREATE INDEX IF NOT EXISTS idx_entregables_actividad_fecha
+    ON tb_entregables(id_actividad, fecha_subida DESC);
+DROP INDEX IF EXISTS idx_entregables_actividad;
+
+CREATE INDEX IF NOT EXISTS idx_actividad_trimestres_actividad
+    ON tb_actividad_trimestres(id_actividad, trimestre);
+
+-- Destinatarios por rol (superadmins activos)
+CREATE INDEX IF NOT EXISTS idx_usuarios_rol_estado ON tb_usuarios(rol, estado);
+
+CREATE INDEX IF NOT EXISTS idx_sistemas_estado ON tb_sistemas(estado);
+
+-- ¿Ya hay snapshot de hoy? / reemplazo del snapshot de un día
+CREATE INDEX IF NOT EXISTS idx_cumplimiento_snapshots_dia ON tb_cumplimiento_snapshots(fecha);
@@ -0,0 +1,35 @@
+-- ============================================
+-- Archivo frío de entregables (ArchivoEntregablesService)
+--
+-- Los objetos antiguos se mueven a archivo/ comprimidos con gzip (salvo los
+-- formatos que ya vienen comprimidos). La fila guarda el nivel y el códec para
+-- descomprimir al descargar; el blob también, para que una subida duplicada
+-- del mismo contenido apunte al objeto archivado.
+-- ============================================
+
+ALTER TABLE tb_entregables
+    ADD COLUMN IF NOT EXISTS nivel_almacenamiento VARCHAR(10) NOT NULL DEFAULT 'caliente',
+    ADD COLUMN IF NOT EXISTS codec VARCHAR(10),
+    ADD COLUMN IF NOT EXISTS tamano_almacenado BIGINT;
+
+ALTER TABLE tb_entregable_blobs
+    ADD COLUMN IF NOT EXISTS nivel_almacenamiento VARCHAR(10) NOT NULL DEFAULT 'caliente',
+    ADD COLUMN IF NOT EXISTS codec VARCHAR(10),
+    ADD COLUMN IF NOT EXISTS tamano_almacenado BIGINT;
+
+ALTER TABLE tb_entregables DROP CONSTRAINT IF EXISTS chk_entregables_nivel;
+ALTER TABLE tb_entregables ADD CONSTRAINT chk_entregables_nivel
+    CHECK (nivel_almacenamiento IN ('caliente', 'archivo'));
+ALTER TABLE tb_entregable_blobs DROP CONSTRAINT IF EXISTS chk_entregable_blobs_nivel;
+ALTER TABLE tb_entregable_blobs ADD CONSTRAINT chk_entregable_blobs_nivel
+    CHECK (nivel_almacenamiento IN ('caliente', 'archivo'));
+
+-- Candidatos a archivar recorridos por ruta (el nivel es un literal en la consulta,
+-- así que aquí sí sirve un índice parcial)
+CREATE INDEX IF NOT EXISTS idx_entregables_caliente_ruta
+    ON tb_entregables(ruta_archivo, fecha_subida)
+    WHERE nivel_almacenamiento = 'caliente';
+
+COMMENT ON COLUMN tb_entregables.nivel_almacenamiento IS 'caliente = almacenamiento principal, archivo = archivo frío (archivo/...)';
+COMMENT ON COLUMN tb_entregables.codec IS 'Compresión del objeto almacenado (gzip) o NULL si se guarda tal cual';
+COMMENT ON COLUMN tb_entregables.tamano_almacenado IS 'Bytes que ocupa el objeto en el archivo (tamaño_archivo es el original)';
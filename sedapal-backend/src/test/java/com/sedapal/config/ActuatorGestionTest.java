@@ -0,0 +1,61 @@
+package com.sedapal.config;
+
+import com.sedapal.soporte.PruebaIntegracion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Perfil "gestion": Actuator (con loggers) en el puerto de gestión y nada en el público.
+ * Contexto propio.
+ */
+@ActiveProfiles("gestion")
+class ActuatorGestionTest extends PruebaIntegracion {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalManagementPort
+    private int puertoGestion;
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Test
+    void actuatorSoloEnElPuertoDeGestion() throws Exception {
+        assertEquals(404, enviar("GET", "/actuator/loggers", null).statusCode());
+        assertEquals(404, enviar("GET", "/actuator/metrics", null).statusCode());
+        assertEquals(200, gestion("GET", "/actuator/metrics", null).statusCode());
+    }
+
+    @Test
+    void nivelesDeLogEnCaliente() throws Exception {
+        LogLevel antes = loggingSystem.getLoggerConfiguration("com.sedapal").getConfiguredLevel();
+        try {
+            assertEquals(204, gestion("POST", "/actuator/loggers/com.sedapal", "{\"configuredLevel\":\"WARN\"}").statusCode());
+            assertEquals(LogLevel.WARN, loggingSystem.getLoggerConfiguration("com.sedapal").getConfiguredLevel());
+        } finally {
+            loggingSystem.setLogLevel("com.sedapal", antes);
+        }
+    }
+
+    private HttpResponse<String> gestion(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.BodyPublisher publicador = cuerpo != null
+                ? HttpRequest.BodyPublishers.ofString(cuerpo)
+                : HttpRequest.BodyPublishers.noBody();
+        return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puertoGestion + ruta))
+                        .header("Content-Type", "application/json")
+                        .method(metodo, publicador)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
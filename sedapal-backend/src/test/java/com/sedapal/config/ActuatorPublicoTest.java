@@ -0,0 +1,38 @@
+package com.sedapal.config;
+
+import com.sedapal.soporte.PruebaIntegracion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * En el puerto público Actuator sólo expone endpoints de lectura: los niveles de log no se
+ * pueden ver ni cambiar sin autenticación
+ */
+class ActuatorPublicoTest extends PruebaIntegracion {
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Test
+    void loggersNoSeExpone() throws Exception {
+        assertEquals(404, enviar("GET", "/actuator/loggers", null).statusCode());
+
+        LogLevel antes = loggingSystem.getLoggerConfiguration("com.sedapal").getEffectiveLevel();
+        HttpResponse<byte[]> respuesta = enviar("POST", "/actuator/loggers/com.sedapal", "{\"configuredLevel\":\"OFF\"}");
+        assertNotEquals(204, respuesta.statusCode());
+        assertEquals(antes, loggingSystem.getLoggerConfiguration("com.sedapal").getEffectiveLevel());
+    }
+
+    @Test
+    void lecturasSiguenEnElPuertoPublico() throws Exception {
+        assertEquals(200, enviar("GET", "/actuator/metrics", null).statusCode());
+        assertEquals(200, enviar("GET", "/actuator/health", null).statusCode());
+    }
+}
@@ -0,0 +1,115 @@
+package com.sedapal.config;
+
+import com.sedapal.repository.AdminSistemaRepository;
+import com.sedapal.repository.SistemaRepository;
+import com.sedapal.soporte.PresupuestoConsultas;
+import com.sedapal.soporte.PruebaIntegracion;
+import com.sedapal.soporte.SentenciasDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lecturas que deben salir enteras de la caché de segundo nivel (entidades y consultas):
+ * cada una se llama dos veces con la caché intacta entre ambas y la segunda no puede
+ * preparar ninguna sentencia (Statistics.getPrepareStatementCount). RespuestasCache se
+ * vacía antes de cada llamada para que no tape un fallo de la caché de Hibernate.
+ */
+class CacheSegundoNivelTest extends PruebaIntegracion {
+
+    @FunctionalInterface
+    private interface Lectura {
+        void ejecutar() throws Exception;
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SistemaRepository sistemaRepository;
+
+    @Autowired
+    private AdminSistemaRepository adminSistemaRepository;
+
+    @Test
+    void sistemasDelAdmin() throws Exception {
+        verificarCacheada("GET /api/admin-sistemas/admin/2", () -> {
+            int estado = enviar("GET", "/api/admin-sistemas/admin/2", null).statusCode();
+            assertEquals(200, estado, "GET /api/admin-sistemas/admin/2");
+        });
+    }
+
+    @Test
+    void sistemaPorId() throws Exception {
+        verificarCacheada("SistemaRepository.findById", () -> sistemaRepository.findById(1L));
+    }
+
+    @Test
+    void sistemasPorEstado() throws Exception {
+        verificarCacheada("SistemaRepository.findByEstado", () -> sistemaRepository.findByEstado(1));
+    }
+
+    @Test
+    void sistemasPorIds() throws Exception {
+        verificarCacheada("SistemaRepository.findAllById", () -> sistemaRepository.findAllById(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void sistemasAsignadosAlAdmin() throws Exception {
+        verificarCacheada("SistemaRepository.findAsignadosAlAdmin", () -> sistemaRepository.findAsignadosAlAdmin(2L));
+    }
+
+    @Test
+    void asignacionesDelAdmin() throws Exception {
+        verificarCacheada("AdminSistemaRepository.findByIdAdminAndEstado",
+                () -> adminSistemaRepository.findByIdAdminAndEstado(2L, true));
+    }
+
+    @Test
+    void asignacionesDelSistema() throws Exception {
+        verificarCacheada("AdminSistemaRepository.findByIdSistemaAndEstado",
+                () -> adminSistemaRepository.findByIdSistemaAndEstado(1L, true));
+    }
+
+    @Test
+    void asignacion() throws Exception {
+        verificarCacheada("AdminSistemaRepository.findByIdAdminAndIdSistemaAndEstado",
+                () -> adminSistemaRepository.findByIdAdminAndIdSistemaAndEstado(2L, 1L, true));
+    }
+
+    /**
+     * Primera llamada con la caché fría (debe ir a la base, si no la prueba no prueba nada);
+     * la segunda con la caché caliente, sin sentencias
+     */
+    private void verificarCacheada(String caso, Lectura lectura) throws Exception {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        vaciarCacheSegundoNivel();
+
+        long antes = estadisticas.getPrepareStatementCount();
+        vaciarRespuestasCache();
+        lectura.ejecutar();
+        long fria = estadisticas.getPrepareStatementCount() - antes;
+        assertTrue(fria > 0, caso + ": con la caché fría no ejecutó SQL");
+
+        SentenciasDataSource sentencias = sentencias();
+        List<SentenciasDataSource.Sentencia> ejecutadas;
+        antes = estadisticas.getPrepareStatementCount();
+        vaciarRespuestasCache();
+        sentencias.grabar(false);
+        try {
+            lectura.ejecutar();
+        } finally {
+            ejecutadas = sentencias.detener();
+        }
+        long caliente = estadisticas.getPrepareStatementCount() - antes;
+        assertEquals(0, caliente, () -> caso + ": " + caliente + " sentencias con la caché caliente\n"
+                + PresupuestoConsultas.detalle(ejecutadas));
+    }
+}
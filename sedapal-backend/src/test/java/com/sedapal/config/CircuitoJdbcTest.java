@@ -0,0 +1,46 @@
+package com.sedapal.config;
+
+import com.sedapal.soporte.PruebaIntegracion;
+import com.sedapal.util.Circuito;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Con el circuito JDBC abierto las peticiones que necesitan la base responden 503,
+ * también las de controladores con catch genérico. Contexto propio: abre el circuito.
+ */
+@TestPropertySource(properties = {"app.circuitos.jdbc.fallos=1", "app.circuitos.jdbc.abierto-ms=1000"})
+class CircuitoJdbcTest extends PruebaIntegracion {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void circuitoAbiertoResponde503() throws Exception {
+        Circuito circuito = dataSource.unwrap(CircuitoDataSource.class).getCircuito();
+        vaciarCacheSegundoNivel();
+        vaciarRespuestasCache();
+
+        circuito.entrar().fallo();
+        // Sin catch en el controlador
+        verificarEstado(503, "/api/admin-sistemas/admin/2");
+        // Con catch genérico, que antes respondía 404
+        verificarEstado(503, "/api/usuarios/usuario1@carga.local");
+
+        Thread.sleep(1100);
+        verificarEstado(200, "/api/usuarios/usuario1@carga.local");
+        assertEquals(Circuito.Estado.CERRADO, circuito.getEstado());
+    }
+
+    private void verificarEstado(int estado, String ruta) throws Exception {
+        HttpResponse<byte[]> respuesta = enviar("GET", ruta, null);
+        assertEquals(estado, respuesta.statusCode(), () -> ruta + ": " + new String(respuesta.body(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,32 @@
+package com.sedapal.config;
+
+import com.sedapal.soporte.PruebaIntegracion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTask;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada tarea @Scheduled tiene su hilo: una tarea larga no atrasa a las demás
+ */
+class ProgramacionTareasTest extends PruebaIntegracion {
+
+    @Autowired
+    private ScheduledAnnotationBeanPostProcessor programadas;
+
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    @Test
+    void unHiloPorTarea() {
+        Set<ScheduledTask> tareas = programadas.getScheduledTasks();
+        int hilos = taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize();
+        assertTrue(hilos >= tareas.size(),
+                () -> tareas.size() + " tareas programadas y " + hilos + " hilos (spring.task.scheduling.pool.size): " + tareas);
+    }
+}
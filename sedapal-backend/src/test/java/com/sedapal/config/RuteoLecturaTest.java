@@ -0,0 +1,97 @@
+package com.sedapal.config;
+
+import com.sedapal.SedapalApplication;
+import com.sedapal.repository.ActividadRepository;
+import com.sedapal.repository.AdminSistemaRepository;
+import com.sedapal.repository.SistemaRepository;
+import com.sedapal.service.AdminSistemaService;
+import com.sedapal.service.UsuarioService;
+import com.sedapal.soporte.BaseDatosPrueba;
+import com.sedapal.soporte.EntornoPrueba;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La "réplica" es una base con el esquema y sin datos: una lectura readOnly que llega a
+ * ella no encuentra nada. Las que llenan cachés (@LeerDelPrimario) deben ver los datos
+ * del primario.
+ */
+@SpringBootTest(classes = SedapalApplication.class)
+@ActiveProfiles("carga")
+class RuteoLecturaTest {
+
+    @DynamicPropertySource
+    static void entorno(DynamicPropertyRegistry registro) {
+        EntornoPrueba.registrar(registro, "ruteo", "classpath:carga/datos.sql");
+        registro.add("app.datasource.replicas", () -> BaseDatosPrueba.url("ruteo_replica"));
+    }
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ActividadRepository actividadRepository;
+
+    @Autowired
+    private SistemaRepository sistemaRepository;
+
+    @Autowired
+    private AdminSistemaRepository adminSistemaRepository;
+
+    @Autowired
+    private AdminSistemaService adminSistemaService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    private TransactionTemplate soloLectura;
+
+    @BeforeEach
+    void preparar() {
+        soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void lecturasSinMarcaVanALaReplica() {
+        assertEquals(Long.valueOf(0), soloLectura.execute(s -> actividadRepository.count()));
+        assertTrue(new TransactionTemplate(transactionManager).execute(s -> actividadRepository.count()) > 0,
+                "fuera de readOnly se lee del primario");
+    }
+
+    @Test
+    void cargasDeRespuestasCacheVanAlPrimario() {
+        assertFalse(adminSistemaService.getSistemasByAdmin(2L).isEmpty());
+        assertFalse(usuarioService.obtenerAdministradores().isEmpty());
+    }
+
+    @Test
+    void consultasCacheadasVanAlPrimario() {
+        soloLectura.executeWithoutResult(s -> {
+            assertFalse(sistemaRepository.findByEstado(1).isEmpty());
+            assertFalse(sistemaRepository.findAllById(List.of(1L, 2L)).isEmpty());
+            assertFalse(sistemaRepository.findAsignadosAlAdmin(2L).isEmpty());
+            assertTrue(sistemaRepository.findById(1L).isPresent());
+            assertFalse(adminSistemaRepository.findByIdAdminAndEstado(2L, true).isEmpty());
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ActividadControllerTest extends PresupuestoEndpoints {
+
+    ActividadControllerTest() {
+        super(ActividadController.class);
+    }
+
+    /**
+     * 50 actividades con 2 usuarios cada una: el presupuesto no depende de la cantidad
+     */
+    @Test
+    void planificar() throws Exception {
+        StringBuilder bulk = new StringBuilder("{\"idAdmin\":2,\"notificar\":false,\"actividades\":[");
+        for (int i = 0; i < 50; i++) {
+            bulk.append(i > 0 ? "," : "").append("{\"nombreActividad\":\"Presupuesto ").append(i)
+                    .append("\",\"idSistema\":").append(1 + i % 20).append(",\"idEquipo\":").append(1 + i % 20)
+                    .append(",\"trimestres\":[3,4],\"fechaMaximaEntrega\":\"").append(LocalDate.now())
+                    .append("\",\"idsUsuarios\":[").append(22 + i).append(',').append(122 + i).append("]}");
+        }
+        peticion("POST", "/api/actividades/bulk", bulk.append("]}").toString(), 201, 10, 191);
+    }
+
+    @Test
+    void reprogramar() throws Exception {
+        peticion("POST", "/api/actividades/1/reprogramaciones",
+                "{\"modificadoPor\":2,\"fechaNueva\":\"" + LocalDate.now().plusMonths(1) + "\"}", 201, 3, 2);
+    }
+
+    @Test
+    void obtenerCantidadCambios() throws Exception {
+        peticion("GET", "/api/actividades/1/cambios-fecha/cantidad", null, 200, 1, 1);
+    }
+
+    @Test
+    void obtenerCantidadesCambios() throws Exception {
+        String ids = IntStream.rangeClosed(1, 50).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        peticion("GET", "/api/actividades/cambios-fecha/cantidades?ids=" + ids, null, 200, 1, 50);
+    }
+
+    @Test
+    void obtenerHistorialCambios() throws Exception {
+        peticion("GET", "/api/actividades/cambios-fecha?ids=1,2,3", null, 200, 1, 1);
+    }
+
+    @Test
+    void streamActividades() throws Exception {
+        peticion("GET", "/api/actividades/stream", null, 200, 1, 550);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+class AdminSistemaControllerTest extends PresupuestoEndpoints {
+
+    AdminSistemaControllerTest() {
+        super(AdminSistemaController.class);
+    }
+
+    @Test
+    void sistemasDelAdmin() throws Exception {
+        peticion("GET", "/api/admin-sistemas/admin/2", null, 200, 1, 3);
+    }
+}
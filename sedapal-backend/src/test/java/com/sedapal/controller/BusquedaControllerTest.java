@@ -0,0 +1,19 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+class BusquedaControllerTest extends PresupuestoEndpoints {
+
+    BusquedaControllerTest() {
+        super(BusquedaController.class);
+    }
+
+    /**
+     * El índice está en memoria: buscar no consulta la base
+     */
+    @Test
+    void buscar() throws Exception {
+        peticion("GET", "/api/buscar?q=gestion", null, 200, 0, 0);
+    }
+}
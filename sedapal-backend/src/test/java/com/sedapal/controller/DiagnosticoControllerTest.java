@@ -0,0 +1,31 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+class DiagnosticoControllerTest extends PresupuestoEndpoints {
+
+    DiagnosticoControllerTest() {
+        super(DiagnosticoController.class);
+    }
+
+    @Test
+    void pinning() throws Exception {
+        peticion("GET", "/api/diagnostico/pinning", null, 200, 0, 0);
+    }
+
+    @Test
+    void replicas() throws Exception {
+        peticion("GET", "/api/diagnostico/replicas", null, 200, 0, 0);
+    }
+
+    @Test
+    void consultas() throws Exception {
+        peticion("GET", "/api/diagnostico/consultas", null, 200, 0, 0);
+    }
+
+    @Test
+    void cache() throws Exception {
+        peticion("GET", "/api/diagnostico/cache", null, 200, 0, 0);
+    }
+}
@@ -0,0 +1,102 @@
+package com.sedapal.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Las pruebas siguen la vida de un entregable en orden: subida por partes, descarga,
+ * archivado (con edad-dias=0 el entregable recién subido pasa al archivo), descarga del
+ * archivado y eliminación
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class EntregableControllerTest extends PresupuestoEndpoints {
+
+    private static final String CHUNK = "informe trimestral de gestión\n".repeat(40);
+
+    private String idSesion;
+    private String id;
+
+    EntregableControllerTest() {
+        super(EntregableController.class);
+    }
+
+    @Test
+    @Order(1)
+    void crearSesion() throws Exception {
+        JsonNode sesion = peticion("POST", "/api/entregables/uploads", "{\"idActividad\":1,\"subidoPor\":2,"
+                + "\"nombreArchivo\":\"informe.txt\",\"tamanoTotal\":" + CHUNK.getBytes(StandardCharsets.UTF_8).length + "}",
+                201, 2, 0);
+        idSesion = sesion.get("idSesion").asText();
+    }
+
+    @Test
+    @Order(2)
+    void subirChunk() throws Exception {
+        peticion("PUT", "/api/entregables/uploads/" + idSesion + "/chunks/0", CHUNK, 204, 1, 1);
+    }
+
+    @Test
+    @Order(3)
+    void obtenerSesion() throws Exception {
+        peticion("GET", "/api/entregables/uploads/" + idSesion, null, 200, 1, 1);
+    }
+
+    @Test
+    @Order(4)
+    void finalizar() throws Exception {
+        id = peticion("POST", "/api/entregables/uploads/" + idSesion + "/finalizar", null, 201, 5, 3).get("id").asText();
+    }
+
+    @Test
+    @Order(5)
+    void descargar() throws Exception {
+        peticion("GET", "/api/entregables/" + id + "/descarga", null, 200, 1, 1);
+    }
+
+    @Test
+    @Order(6)
+    void descargarBundle() throws Exception {
+        peticion("GET", "/api/entregables/bundle?actividad=1", null, 200, 1, 1);
+    }
+
+    @Test
+    @Order(7)
+    void archivar() throws Exception {
+        peticion("POST", "/api/entregables/archivo/ejecutar", null, 200, 4, 2);
+    }
+
+    @Test
+    @Order(8)
+    void estadoArchivo() throws Exception {
+        peticion("GET", "/api/entregables/archivo", null, 200, 1, 1);
+    }
+
+    /**
+     * La descarga descomprime al vuelo el objeto archivado con gzip
+     */
+    @Test
+    @Order(9)
+    void descargarArchivado() throws Exception {
+        peticion("GET", "/api/entregables/" + id + "/descarga", null, 200, 1, 1);
+    }
+
+    @Test
+    @Order(10)
+    void eliminar() throws Exception {
+        peticion("DELETE", "/api/entregables/" + id, null, 204, 3, 1);
+    }
+
+    @Test
+    @Order(11)
+    void cancelar() throws Exception {
+        String borrador = peticion("POST", "/api/entregables/uploads", "{\"idActividad\":1,\"subidoPor\":2,"
+                + "\"nombreArchivo\":\"borrador.txt\",\"tamanoTotal\":10}", 201, 2, 0).get("idSesion").asText();
+        peticion("DELETE", "/api/entregables/uploads/" + borrador, null, 204, 2, 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+/**
+ * El registro de eventos no consulta la base
+ */
+class EventoControllerTest extends PresupuestoEndpoints {
+
+    EventoControllerTest() {
+        super(EventoController.class);
+    }
+
+    @Test
+    void leer() throws Exception {
+        peticion("GET", "/api/eventos?desde=0&limite=100", null, 200, 0, 0);
+    }
+
+    @Test
+    void estado() throws Exception {
+        peticion("GET", "/api/eventos/estado", null, 200, 0, 0);
+    }
+
+    @Test
+    void compactar() throws Exception {
+        peticion("POST", "/api/eventos/compactar", null, 200, 0, 0);
+    }
+}
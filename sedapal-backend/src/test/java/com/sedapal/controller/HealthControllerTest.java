@@ -0,0 +1,16 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+class HealthControllerTest extends PresupuestoEndpoints {
+
+    HealthControllerTest() {
+        super(HealthController.class);
+    }
+
+    @Test
+    void healthCheck() throws Exception {
+        peticion("GET", "/api/health", null, 200, 0, 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+/**
+ * Las notificaciones sólo envían correo (GreenMail): ninguna consulta la base
+ */
+class NotificacionControllerTest extends PresupuestoEndpoints {
+
+    private static final String HOY = LocalDate.now().toString();
+
+    NotificacionControllerTest() {
+        super(NotificacionController.class);
+    }
+
+    @Test
+    void actividadAsignada() throws Exception {
+        peticion("POST", "/api/notificaciones/actividad-asignada", "{\"email\":\"usuario1@carga.local\","
+                + "\"nombreUsuario\":\"Usuario\",\"nombreActividad\":\"Actividad\",\"sistemaAbrev\":\"SG1\","
+                + "\"equipoNombre\":\"Equipo 1\",\"trimestre\":1,\"fechaMaxima\":\"" + HOY + "\"}", 200, 0, 0);
+    }
+
+    @Test
+    void test() throws Exception {
+        peticion("POST", "/api/notificaciones/test", "{\"email\":\"usuario1@carga.local\"}", 200, 0, 0);
+    }
+
+    @Test
+    void usuarioCumplio() throws Exception {
+        peticion("POST", "/api/notificaciones/usuario-cumplio", "{\"adminEmail\":\"admin1@carga.local\","
+                + "\"usuarioNombre\":\"Usuario\",\"usuarioEmail\":\"usuario1@carga.local\",\"nombreActividad\":\"Actividad\","
+                + "\"entregableNombre\":\"informe.txt\",\"sistemaAbrev\":\"SG1\",\"equipoNombre\":\"Equipo 1\","
+                + "\"fechaMaxima\":\"" + HOY + "\"}", 200, 0, 0);
+    }
+
+    @Test
+    void conforme() throws Exception {
+        peticion("POST", "/api/notificaciones/conforme", "{\"usuariosDestino\":[\"usuario1@carga.local\"],"
+                + "\"superadminsDestino\":[\"admin1@carga.local\"],\"nombreActividad\":\"Actividad\","
+                + "\"entregableNombre\":\"informe.txt\",\"sistemaAbrev\":\"SG1\",\"equipoNombre\":\"Equipo 1\","
+                + "\"fechaMaxima\":\"" + HOY + "\"}", 200, 0, 0);
+    }
+
+    @Test
+    void usuarioCreado() throws Exception {
+        peticion("POST", "/api/notificaciones/usuario-creado", "{\"email\":\"usuario1@carga.local\","
+                + "\"nombreUsuario\":\"Usuario\",\"contrasena\":\"Carga123\",\"gerenciaNombre\":\"Gerencia 1\","
+                + "\"equipoNombre\":\"Equipo 1\"}", 200, 0, 0);
+    }
+
+    @Test
+    void asignacionSistema() throws Exception {
+        peticion("POST", "/api/notificaciones/asignacion-sistema", "{\"email\":\"admin1@carga.local\","
+                + "\"nombreAdmin\":\"Admin\",\"sistemaAbrev\":\"SG1\",\"sistemaNombre\":\"Sistema de Gestión 1\"}",
+                200, 0, 0);
+    }
+}
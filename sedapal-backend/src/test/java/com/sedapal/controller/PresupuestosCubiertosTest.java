@@ -0,0 +1,40 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cada controlador tiene su ControladorTest de presupuesto de consultas; que cubra todos
+ * sus endpoints lo verifica la propia clase al terminar (PresupuestoEndpoints)
+ */
+class PresupuestosCubiertosTest {
+
+    @Test
+    void controladoresSinPrueba() {
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        List<String> faltantes = escaner.findCandidateComponents(getClass().getPackageName()).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .filter(controlador -> !tienePrueba(controlador))
+                .sorted()
+                .toList();
+        assertTrue(faltantes.isEmpty(), () -> "Controladores sin prueba de presupuesto (ControladorTest extends PresupuestoEndpoints): "
+                + faltantes);
+    }
+
+    private static boolean tienePrueba(String controlador) {
+        try {
+            return PresupuestoEndpoints.class.isAssignableFrom(Class.forName(controlador + "Test"));
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.Test;
+
+class RevisionControllerTest extends PresupuestoEndpoints {
+
+    RevisionControllerTest() {
+        super(RevisionController.class);
+    }
+
+    /**
+     * 40 decisiones: el presupuesto no depende de la cantidad
+     */
+    @Test
+    void aplicarLote() throws Exception {
+        StringBuilder revision = new StringBuilder("{\"idRevisor\":1,\"decisiones\":[");
+        for (int i = 1; i <= 40; i++) {
+            revision.append(i > 1 ? "," : "").append("{\"idActividad\":").append(i)
+                    .append(",\"decision\":\"").append(i % 4 == 0 ? "observado" : "conforme").append("\"}");
+        }
+        peticion("POST", "/api/revisiones/batch", revision.append("]}").toString(), 200, 8, 102);
+    }
+}
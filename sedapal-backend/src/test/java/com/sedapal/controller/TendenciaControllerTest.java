@@ -0,0 +1,42 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TendenciaControllerTest extends PresupuestoEndpoints {
+
+    TendenciaControllerTest() {
+        super(TendenciaController.class);
+    }
+
+    /**
+     * Una consulta por sistema a propósito (20, en paralelo) + listado, borrado e INSERT en batch
+     */
+    @Test
+    @Order(1)
+    void generarSnapshot() throws Exception {
+        peticion("POST", "/api/tendencias/snapshot", null, 201, 23, 115);
+    }
+
+    /**
+     * El cálculo es del estado actual: guardarlo con una fecha pasada reescribiría el historial
+     */
+    @Test
+    void snapshotDeFechaPasada() throws Exception {
+        peticion("POST", "/api/tendencias/snapshot?fecha=2020-01-01", null, 400, 0, 0);
+    }
+
+    @Test
+    void tendenciaGlobal() throws Exception {
+        peticion("GET", "/api/tendencias", null, 200, 1, 1);
+    }
+
+    @Test
+    void tendenciaMensualPorSistema() throws Exception {
+        peticion("GET", "/api/tendencias?dimension=sistema&agrupacion=mes", null, 200, 1, 20);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sedapal.controller;
+
+import com.sedapal.soporte.PresupuestoEndpoints;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.time.LocalDate;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UsuarioControllerTest extends PresupuestoEndpoints {
+
+    UsuarioControllerTest() {
+        super(UsuarioController.class);
+    }
+
+    @Test
+    void health() throws Exception {
+        peticion("GET", "/api/usuarios/health", null, 200, 0, 0);
+    }
+
+    /**
+     * Antes de crearAdministrador: el máximo de filas es el de los 20 administradores de los datos
+     */
+    @Test
+    @Order(1)
+    void obtenerAdministradores() throws Exception {
+        peticion("GET", "/api/usuarios/admin/all", null, 200, 1, 20);
+    }
+
+    @Test
+    void obtenerPorEmail() throws Exception {
+        peticion("GET", "/api/usuarios/usuario1@carga.local", null, 200, 1, 1);
+    }
+
+    @Test
+    void validarCredenciales() throws Exception {
+        peticion("POST", "/api/usuarios/validar", "{\"email\":\"usuario1@carga.local\",\"contrasena\":\"Carga123\"}",
+                200, 1, 1);
+    }
+
+    @Test
+    void crearAdministrador() throws Exception {
+        peticion("POST", "/api/usuarios/admin", "{\"nombre\":\"Presupuesto\",\"apellido\":\"Admin\","
+                + "\"email\":\"presupuesto-admin@carga.local\",\"contrasena\":\"Carga123\",\"idSistema\":1}", 201, 3, 2);
+    }
+
+    @Test
+    void crearUsuario() throws Exception {
+        peticion("POST", "/api/usuarios/usuario", "{\"nombre\":\"Presupuesto\",\"apellido\":\"Usuario\","
+                + "\"email\":\"presupuesto-usuario@carga.local\"}", 201, 2, 1);
+    }
+
+    @Test
+    void crearUsuarioConActividad() throws Exception {
+        peticion("POST", "/api/usuarios/usuario-con-actividad", "{\"nombre\":\"Presupuesto\",\"apellido\":\"Actividad\","
+                + "\"email\":\"presupuesto-actividad@carga.local\",\"nombreActividad\":\"Actividad de gestión 1\","
+                + "\"sistemaAbrev\":\"SG1\",\"equipoNombre\":\"Equipo 1\",\"trimestre\":1,\"fechaMaxima\":\""
+                + LocalDate.now() + "\"}", 201, 2, 1);
+    }
+}
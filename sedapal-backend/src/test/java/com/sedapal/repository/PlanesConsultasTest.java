@@ -0,0 +1,245 @@
+package com.sedapal.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sedapal.SedapalApplication;
+import com.sedapal.model.UploadSesion;
+import com.sedapal.model.Usuario;
+import com.sedapal.soporte.EntornoPrueba;
+import com.sedapal.soporte.GrabacionSentencias;
+import com.sedapal.soporte.SentenciasDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Regresión de planes: ejecuta cada consulta declarada en los repositorios contra el
+ * esquema de Flyway (datos de carga/datos.sql y planes.sql) y revisa su EXPLAIN.
+ * Cada caso es una prueba, que falla si la consulta
+ *   - recorre una tabla completa (Seq Scan aun con enable_seqscan = off: no hay índice que sirva),
+ *   - recorre un índice completo para filtrar después (Index Scan sin Index Cond pero con Filter),
+ *   - no ejecuta SQL.
+ * metodosSinCaso falla si un repositorio tiene un método sin caso abajo.
+ *
+ * Cada caso corre en una transacción que se revierte, así que los métodos @Modifying no
+ * cambian los datos.
+ */
+@SpringBootTest(classes = SedapalApplication.class)
+@ActiveProfiles("carga")
+@Import(GrabacionSentencias.class)
+class PlanesConsultasTest {
+
+    /**
+     * recorridos: tablas que la consulta puede leer completas a propósito
+     */
+    private record Caso(Class<?> repositorio, String metodo, Consumer<Object> llamada, Set<String> recorridos) {
+        String nombre() {
+            return repositorio.getSimpleName() + "." + metodo;
+        }
+    }
+
+    private static final List<Caso> CASOS = new ArrayList<>();
+
+    static {
+        caso(ActividadRepository.class, "findByIdParaActualizar", r -> r.findByIdParaActualizar(1L));
+        caso(ActividadRepository.class, "findCantidadCambiosFecha", r -> r.findCantidadCambiosFecha(1L));
+        caso(ActividadRepository.class, "findCantidadesCambiosFecha", r -> r.findCantidadesCambiosFecha(List.of(1L, 2L, 3L)));
+        caso(ActividadRepository.class, "streamListado", r -> {
+            try (Stream<Object[]> filas = r.streamListado()) {
+                filas.limit(1).count();
+            }
+        });
+
+        caso(AdminSistemaRepository.class, "findByIdAdminAndEstado", r -> r.findByIdAdminAndEstado(2L, true));
+        caso(AdminSistemaRepository.class, "findByIdSistemaAndEstado", r -> r.findByIdSistemaAndEstado(1L, true));
+        caso(AdminSistemaRepository.class, "findByIdAdminAndIdSistemaAndEstado",
+                r -> r.findByIdAdminAndIdSistemaAndEstado(2L, 1L, true));
+        caso(AdminSistemaRepository.class, "existsByIdAdminAndIdSistemaAndEstado",
+                r -> r.existsByIdAdminAndIdSistemaAndEstado(2L, 1L, true));
+
+        caso(CambioFechaRepository.class, "findByIdActividadInOrderByFechaModificacionDesc",
+                r -> r.findByIdActividadInOrderByFechaModificacionDesc(List.of(1L, 2L), PageRequest.of(0, 20)));
+
+        LocalDate hoy = LocalDate.now();
+        caso(CumplimientoSnapshotRepository.class, "resumirSistema", r -> r.resumirSistema(1L));
+        caso(CumplimientoSnapshotRepository.class, "deleteByFecha", r -> r.deleteByFecha(hoy));
+        caso(CumplimientoSnapshotRepository.class, "existsByFecha", r -> r.existsByFecha(hoy));
+        caso(CumplimientoSnapshotRepository.class, "findByDimensionAndIdDimensionAndFechaBetweenOrderByFecha",
+                r -> r.findByDimensionAndIdDimensionAndFechaBetweenOrderByFecha("sistema", 1L, hoy.minusDays(90), hoy));
+        caso(CumplimientoSnapshotRepository.class, "findByDimensionAndFechaBetweenOrderByIdDimensionAscFechaAsc",
+                r -> r.findByDimensionAndFechaBetweenOrderByIdDimensionAscFechaAsc("sistema", hoy.minusDays(90), hoy));
+        caso(CumplimientoSnapshotRepository.class, "findMensual", r -> r.findMensual("sistema", 1L, hoy.minusYears(1), hoy));
+        caso(CumplimientoSnapshotRepository.class, "findMensual", r -> r.findMensual("sistema", null, hoy.minusYears(1), hoy));
+
+        String hash = "0".repeat(64);
+        caso(EntregableBlobRepository.class, "registrarReferencia", r -> r.registrarReferencia(hash, "blobs/" + hash, 10));
+        caso(EntregableBlobRepository.class, "liberarReferencia", r -> r.liberarReferencia(hash));
+        caso(EntregableBlobRepository.class, "findHuerfanos", r -> r.findHuerfanos(LocalDateTime.now()));
+        caso(EntregableBlobRepository.class, "findHuerfanoParaEliminar", r -> r.findHuerfanoParaEliminar(hash));
+        caso(EntregableBlobRepository.class, "findByIdParaActualizar", r -> r.findByIdParaActualizar(hash));
+
+        caso(EntregableRepository.class, "findByIdActividadOrderByFechaSubidaDesc", r -> r.findByIdActividadOrderByFechaSubidaDesc(1L));
+        caso(EntregableRepository.class, "buscarParaBundle", r -> r.buscarParaBundle(1L, null, null));
+        // ZIP de todo un sistema o trimestre: los filtros opcionales van dentro de un OR y quedan
+        // como SubPlan sobre cada entregable; el costo real es leer los archivos
+        caso(EntregableRepository.class, "buscarParaBundle", r -> r.buscarParaBundle(null, 1L, null), "tb_entregables");
+        caso(EntregableRepository.class, "buscarParaBundle", r -> r.buscarParaBundle(null, 1L, 2), "tb_entregables");
+        caso(EntregableRepository.class, "findParaArchivar", r -> r.findParaArchivar(LocalDateTime.now(), "", 200));
+        caso(EntregableRepository.class, "archivar", r -> r.archivar("blobs/1", "archivo/blobs/1.gz", "gzip", 1024, 300));
+        caso(EntregableRepository.class, "findUbicacion", r -> r.findUbicacion(1L));
+        // Reporte de bytes por nivel: recorre todos los objetos a propósito
+        caso(EntregableRepository.class, "resumirAlmacenamiento", EntregableRepository::resumirAlmacenamiento, "tb_entregables");
+
+        caso(SistemaRepository.class, "findByEstado", r -> r.findByEstado(1));
+        caso(SistemaRepository.class, "findById", r -> r.findById(1L));
+        caso(SistemaRepository.class, "findAllById", r -> r.findAllById(List.of(1L, 2L)));
+        caso(SistemaRepository.class, "findAsignadosAlAdmin", r -> r.findAsignadosAlAdmin(2L));
+
+        caso(UploadSesionRepository.class, "findByEstadoAndFechaCreacionBefore",
+                r -> r.findByEstadoAndFechaCreacionBefore(UploadSesion.Estado.activa, LocalDateTime.now()));
+        caso(UploadSesionRepository.class, "completar", r -> r.completar("sesion", 1L));
+        caso(UploadSesionRepository.class, "findIdEntregable", r -> r.findIdEntregable("sesion"));
+
+        caso(UsuarioRepository.class, "findByEmail", r -> r.findByEmail("usuario1@carga.local"));
+        caso(UsuarioRepository.class, "existsByEmail", r -> r.existsByEmail("usuario1@carga.local"));
+        caso(UsuarioRepository.class, "findByRolAndEstado", r -> r.findByRolAndEstado(Usuario.Rol.superadmin, true));
+        caso(UsuarioRepository.class, "findByEmailAndContrasenaAndEstado",
+                r -> r.findByEmailAndContrasenaAndEstado("usuario1@carga.local", "Carga123", true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> void caso(Class<R> repositorio, String metodo, Consumer<R> llamada, String... recorridos) {
+        CASOS.add(new Caso(repositorio, metodo, r -> llamada.accept((R) r), Set.of(recorridos)));
+    }
+
+    @DynamicPropertySource
+    static void entorno(DynamicPropertyRegistry registro) {
+        // planes.sql agrega filas para que el planificador tenga algo que elegir
+        EntornoPrueba.registrar(registro, "planes", "classpath:carga/datos.sql", "classpath:planes.sql");
+    }
+
+    @Autowired
+    private ApplicationContext ctx;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @TestFactory
+    Stream<DynamicTest> planes() {
+        SentenciasDataSource planes = GrabacionSentencias.de(dataSource);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        SessionFactory hibernate = entityManagerFactory.unwrap(SessionFactory.class);
+        return CASOS.stream().map(caso -> DynamicTest.dynamicTest(caso.nombre(), () -> {
+            // Sin caché de consultas: el caso tiene que llegar a la base
+            hibernate.getCache().evictAllRegions();
+            verificar(caso, ctx.getBean(caso.repositorio()), planes, tx);
+        }));
+    }
+
+    @Test
+    void metodosSinCaso() {
+        Set<String> cubiertos = new HashSet<>();
+        CASOS.forEach(c -> cubiertos.add(c.repositorio().getName() + "." + c.metodo()));
+        Set<String> faltantes = new TreeSet<>();
+        for (Object repositorio : ctx.getBeansOfType(Repository.class).values()) {
+            for (Class<?> interfaz : repositorio.getClass().getInterfaces()) {
+                if (!interfaz.getPackageName().equals(ActividadRepository.class.getPackageName())) continue;
+                Arrays.stream(interfaz.getDeclaredMethods())
+                        .filter(m -> !m.isDefault() && !m.isSynthetic())
+                        .filter(m -> !cubiertos.contains(interfaz.getName() + "." + m.getName()))
+                        .forEach(m -> faltantes.add(interfaz.getSimpleName() + "." + m.getName()));
+            }
+        }
+        assertTrue(faltantes.isEmpty(), () -> "Métodos de repositorio sin caso en PlanesConsultasTest: " + faltantes);
+    }
+
+    private static void verificar(Caso caso, Object repositorio, SentenciasDataSource planes, TransactionTemplate tx) {
+        List<String> accesos = new ArrayList<>();
+        List<String> problemas = new ArrayList<>();
+        planes.grabar(true);
+        try {
+            tx.executeWithoutResult(estado -> {
+                estado.setRollbackOnly();
+                caso.llamada().accept(repositorio);
+            });
+        } finally {
+            List<SentenciasDataSource.Sentencia> ejecutadas = planes.detener();
+            if (ejecutadas.isEmpty()) {
+                problemas.add("no ejecutó SQL (¿resultado en caché?)");
+            }
+            ObjectMapper json = new ObjectMapper();
+            for (SentenciasDataSource.Sentencia sentencia : ejecutadas) {
+                if (sentencia.plan() == null) continue;
+                try {
+                    revisar(json.readTree(sentencia.plan()).get(0).get("Plan"), caso.recorridos(), accesos, problemas);
+                } catch (Exception e) {
+                    problemas.add("plan ilegible para " + sentencia.sql() + ": " + e.getMessage());
+                }
+            }
+        }
+        if (!problemas.isEmpty()) {
+            StringBuilder informe = new StringBuilder(caso.nombre()).append(" (enable_seqscan = off)\n");
+            accesos.forEach(a -> informe.append("      ").append(a).append('\n'));
+            problemas.forEach(p -> informe.append("   ⚠️ ").append(p).append('\n'));
+            fail(informe.toString());
+        }
+    }
+
+    /**
+     * Recorrer el árbol del plan y anotar cómo se accede a cada tabla
+     */
+    private static void revisar(JsonNode nodo, Set<String> recorridos, List<String> accesos, List<String> problemas) {
+        String tipo = nodo.path("Node Type").asText();
+        String tabla = nodo.path("Relation Name").asText(null);
+        String indice = nodo.path("Index Name").asText(null);
+        if (tipo.equals("Bitmap Index Scan")) {
+            accesos.add(tipo + " (" + indice + ")");
+        } else if (tabla != null && !tipo.equals("ModifyTable")) {
+            accesos.add(tipo + " " + tabla + (indice != null ? " (" + indice + ")" : ""));
+            if (recorridos.contains(tabla)) {
+                accesos.add("  (lectura completa permitida)");
+            } else if (tipo.equals("Seq Scan")) {
+                problemas.add(tabla + ": Seq Scan, ningún índice sirve para " + nodo.path("Filter").asText("recorrerla"));
+            } else if (tipo.startsWith("Index") && !nodo.has("Index Cond") && nodo.has("Filter")) {
+                problemas.add(tabla + ": recorre todo " + indice + " para filtrar " + nodo.path("Filter").asText());
+            }
+        }
+        for (JsonNode hijo : nodo.path("Plans")) {
+            revisar(hijo, recorridos, accesos, problemas);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.sedapal.service;
+
+import com.sedapal.soporte.PruebaIntegracion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los archivos se borran recién cuando confirma la transacción que borra su fila: si se
+ * revierte, la fila sigue apuntando a un archivo que existe
+ */
+class EliminacionArchivosTest extends PruebaIntegracion {
+
+    @Autowired
+    private BlobService blobService;
+
+    @Autowired
+    private EntregableService entregableService;
+
+    @Autowired
+    private AlmacenamientoService almacenamientoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void blobHuerfanoRevertidoConservaSuArchivo() {
+        String hash = blobHuerfano();
+        String ruta = "blobs/" + hash;
+
+        revertir(() -> blobService.recolectarHuerfanos());
+
+        assertTrue(almacenamientoService.existe(ruta), "el archivo volvió a su ruta");
+        assertEquals(1, contar("SELECT count(*) FROM tb_entregable_blobs WHERE hash = ?", hash));
+        // Los controladores comparten la base: no dejar filas que cambien sus presupuestos
+        blobService.recolectarHuerfanos();
+    }
+
+    @Test
+    void blobHuerfanoConfirmadoSeBorra() {
+        String hash = blobHuerfano();
+
+        blobService.recolectarHuerfanos();
+
+        assertFalse(almacenamientoService.existe("blobs/" + hash));
+        assertEquals(0, contar("SELECT count(*) FROM tb_entregable_blobs WHERE hash = ?", hash));
+    }
+
+    @Test
+    void entregableAnteriorRevertidoConservaSuArchivo() {
+        String ruta = "legado/" + UUID.randomUUID() + ".pdf";
+        long id = entregableAnterior(ruta);
+
+        revertir(() -> entregableService.eliminar(id));
+
+        assertTrue(almacenamientoService.existe(ruta));
+        assertEquals(1, contar("SELECT count(*) FROM tb_entregables WHERE id = ?", id));
+        entregableService.eliminar(id);
+    }
+
+    @Test
+    void entregableAnteriorConfirmadoSeBorra() {
+        String ruta = "legado/" + UUID.randomUUID() + ".pdf";
+        long id = entregableAnterior(ruta);
+
+        entregableService.eliminar(id);
+
+        assertFalse(almacenamientoService.existe(ruta));
+        assertEquals(0, contar("SELECT count(*) FROM tb_entregables WHERE id = ?", id));
+    }
+
+    /**
+     * Blob sin referencias desde antes del periodo de gracia, con su archivo en blobs/hash
+     */
+    private String blobHuerfano() {
+        String hash = (UUID.randomUUID().toString() + UUID.randomUUID()).replace("-", "");
+        long tamano = escribir("blobs/" + hash);
+        jdbcTemplate.update("INSERT INTO tb_entregable_blobs (hash, ruta, tamano, referencias, fecha_sin_referencias) " +
+                "VALUES (?, ?, ?, 0, now() - interval '1 day')", hash, "blobs/" + hash, tamano);
+        return hash;
+    }
+
+    /**
+     * Entregable anterior a la deduplicación: sin hash y con su propio archivo
+     */
+    private long entregableAnterior(String ruta) {
+        long tamano = escribir(ruta);
+        return jdbcTemplate.queryForObject("INSERT INTO tb_entregables (id_actividad, nombre_archivo, ruta_archivo, " +
+                "tamaño_archivo, subido_por) VALUES (1, 'legado.pdf', ?, ?, 1) RETURNING id", Long.class, ruta, tamano);
+    }
+
+    private long escribir(String ruta) {
+        return almacenamientoService.escribir(ruta, new ByteArrayInputStream(ruta.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void revertir(Runnable accion) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            accion.run();
+            estado.setRollbackOnly();
+        });
+    }
+
+    private long contar(String sql, Object parametro) {
+        return jdbcTemplate.queryForObject(sql, Long.class, parametro);
+    }
+}
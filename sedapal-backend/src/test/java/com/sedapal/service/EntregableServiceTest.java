@@ -0,0 +1,25 @@
+package com.sedapal.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EntregableServiceTest {
+
+    @Test
+    void nombreEnZipSoloUsaElUltimoSegmento() {
+        assertEquals("informe.pdf", EntregableService.nombreEnZip("informe.pdf"));
+        assertEquals("passwd", EntregableService.nombreEnZip("../../etc/passwd"));
+        assertEquals("evil.exe", EntregableService.nombreEnZip("..\\..\\Windows\\evil.exe"));
+        assertEquals("x.txt", EntregableService.nombreEnZip("/tmp/x.txt"));
+        assertEquals("..informe.pdf", EntregableService.nombreEnZip("..informe.pdf"));
+    }
+
+    @Test
+    void nombreEnZipSinSegmentoValido() {
+        assertEquals("archivo", EntregableService.nombreEnZip(".."));
+        assertEquals("archivo", EntregableService.nombreEnZip("a/.."));
+        assertEquals("archivo", EntregableService.nombreEnZip("carpeta/"));
+        assertEquals("archivo", EntregableService.nombreEnZip(null));
+    }
+}
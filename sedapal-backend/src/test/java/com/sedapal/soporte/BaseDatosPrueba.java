@@ -0,0 +1,82 @@
+package com.sedapal.soporte;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Postgres embebido de las pruebas de integración: un servidor por JVM y una base por
+ * suite, con las migraciones de Flyway y los scripts de datos indicados. Cada suite
+ * tiene su propia base porque algunas agregan filas que cambiarían lo que miden otras.
+ */
+@Slf4j
+public final class BaseDatosPrueba {
+
+    public static final String USUARIO = "postgres";
+    public static final String CONTRASENA = "postgres";
+
+    private static final Map<String, String> URLS = new HashMap<>();
+    private static EmbeddedPostgres servidor;
+
+    private BaseDatosPrueba() {
+    }
+
+    /**
+     * URL JDBC de la base "nombre"; la primera vez se crea, se migra y se cargan los
+     * scripts (classpath:...) en orden, y se actualizan las estadísticas con ANALYZE
+     */
+    public static synchronized String url(String nombre, String... scripts) {
+        return URLS.computeIfAbsent(nombre, n -> crear(n, scripts));
+    }
+
+    private static String crear(String nombre, String... scripts) {
+        try {
+            if (servidor == null) {
+                servidor = EmbeddedPostgres.builder().start();
+                log.info("🐘 Postgres embebido de pruebas en el puerto {}", servidor.getPort());
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        servidor.close();
+                    } catch (IOException e) {
+                        log.warn("⚠️ No se pudo detener el Postgres embebido: {}", e.getMessage());
+                    }
+                }));
+            }
+            try (Connection con = servidor.getPostgresDatabase().getConnection();
+                 Statement st = con.createStatement()) {
+                st.execute("CREATE DATABASE " + nombre);
+            }
+            String url = servidor.getJdbcUrl(USUARIO, nombre);
+            Flyway.configure()
+                    .dataSource(url, USUARIO, CONTRASENA)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+
+            DefaultResourceLoader loader = new DefaultResourceLoader();
+            try (Connection con = DriverManager.getConnection(url, USUARIO, CONTRASENA);
+                 Statement st = con.createStatement()) {
+                for (String script : scripts) {
+                    st.execute(loader.getResource(script).getContentAsString(StandardCharsets.UTF_8));
+                }
+                st.execute("ANALYZE");
+            }
+            return url;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar el Postgres embebido", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo preparar la base " + nombre + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sedapal.soporte;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Propiedades de una suite de integración, para su @DynamicPropertySource: la base de
+ * BaseDatosPrueba y directorios temporales propios para el almacenamiento y el registro
+ * de eventos (dos contextos no pueden compartir los segmentos del registro).
+ */
+public final class EntornoPrueba {
+
+    private EntornoPrueba() {
+    }
+
+    public static void registrar(DynamicPropertyRegistry registro, String base, String... scripts) {
+        Path directorio = crearDirectorio(base);
+        registro.add("spring.datasource.url", () -> BaseDatosPrueba.url(base, scripts));
+        registro.add("spring.datasource.username", () -> BaseDatosPrueba.USUARIO);
+        registro.add("spring.datasource.password", () -> BaseDatosPrueba.CONTRASENA);
+        registro.add("app.storage.path", () -> directorio.resolve("storage").toString());
+        registro.add("app.eventos.path", () -> directorio.resolve("eventos").toString());
+    }
+
+    private static Path crearDirectorio(String base) {
+        try {
+            return Files.createTempDirectory("sedapal-" + base + "-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sedapal.soporte;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Envuelve el DataSource de la aplicación en un SentenciasDataSource antes que los
+ * decoradores propios (circuito JDBC, réplicas), así que graba lo que llega al pool.
+ * Las pruebas lo obtienen con {@link #de(DataSource)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class GrabacionSentencias {
+
+    @Bean
+    public static BeanPostProcessor grabacionSentenciasPostProcessor() {
+        return new Envoltorio();
+    }
+
+    public static SentenciasDataSource de(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(SentenciasDataSource.class);
+        } catch (SQLException e) {
+            throw new IllegalStateException("El DataSource no graba sentencias: falta @Import(GrabacionSentencias.class)", e);
+        }
+    }
+
+    private static final class Envoltorio implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                return new SentenciasDataSource(dataSource);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.sedapal.soporte;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Presupuesto de SQL de un caso grabado con SentenciasDataSource:
+ *   - consultas: cantidad exacta (menos también falla, para bajar el presupuesto a propósito),
+ *   - filas: máximo de filas leídas de los ResultSet.
+ * Si no cumple, el mensaje trae el SQL ejecutado agrupado por sentencia y marca las
+ * repetidas (¿N+1?).
+ */
+public final class PresupuestoConsultas {
+
+    private static final Pattern PARAMETROS = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private PresupuestoConsultas() {
+    }
+
+    public static void verificar(String caso, List<SentenciasDataSource.Sentencia> ejecutadas, int consultas, long filas) {
+        long leidas = ejecutadas.stream().mapToLong(SentenciasDataSource.Sentencia::filasLeidas).sum();
+        List<String> problemas = new ArrayList<>();
+        if (ejecutadas.size() != consultas) {
+            problemas.add(ejecutadas.size() + " consultas, presupuesto exacto " + consultas);
+        }
+        if (leidas > filas) {
+            problemas.add(leidas + " filas leídas, máximo " + filas);
+        }
+        if (!problemas.isEmpty()) {
+            StringBuilder informe = new StringBuilder(caso).append('\n');
+            problemas.forEach(p -> informe.append("   ⚠️ ").append(p).append('\n'));
+            fail(informe.append(detalle(ejecutadas)).toString());
+        }
+    }
+
+    /**
+     * SQL ejecutado agrupado por sentencia normalizada, en orden de primera aparición
+     */
+    public static String detalle(List<SentenciasDataSource.Sentencia> ejecutadas) {
+        Map<String, List<SentenciasDataSource.Sentencia>> grupos = new LinkedHashMap<>();
+        for (SentenciasDataSource.Sentencia s : ejecutadas) {
+            grupos.computeIfAbsent(normalizar(s.sql()), k -> new ArrayList<>()).add(s);
+        }
+        StringBuilder sb = new StringBuilder();
+        grupos.forEach((sql, lista) -> {
+            long leidas = lista.stream().mapToLong(SentenciasDataSource.Sentencia::filasLeidas).sum();
+            long afectadas = lista.stream().mapToLong(SentenciasDataSource.Sentencia::filasAfectadas).sum();
+            sb.append(String.format("      %3d× %s%n           filas leídas %d, afectadas %d%s%n", lista.size(), sql, leidas, afectadas,
+                    lista.size() > 1 ? "   ⚠️ repetida " + lista.size() + " veces (¿N+1?)" : ""));
+        });
+        return sb.toString();
+    }
+
+    private static String normalizar(String sql) {
+        String limpio = PARAMETROS.matcher(sql.replaceAll("\\s+", " ").trim()).replaceAll("?, ...");
+        return limpio.length() <= 220 ? limpio : limpio.substring(0, 217) + "...";
+    }
+}
@@ -0,0 +1,92 @@
+package com.sedapal.soporte;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Presupuesto de consultas de los endpoints de un controlador (una subclase por
+ * controlador, ControladorTest): cada prueba hace peticiones HTTP reales y compara el SQL
+ * que ejecutó cada una con su presupuesto (PresupuestoConsultas).
+ *
+ * Antes de cada petición se vacían la caché de segundo nivel y RespuestasCache, así que
+ * los presupuestos son los de una caché fría. Al terminar la clase falla si algún
+ * endpoint del controlador no se llamó (sólo si corrieron todas sus pruebas).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class PresupuestoEndpoints extends PruebaIntegracion {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Class<?> controlador;
+    private int pruebasEjecutadas;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    protected PresupuestoEndpoints(Class<?> controlador) {
+        this.controlador = controlador;
+    }
+
+    /**
+     * Hacer la petición con la caché fría y verificar el estado HTTP y el presupuesto.
+     * Devuelve el cuerpo JSON de la respuesta, o null si no es JSON.
+     */
+    protected JsonNode peticion(String metodo, String ruta, String cuerpo, int estado, int consultas, long filas)
+            throws Exception {
+        vaciarCacheSegundoNivel();
+        vaciarRespuestasCache();
+        SentenciasDataSource sentencias = sentencias();
+        HttpResponse<byte[]> respuesta;
+        List<SentenciasDataSource.Sentencia> ejecutadas;
+        sentencias.grabar(false);
+        try {
+            respuesta = enviar(metodo, ruta, cuerpo);
+        } finally {
+            ejecutadas = sentencias.detener();
+        }
+
+        String caso = metodo + " " + ruta;
+        String texto = new String(respuesta.body(), StandardCharsets.UTF_8);
+        assertEquals(estado, respuesta.statusCode(), () -> caso + " respondió " + respuesta.statusCode() + ": " + texto);
+        PresupuestoConsultas.verificar(caso, ejecutadas, consultas, filas);
+        return respuesta.headers().firstValue("Content-Type").filter(t -> t.startsWith("application/json")).isPresent()
+                ? JSON.readTree(respuesta.body())
+                : null;
+    }
+
+    @AfterEach
+    void contarPrueba() {
+        pruebasEjecutadas++;
+    }
+
+    @AfterAll
+    void endpointsSinPrueba() {
+        long declaradas = Arrays.stream(getClass().getDeclaredMethods()).filter(m -> m.isAnnotationPresent(Test.class)).count();
+        if (pruebasEjecutadas < declaradas) {
+            // Corrida filtrada (-Dtest=Clase#metodo): no se puede saber qué faltó
+            return;
+        }
+        List<String> faltantes = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(e -> e.getValue().getBeanType().equals(controlador) && !atendido(e.getValue()))
+                .map(e -> e.getKey() + " (" + controlador.getSimpleName() + "." + e.getValue().getMethod().getName() + ")")
+                .sorted()
+                .toList();
+        assertTrue(faltantes.isEmpty(), () -> "Endpoints sin prueba de presupuesto en " + getClass().getSimpleName() + ": " + faltantes);
+    }
+}
@@ -0,0 +1,136 @@
+package com.sedapal.soporte;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.sedapal.SedapalApplication;
+import com.sedapal.model.AdminSistema;
+import com.sedapal.model.Sistema;
+import com.sedapal.model.Usuario;
+import com.sedapal.service.RespuestasCache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Backend completo para las pruebas de integración: puerto libre, Postgres embebido con
+ * los datos de carga/datos.sql (base "consultas") y GreenMail como SMTP. Todas las
+ * subclases comparten el mismo contexto, así que los datos que agrega una prueba los ven
+ * las siguientes.
+ */
+@SpringBootTest(classes = SedapalApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.archivo.edad-dias=0")
+@ActiveProfiles("carga")
+@Import({GrabacionSentencias.class, PruebaIntegracion.HandlersAtendidos.class})
+public abstract class PruebaIntegracion {
+
+    private static GreenMail smtp;
+
+    @DynamicPropertySource
+    static void entorno(DynamicPropertyRegistry registro) {
+        EntornoPrueba.registrar(registro, "consultas", "classpath:carga/datos.sql");
+        registro.add("spring.mail.port", () -> iniciarSmtp().getSmtp().getPort());
+    }
+
+    private static synchronized GreenMail iniciarSmtp() {
+        if (smtp == null) {
+            smtp = new GreenMail(ServerSetup.SMTP.dynamicPort())
+                    .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+            smtp.start();
+        }
+        return smtp;
+    }
+
+    /**
+     * Qué método de controlador atendió cada petición ("Clase.metodo")
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class HandlersAtendidos {
+
+        static final Set<String> ATENDIDOS = ConcurrentHashMap.newKeySet();
+
+        @Bean
+        Filter handlersAtendidos() {
+            return (request, response, chain) -> {
+                chain.doFilter(request, response);
+                if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod h) {
+                    ATENDIDOS.add(h.getBeanType().getName() + "." + h.getMethod().getName());
+                }
+            };
+        }
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RespuestasCache respuestasCache;
+
+    protected SentenciasDataSource sentencias() {
+        return GrabacionSentencias.de(dataSource);
+    }
+
+    /**
+     * Vaciar la caché de segundo nivel (entidades y consultas)
+     */
+    protected void vaciarCacheSegundoNivel() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    /**
+     * Vaciar las respuestas serializadas de los catálogos
+     */
+    protected void vaciarRespuestasCache() {
+        for (Class<?> entidad : List.of(Sistema.class, AdminSistema.class, Usuario.class)) {
+            respuestasCache.invalidar(entidad);
+        }
+    }
+
+    /**
+     * cuerpo null: sin cuerpo. PUT envía application/octet-stream (chunks), el resto JSON.
+     */
+    protected HttpResponse<byte[]> enviar(String metodo, String ruta, String cuerpo) throws Exception {
+        HttpRequest.BodyPublisher publicador = cuerpo != null
+                ? HttpRequest.BodyPublishers.ofString(cuerpo)
+                : HttpRequest.BodyPublishers.noBody();
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                        .header("Content-Type", metodo.equals("PUT") ? "application/octet-stream" : "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .method(metodo, publicador)
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    static boolean atendido(HandlerMethod handler) {
+        return HandlersAtendidos.ATENDIDOS.contains(handler.getBeanType().getName() + "." + handler.getMethod().getName());
+    }
+}
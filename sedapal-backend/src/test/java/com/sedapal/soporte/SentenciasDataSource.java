@@ -0,0 +1,194 @@
+package com.sedapal.soporte;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DataSource de las pruebas de integración (ver GrabacionSentencias): mientras hay una
+ * grabación abierta anota cada sentencia que se ejecuta, en cualquier hilo (las consultas
+ * en paralelo del executor también cuentan), con las filas leídas y las afectadas. Un
+ * executeBatch cuenta como una sentencia. Las pruebas graban un caso a la vez.
+ *
+ * Con explicar = true (PlanesConsultasTest) cada PreparedStatement pasa antes por
+ * EXPLAIN (FORMAT JSON) en la misma conexión y transacción, con los mismos parámetros
+ * y con enable_seqscan = off (con los pocos datos del arnés Postgres prefiere recorrer
+ * la tabla aunque haya índice).
+ */
+public final class SentenciasDataSource extends DelegatingDataSource {
+
+    public static final class Sentencia {
+        private final String sql;
+        private final String plan;
+        // un solo hilo escribe cada contador; se leen al cerrar la grabación
+        private volatile long filasLeidas;
+        private volatile long filasAfectadas;
+
+        private Sentencia(String sql, String plan) {
+            this.sql = sql;
+            this.plan = plan;
+        }
+
+        public String sql() {
+            return sql;
+        }
+
+        /** JSON de EXPLAIN, o null si no se pidió */
+        public String plan() {
+            return plan;
+        }
+
+        public long filasLeidas() {
+            return filasLeidas;
+        }
+
+        public long filasAfectadas() {
+            return filasAfectadas;
+        }
+    }
+
+    private record Grabacion(boolean explicar, List<Sentencia> sentencias) {
+    }
+
+    private record Parametro(Method metodo, Object[] argumentos) {
+    }
+
+    private volatile Grabacion grabacion;
+
+    SentenciasDataSource(DataSource destino) {
+        super(destino);
+    }
+
+    public void grabar(boolean explicar) {
+        grabacion = new Grabacion(explicar, Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    public List<Sentencia> detener() {
+        Grabacion actual = grabacion;
+        grabacion = null;
+        return actual != null ? List.copyOf(actual.sentencias()) : List.of();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    private Connection envolver(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    Object resultado = invocar(conexion, metodo, argumentos);
+                    if (metodo.getName().equals("prepareStatement")) {
+                        return envolver(conexion, (PreparedStatement) resultado, (String) argumentos[0]);
+                    }
+                    if (metodo.getName().equals("createStatement")) {
+                        return envolver(conexion, (Statement) resultado, null);
+                    }
+                    return resultado;
+                });
+    }
+
+    /**
+     * sql es null para un Statement simple: el SQL llega en cada execute
+     */
+    private Statement envolver(Connection conexion, Statement sentencia, String sql) {
+        List<Parametro> parametros = new ArrayList<>();
+        Sentencia[] ultima = new Sentencia[1];
+        Class<?> tipo = sql != null ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, argumentos) -> {
+                    String nombre = metodo.getName();
+                    if (nombre.startsWith("set") && argumentos != null && argumentos.length >= 2
+                            && argumentos[0] instanceof Integer) {
+                        parametros.add(new Parametro(metodo, argumentos));
+                    } else if (nombre.equals("clearParameters")) {
+                        parametros.clear();
+                    } else if (nombre.startsWith("execute")) {
+                        ultima[0] = sql != null ? anotar(conexion, sql, parametros) : anotar(null, (String) argumentos[0], null);
+                    }
+                    Object resultado = invocar(sentencia, metodo, argumentos);
+                    if (ultima[0] == null) {
+                        return resultado;
+                    }
+                    if (resultado instanceof ResultSet rs) {
+                        return contar(rs, ultima[0]);
+                    }
+                    if (nombre.startsWith("execute") && resultado instanceof Number n) {
+                        ultima[0].filasAfectadas += n.longValue();
+                    } else if (nombre.equals("executeBatch") && resultado instanceof int[] filas) {
+                        for (int f : filas) ultima[0].filasAfectadas += Math.max(f, 0);
+                    } else if (nombre.equals("getUpdateCount") && resultado instanceof Integer n && n > 0) {
+                        ultima[0].filasAfectadas += n;
+                    }
+                    return resultado;
+                });
+    }
+
+    /**
+     * parametros es null para un Statement simple, que no se explica
+     */
+    private Sentencia anotar(Connection conexion, String sql, List<Parametro> parametros) throws Exception {
+        Grabacion actual = grabacion;
+        if (actual == null) {
+            return null;
+        }
+        boolean explicar = actual.explicar() && parametros != null;
+        Sentencia sentencia = new Sentencia(sql, explicar ? explicar(conexion, sql, parametros) : null);
+        actual.sentencias().add(sentencia);
+        return sentencia;
+    }
+
+    private ResultSet contar(ResultSet rs, Sentencia sentencia) {
+        return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, metodo, argumentos) -> {
+                    Object resultado = invocar(rs, metodo, argumentos);
+                    if (metodo.getName().equals("next") && Boolean.TRUE.equals(resultado)) {
+                        sentencia.filasLeidas++;
+                    }
+                    return resultado;
+                });
+    }
+
+    private static String explicar(Connection conexion, String sql, List<Parametro> parametros) throws Exception {
+        try (Statement st = conexion.createStatement()) {
+            st.execute("SET enable_seqscan = off");
+        }
+        try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            for (Parametro p : parametros) {
+                p.metodo().invoke(explain, p.argumentos());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        } finally {
+            try (Statement st = conexion.createStatement()) {
+                st.execute("RESET enable_seqscan");
+            }
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
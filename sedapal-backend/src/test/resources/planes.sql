@@ -0,0 +1,44 @@
+-- ============================================
+-- Filas extra para PlanesConsultasTest: con tablas vacías el planificador
+-- elige cualquier índice y el EXPLAIN no dice nada
+-- ============================================
+
+INSERT INTO tb_actividad_trimestres (id_actividad, trimestre)
+SELECT a.id_actividad, 1 + ((a.id_actividad + 1) % 4)
+FROM tb_actividades a;
+
+INSERT INTO tb_cambios_fecha (id_actividad, fecha_anterior, fecha_nueva, modificado_por, fecha_modificacion)
+SELECT a.id_actividad, a.fecha_maxima_entrega, a.fecha_maxima_entrega + k * 7,
+       (SELECT MIN(id_usuario) FROM tb_usuarios WHERE rol = 'admin'), TIMESTAMP '2025-01-01' + k * INTERVAL '1 day'
+FROM tb_actividades a
+CROSS JOIN generate_series(1, 2) k;
+
+INSERT INTO tb_entregable_blobs (hash, ruta, tamano, referencias, fecha_sin_referencias)
+SELECT md5(g::text) || md5((-g)::text), 'blobs/' || g, 1024 * g,
+       CASE WHEN g % 20 = 0 THEN 0 ELSE 1 END,
+       CASE WHEN g % 20 = 0 THEN TIMESTAMP '2025-01-01' END
+FROM generate_series(1, 1000) g;
+
+INSERT INTO tb_entregables (id_actividad, nombre_archivo, ruta_archivo, tamaño_archivo, subido_por, hash_sha256)
+SELECT ua.id_actividad, 'entregable-' || ua.id || '.pdf', 'blobs/' || ua.id, 1024 * ua.id, ua.id_usuario,
+       md5(ua.id::text) || md5((-ua.id)::text)
+FROM tb_usuario_actividades ua;
+
+INSERT INTO tb_upload_sesiones (id_sesion, id_actividad, subido_por, nombre_archivo, tamano_total,
+                                tamano_chunk, total_chunks, estado, fecha_creacion)
+SELECT md5(g::text)::uuid::text, 1 + (g % 500), (SELECT MIN(id_usuario) FROM tb_usuarios WHERE rol = 'usuario'),
+       'subida-' || g || '.zip', 5242880 * 3, 5242880, 3,
+       CASE WHEN g % 10 = 0 THEN 'activa' ELSE 'completada' END,
+       TIMESTAMP '2025-01-01' + g * INTERVAL '1 hour'
+FROM generate_series(1, 300) g;
+
+-- Un año de snapshots: total + 20 sistemas + 5 gerencias + 20 equipos + 4 trimestres por día
+INSERT INTO tb_cumplimiento_snapshots (fecha, dimension, id_dimension, actividades, completadas, pendientes,
+                                       asignaciones, cumple, no_cumple)
+SELECT CURRENT_DATE - d, x.dimension, x.id, 25, 8, 17, 50, 12, 12
+FROM generate_series(0, 364) d
+CROSS JOIN (SELECT 'total' AS dimension, 0 AS id
+            UNION ALL SELECT 'sistema', g FROM generate_series(1, 20) g
+            UNION ALL SELECT 'gerencia', g FROM generate_series(1, 5) g
+            UNION ALL SELECT 'equipo', g FROM generate_series(1, 20) g
+            UNION ALL SELECT 'trimestre', g FROM generate_series(1, 4) g) x;
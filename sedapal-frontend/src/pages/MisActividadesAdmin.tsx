@@ -499,9 +499,6 @@ export default function MisActividadesAdmin({ idAdmin }: MisActividadesAdminProp
         console.warn(`Advertencia: Fecha fuera del trimestre ${editFechaData.trimestre}, pero es uno de los ${2 - cantidadCambios} cambios permitidos restantes.`);
       }
 
-      const actividadActual = actividades.find(a => a.id_actividad === editingActividadId);
-      const fechaAnterior = actividadActual?.fecha_sustento || null;
-
       // Calcular fecha final con días hábiles
       let fechaFinal = editFechaData.fecha_sustento;
       if (editFechaData.dias_habiles > 0 && editFechaData.fecha_sustento) {
@@ -519,17 +516,10 @@ export default function MisActividadesAdmin({ idAdmin }: MisActividadesAdminProp
         fechaFinal = formatearFechaISO(fecha);
       }
 
-      // Actualizar actividad
-      await actividadesService.update(editingActividadId, {
-        fecha_sustento: fechaFinal || null,
-        estado_actividad: 'reprogramado'
-      });
-
-      // Registrar el cambio
-      await cambiosFechaService.registrarCambio(
+      // Reprogramar (fecha + registro del cambio + contador en una sola transacción)
+      await cambiosFechaService.reprogramar(
         editingActividadId,
         idAdmin,
-        fechaAnterior,
         fechaFinal || editFechaData.fecha_sustento
       );
 
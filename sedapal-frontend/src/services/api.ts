@@ -894,6 +894,27 @@ export const authService = {
 // URL del backend Spring Boot
 const BACKEND_URL = import.meta.env.VITE_BACKEND_URL || 'http://localhost:8080';
 
+// POST al backend con Idempotency-Key: la misma clave en cada reintento, así un reintento
+// tras un timeout devuelve la respuesta original en vez de crear o enviar el correo otra vez
+async function postIdempotente(path: string, payload: unknown, reintentos = 2): Promise<Response> {
+  // randomUUID solo existe en contextos seguros (https o localhost)
+  const clave = typeof crypto.randomUUID === 'function'
+    ? crypto.randomUUID()
+    : `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`;
+  for (let intento = 0; ; intento++) {
+    try {
+      return await fetch(`${BACKEND_URL}${path}`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json', 'Idempotency-Key': clave },
+        body: JSON.stringify(payload)
+      });
+    } catch (error) {
+      if (intento >= reintentos) throw error;
+      await new Promise((resolve) => setTimeout(resolve, 500 * (intento + 1)));
+    }
+  }
+}
+
 // ============================================
 // NOTIFICACIONES POR EMAIL
 // ============================================
@@ -909,20 +930,14 @@ export const notificacionesService = {
     fechaMaxima: string | null
   ): Promise<void> {
     try {
-      const response = await fetch(`${BACKEND_URL}/api/notificaciones/actividad-asignada`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({
-          email,
-          nombreUsuario,
-          nombreActividad,
-          sistemaAbrev,
-          equipoNombre,
-          trimestre,
-          fechaMaxima: fechaMaxima || 'No especificada'
-        })
+      const response = await postIdempotente('/api/notificaciones/actividad-asignada', {
+        email,
+        nombreUsuario,
+        nombreActividad,
+        sistemaAbrev,
+        equipoNombre,
+        trimestre,
+        fechaMaxima: fechaMaxima || 'No especificada'
       });
 
       if (!response.ok) {
@@ -947,10 +962,7 @@ export const notificacionesService = {
     equipoNombre?: string | null;
     fechaMaxima?: string | null;
   }): Promise<void> {
-    const response = await fetch(`${BACKEND_URL}/api/notificaciones/usuario-cumplio`, {
-      method: 'POST', headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
-    });
+    const response = await postIdempotente('/api/notificaciones/usuario-cumplio', payload);
     if (!response.ok) {
       const txt = await response.text();
       throw new Error(txt || 'Error al notificar cumplimiento');
@@ -967,10 +979,7 @@ export const notificacionesService = {
     equipoNombre?: string | null;
     fechaMaxima?: string | null;
   }): Promise<void> {
-    const response = await fetch(`${BACKEND_URL}/api/notificaciones/conforme`, {
-      method: 'POST', headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
-    });
+    const response = await postIdempotente('/api/notificaciones/conforme', payload);
     if (!response.ok) {
       const txt = await response.text();
       throw new Error(txt || 'Error al notificar conforme');
@@ -985,10 +994,7 @@ export const notificacionesService = {
     gerenciaNombre: string;
     equipoNombre: string;
   }): Promise<void> {
-    const response = await fetch(`${BACKEND_URL}/api/notificaciones/usuario-creado`, {
-      method: 'POST', headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
-    });
+    const response = await postIdempotente('/api/notificaciones/usuario-creado', payload);
     if (!response.ok) {
       const txt = await response.text();
       throw new Error(txt || 'Error al enviar notificación de usuario creado');
@@ -1002,10 +1008,7 @@ export const notificacionesService = {
     sistemaAbrev: string;
     sistemaNombre: string;
   }): Promise<void> {
-    const response = await fetch(`${BACKEND_URL}/api/notificaciones/asignacion-sistema`, {
-      method: 'POST', headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
-    });
+    const response = await postIdempotente('/api/notificaciones/asignacion-sistema', payload);
     if (!response.ok) {
       const txt = await response.text();
       throw new Error(txt || 'Error al enviar notificación de asignación de sistema');
@@ -1022,11 +1025,7 @@ export const usuariosService = {
     contrasena: string;
     idSistema: number;
   }): Promise<Usuario> {
-    const response = await fetch(`${BACKEND_URL}/api/usuarios/admin`, {
-      method: 'POST',
-      headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(admin)
-    });
+    const response = await postIdempotente('/api/usuarios/admin', admin);
     if (!response.ok) {
       const errText = await response.text();
       throw new Error(errText || 'Error al crear administrador');
@@ -1048,11 +1047,8 @@ export const usuariosService = {
     email: string;
     contrasena?: string; // opcional: para fallback directo a BD
   }): Promise<Usuario & { contrasena?: string }> {
-    const response = await fetch(`${BACKEND_URL}/api/usuarios/usuario`, {
-      method: 'POST',
-      headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify({ nombre: payload.nombre, apellido: payload.apellido, email: payload.email })
-    });
+    const response = await postIdempotente('/api/usuarios/usuario',
+      { nombre: payload.nombre, apellido: payload.apellido, email: payload.email });
     if (!response.ok) {
       // Fallback: crear directo en Supabase usando la contraseña proporcionada (si hay)
       try {
@@ -1111,10 +1107,7 @@ export const usuariosService = {
     trimestre: number;
     fechaMaxima: string | null;
   }): Promise<Usuario & { contrasena?: string }> {
-    const response = await fetch(`${BACKEND_URL}/api/usuarios/usuario-con-actividad`, {
-      method: 'POST', headers: { 'Content-Type': 'application/json' },
-      body: JSON.stringify(payload)
-    });
+    const response = await postIdempotente('/api/usuarios/usuario-con-actividad', payload);
     if (!response.ok) {
       const errText = await response.text();
       throw new Error(errText || 'Error al crear usuario con actividad');
@@ -1966,34 +1959,32 @@ export const adminActividadesService = {
 // CAMBIOS DE FECHA (máximo 2 veces)
 // ============================================
 export const cambiosFechaService = {
-  // Obtener cantidad de cambios realizados
+  // Obtener cantidad de cambios realizados (contador en tb_actividades)
   async getCantidadCambios(idActividad: number): Promise<number> {
-    const { data, error } = await supabase
-      .from('tb_cambios_fecha')
-      .select('id')
-      .eq('id_actividad', idActividad);
-
-    if (error) throw error;
-    return (data || []).length;
+    const response = await fetch(`${BACKEND_URL}/api/actividades/${idActividad}/cambios-fecha/cantidad`);
+    if (!response.ok) {
+      const txt = await response.text();
+      throw new Error(txt || 'Error al obtener cambios de fecha');
+    }
+    const data = await response.json();
+    return data.cantidad ?? 0;
   },
 
-  // Registrar cambio de fecha
-  async registrarCambio(
+  // Reprogramar: actualiza la fecha, registra el cambio y suma el contador en una sola transacción
+  async reprogramar(
     idActividad: number,
     idAdmin: number,
-    fechaAnterior: string | null,
     fechaNueva: string
-  ): Promise<void> {
-    const { error } = await supabase
-      .from('tb_cambios_fecha')
-      .insert([{
-        id_actividad: idActividad,
-        fecha_anterior: fechaAnterior,
-        fecha_nueva: fechaNueva,
-        modificado_por: idAdmin
-      }]);
-
-    if (error) throw error;
+  ): Promise<{ cantidadCambios: number; cambiosRestantes: number }> {
+    const response = await fetch(`${BACKEND_URL}/api/actividades/${idActividad}/reprogramaciones`, {
+      method: 'POST', headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ modificadoPor: idAdmin, fechaNueva })
+    });
+    if (!response.ok) {
+      const txt = await response.text();
+      throw new Error(txt || 'Error al reprogramar la actividad');
+    }
+    return response.json();
   }
 };
 